@@ -0,0 +1,150 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.fcrepo.indexer.IndexerGroup.BASE_URL_HEADER_NAME;
+import static org.fcrepo.indexer.IndexerGroup.EVENT_TYPE_HEADER_NAME;
+import static org.fcrepo.indexer.IndexerGroup.IDENTIFIER_HEADER_NAME;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import javax.jms.JMSException;
+
+import org.apache.activemq.command.ActiveMQTextMessage;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.fcrepo.indexer.benchmarks.StubRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Dispatch of an update message by {@link IndexerGroup} to one indexer of each
+ * content type, including retrieval of the content from a stub repository.
+ * The indexers do nothing with the content, so this measures the consumer's
+ * own overhead per message.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class IndexerGroupBenchmark {
+
+    @Param({"100", "10000"})
+    private int triples;
+
+    private StubRepository repository;
+
+    private DefaultHttpClient httpClient;
+
+    private IndexerGroup group;
+
+    private ActiveMQTextMessage message;
+
+    /**
+     * Start the stub repository and build the message.
+     *
+     * @throws IOException if the repository could not be started
+     * @throws JMSException if the message could not be built
+     */
+    @Setup
+    public void setUp() throws IOException, JMSException {
+        repository = new StubRepository(triples);
+        repository.start();
+        httpClient = new DefaultHttpClient(new PoolingClientConnectionManager());
+        final Set<Indexer<Object>> indexers = new HashSet<>();
+        for (final Indexer.IndexerType type : Indexer.IndexerType.values()) {
+            indexers.add(new DiscardingIndexer(type));
+        }
+        group = new IndexerGroup(indexers, httpClient);
+
+        final URI resource = repository.resource();
+        message = new ActiveMQTextMessage();
+        message.setStringProperty(BASE_URL_HEADER_NAME,
+                resource.getScheme() + "://" + resource.getAuthority() + "/rest");
+        message.setStringProperty(IDENTIFIER_HEADER_NAME, "/resource");
+        message.setStringProperty(EVENT_TYPE_HEADER_NAME, "http://fedora.info/definitions/v4/repository#NODE_ADDED");
+    }
+
+    /**
+     * Stop the stub repository.
+     */
+    @TearDown
+    public void tearDown() {
+        httpClient.getConnectionManager().shutdown();
+        repository.stop();
+    }
+
+    /**
+     * Handle one update message.
+     */
+    @Benchmark
+    public void onMessage() {
+        group.onMessage(message);
+    }
+
+    /**
+     * An indexer that accepts content of one type and discards it.
+     */
+    private static class DiscardingIndexer extends SynchIndexer<Object, Void> {
+
+        private final IndexerType type;
+
+        DiscardingIndexer(final IndexerType type) {
+            this.type = type;
+        }
+
+        @Override
+        public Callable<Void> updateSynch(final URI identifier, final Object content) {
+            return new Callable<Void>() {
+
+                @Override
+                public Void call() {
+                    return null;
+                }
+            };
+        }
+
+        @Override
+        public Callable<Void> removeSynch(final URI identifier) {
+            return updateSynch(identifier, null);
+        }
+
+        @Override
+        public IndexerType getIndexerType() {
+            return type;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.benchmarks;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Collection;
+import java.util.Map;
+
+import org.fcrepo.indexer.NamedFieldsDeserializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.stream.JsonReader;
+
+/**
+ * Reading LDPath transform output with {@link NamedFieldsDeserializer}, against
+ * the {@link TreeNamedFieldsReader tree-based reader} it replaced. The fields
+ * read are iterated twice, as {@link org.fcrepo.indexer.solr.SolrIndexer} does
+ * when it compares and then sends them.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class NamedFieldsDeserializerBenchmark {
+
+    @Param({"10", "1000"})
+    private int values;
+
+    private final NamedFieldsDeserializer deserializer = new NamedFieldsDeserializer();
+
+    private final TreeNamedFieldsReader baseline = new TreeNamedFieldsReader();
+
+    private byte[] json;
+
+    /**
+     * Generate the transform output.
+     */
+    @Setup
+    public void setUp() {
+        json = StubRepository.transformOutput("http://localhost:8080/rest/resource", values);
+    }
+
+    /**
+     * @return the length of the values read
+     * @throws IOException if the JSON could not be read
+     */
+    @Benchmark
+    public long read() throws IOException {
+        try (JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(json), UTF_8))) {
+            return consume(deserializer.read(reader));
+        }
+    }
+
+    /**
+     * @return the length of the values read
+     * @throws IOException if the JSON could not be read
+     */
+    @Benchmark
+    public long baseline() throws IOException {
+        try (JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(json), UTF_8))) {
+            return consume(baseline.read(reader));
+        }
+    }
+
+    private static long consume(final Map<String, Collection<String>> fields) {
+        long length = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            for (final Map.Entry<String, Collection<String>> field : fields.entrySet()) {
+                for (final String value : field.getValue()) {
+                    length += value.length();
+                }
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.benchmarks;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.io.IOException;
+
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.fcrepo.indexer.ParallelNTriplesParser;
+import org.fcrepo.indexer.RdfRetriever;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.hp.hpl.jena.rdf.model.Model;
+
+/**
+ * Retrieval and parsing of a resource's RDF by {@link RdfRetriever}, as Turtle
+ * and as N-Triples split across threads by {@link ParallelNTriplesParser}.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class RdfRetrieverBenchmark {
+
+    @Param({"100", "10000"})
+    private int triples;
+
+    private StubRepository repository;
+
+    private DefaultHttpClient httpClient;
+
+    private ParallelNTriplesParser parser;
+
+    /**
+     * Start the stub repository.
+     *
+     * @throws IOException if it could not be started
+     */
+    @Setup
+    public void setUp() throws IOException {
+        repository = new StubRepository(triples);
+        repository.start();
+        httpClient = new DefaultHttpClient(new PoolingClientConnectionManager());
+        parser = new ParallelNTriplesParser();
+    }
+
+    /**
+     * Stop the stub repository.
+     */
+    @TearDown
+    public void tearDown() {
+        parser.shutdown();
+        httpClient.getConnectionManager().shutdown();
+        repository.stop();
+    }
+
+    /**
+     * @return the retrieved RDF, parsed as Turtle
+     */
+    @Benchmark
+    public Model turtle() {
+        return new RdfRetriever(repository.resource(), httpClient).get();
+    }
+
+    /**
+     * @return the retrieved RDF, parsed as N-Triples
+     */
+    @Benchmark
+    public Model parallelNTriples() {
+        return new RdfRetriever(repository.resource(), httpClient, parser).get();
+    }
+}
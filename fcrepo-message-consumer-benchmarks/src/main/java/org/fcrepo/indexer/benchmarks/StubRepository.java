@@ -0,0 +1,205 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.benchmarks;
+
+import static com.hp.hpl.jena.rdf.model.ModelFactory.createDefaultModel;
+import static com.hp.hpl.jena.rdf.model.ResourceFactory.createProperty;
+import static com.hp.hpl.jena.vocabulary.RDF.type;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.jena.riot.WebContent.contentTypeNTriples;
+import static org.apache.jena.riot.WebContent.contentTypeTurtle;
+import static org.fcrepo.indexer.IndexerGroup.INDEXABLE_MIXIN;
+import static org.fcrepo.indexer.IndexerGroup.INDEXING_TRANSFORM_PREDICATE;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+
+import org.glassfish.grizzly.http.Method;
+import org.glassfish.grizzly.http.server.HttpHandler;
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.glassfish.grizzly.http.server.Request;
+import org.glassfish.grizzly.http.server.Response;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.Property;
+import com.hp.hpl.jena.rdf.model.Resource;
+
+/**
+ * An in-process stand-in for a Fedora repository, serving a generated
+ * resource at every path under {@code /rest/}: its RDF as Turtle or
+ * N-Triples, its LDPath transform output as JSON, and its jcr/xml export.
+ * Content is generated once as a template in which only the resource's URI
+ * is substituted, so benchmarks measure the consumer rather than the stub.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class StubRepository {
+
+    private static final String REST_PATH = "/rest/";
+
+    private static final String PLACEHOLDER = "http://stub.invalid/resource";
+
+    private static final Property DESCRIPTION = createProperty("http://purl.org/dc/elements/1.1/description");
+
+    private final int triples;
+
+    private HttpServer server;
+
+    private String base;
+
+    private String turtle;
+
+    private String nTriples;
+
+    private String fields;
+
+    private byte[] export;
+
+    /**
+     * @param triples the number of descriptive triples in the resource's RDF
+     */
+    public StubRepository(final int triples) {
+        this.triples = triples;
+    }
+
+    /**
+     * Generate the resource and start serving it.
+     *
+     * @throws IOException if the server could not be started
+     */
+    public void start() throws IOException {
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        base = "http://localhost:" + port;
+        generate();
+        server = HttpServer.createSimpleServer(null, "localhost", port);
+        server.getServerConfiguration().addHttpHandler(new HttpHandler() {
+
+            @Override
+            public void service(final Request request, final Response response) throws Exception {
+                final String path = request.getRequestURI();
+                if (!path.startsWith(REST_PATH)) {
+                    response.setStatus(404);
+                } else if (Method.HEAD.equals(request.getMethod())) {
+                    response.setStatus(200);
+                } else if (path.contains("/fcr:transform/")) {
+                    send(response, "application/json", fields, path.substring(0, path.indexOf("/fcr:transform/")));
+                } else if (path.endsWith("/fcr:export")) {
+                    send(response, "application/xml", export);
+                } else {
+                    final String accept = request.getHeader("Accept");
+                    if (accept != null && accept.contains(contentTypeNTriples)) {
+                        send(response, contentTypeNTriples, nTriples, path);
+                    } else {
+                        send(response, contentTypeTurtle, turtle, path);
+                    }
+                }
+            }
+        }, "/");
+        server.start();
+    }
+
+    /**
+     * Stop serving.
+     */
+    public void stop() {
+        if (server != null) {
+            server.shutdownNow();
+        }
+    }
+
+    /**
+     * @return the URI of a served resource
+     */
+    public URI resource() {
+        return resource("resource");
+    }
+
+    /**
+     * @param name the name of the resource
+     * @return the URI of the served resource with this name
+     */
+    public URI resource(final String name) {
+        return URI.create(base + REST_PATH + name);
+    }
+
+    /**
+     * @return the base URL of the repository's REST API, without a trailing slash
+     */
+    public String restBase() {
+        return base + REST_PATH.substring(0, REST_PATH.length() - 1);
+    }
+
+    /**
+     * Generate LDPath transform output like that served for the resource.
+     *
+     * @param id the identifier of the resource
+     * @param values the number of values of its description field
+     * @return the JSON transform output
+     */
+    public static byte[] transformOutput(final String id, final int values) {
+        final StringBuilder json = new StringBuilder("[{\"id\":[\"").append(id).append("\"],\"description\":[");
+        for (int i = 0; i < values; i++) {
+            json.append(i == 0 ? "" : ",").append("\"Description ").append(i).append(" of a generated resource\"");
+        }
+        return json.append("]}]").toString().getBytes(UTF_8);
+    }
+
+    private void generate() {
+        final Model model = createDefaultModel();
+        final Resource subject = model.createResource(PLACEHOLDER);
+        subject.addProperty(type, INDEXABLE_MIXIN);
+        subject.addProperty(INDEXING_TRANSFORM_PREDICATE, "default");
+        for (int i = 0; i < triples; i++) {
+            subject.addProperty(DESCRIPTION, "Description " + i + " of a generated resource");
+        }
+        turtle = write(model, "TURTLE");
+        nTriples = write(model, "N-TRIPLE");
+        fields = new String(transformOutput(PLACEHOLDER, triples), UTF_8);
+
+        final StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<sv:node xmlns:sv=\"http://www.jcp.org/jcr/sv/1.0\" sv:name=\"resource\">\n");
+        for (int i = 0; i < triples; i++) {
+            xml.append("<sv:property sv:name=\"dc:description\" sv:type=\"String\"><sv:value>Description ")
+                    .append(i).append(" of a generated resource</sv:value></sv:property>\n");
+        }
+        export = xml.append("</sv:node>\n").toString().getBytes(UTF_8);
+    }
+
+    private static String write(final Model model, final String lang) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        model.write(out, lang);
+        return new String(out.toByteArray(), UTF_8);
+    }
+
+    private void send(final Response response, final String contentType, final String template,
+            final String path) throws IOException {
+        send(response, contentType, template.replace(PLACEHOLDER, base + path).getBytes(UTF_8));
+    }
+
+    private static void send(final Response response, final String contentType, final byte[] content)
+            throws IOException {
+        response.setStatus(200);
+        response.setContentType(contentType);
+        response.setContentLength(content.length);
+        response.getOutputStream().write(content);
+    }
+}
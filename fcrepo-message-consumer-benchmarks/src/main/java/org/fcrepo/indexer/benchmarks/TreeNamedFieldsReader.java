@@ -0,0 +1,73 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.benchmarks;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableList.builder;
+import static com.google.common.collect.Maps.transformValues;
+
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+
+/**
+ * The way {@link org.fcrepo.indexer.NamedFieldsDeserializer} used to read
+ * LDPath transform output, kept as a baseline: the output is parsed into a
+ * JSON tree, and the fields are a lazy view over it that converts a field's
+ * values again each time they are read.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class TreeNamedFieldsReader {
+
+    private static final Type type = new TypeToken<List<Map<String, JsonElement>>>() {}
+            .getType();
+
+    private static Function<JsonElement, Collection<String>> jsonElement2list =
+        new Function<JsonElement, Collection<String>>() {
+
+            @Override
+            public List<String> apply(final JsonElement input) {
+                final JsonElement json =
+                    checkNotNull(input, "Cannot transform null!");
+                final ImmutableList.Builder<String> b = builder();
+                for (final JsonElement value : json.getAsJsonArray()) {
+                    b.add(value.getAsString());
+                }
+                return b.build();
+            }
+        };
+
+    private final Gson gson = new Gson();
+
+    /**
+     * @param in the transform output
+     * @return the fields of the first result
+     */
+    public Map<String, Collection<String>> read(final JsonReader in) {
+        final List<Map<String, JsonElement>> fields = gson.fromJson(in, type);
+        return transformValues(fields.get(0), jsonElement2list);
+    }
+}
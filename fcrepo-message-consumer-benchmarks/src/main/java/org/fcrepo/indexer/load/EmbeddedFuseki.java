@@ -0,0 +1,113 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.load;
+
+import static java.lang.Thread.sleep;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.IOException;
+
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.apache.jena.fuseki.FusekiCmd;
+import org.slf4j.Logger;
+
+/**
+ * An in-memory Fuseki triplestore, run in this JVM as the integration tests
+ * do, with its dataset at {@code /load}.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class EmbeddedFuseki {
+
+    private static final Logger LOGGER = getLogger(EmbeddedFuseki.class);
+
+    private final int port;
+
+    private final int mgtPort;
+
+    private final DefaultHttpClient client = new DefaultHttpClient();
+
+    /**
+     * @param port the port on which to serve the dataset
+     * @param mgtPort the port on which to serve the management interface
+     */
+    public EmbeddedFuseki(final int port, final int mgtPort) {
+        this.port = port;
+        this.mgtPort = mgtPort;
+    }
+
+    /**
+     * Start Fuseki, and wait for it to answer.
+     *
+     * @throws IOException if Fuseki did not start
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void start() throws IOException, InterruptedException {
+        final Thread runner = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                FusekiCmd.main("--update", "--mem", "--port=" + port, "--mgtPort=" + mgtPort, "/load");
+            }
+        }, "fuseki");
+        runner.setDaemon(true);
+        runner.start();
+        for (int attempt = 0; attempt < 100; attempt++) {
+            try {
+                EntityUtils.consume(client.execute(new HttpGet(managementUrl())).getEntity());
+                return;
+            } catch (final IOException e) {
+                LOGGER.debug("Waiting for Fuseki to start");
+                sleep(100);
+            }
+        }
+        throw new IOException("Fuseki did not start on port " + port);
+    }
+
+    /**
+     * Stop Fuseki.
+     */
+    public void stop() {
+        try {
+            EntityUtils.consume(client.execute(new HttpPost(managementUrl() + "?cmd=shutdown")).getEntity());
+        } catch (final IOException e) {
+            LOGGER.debug("Fuseki has stopped: {}", e.getMessage());
+        }
+        client.getConnectionManager().shutdown();
+    }
+
+    /**
+     * @return the URL of the dataset's query endpoint
+     */
+    public String queryBase() {
+        return "http://localhost:" + port + "/load/query";
+    }
+
+    /**
+     * @return the URL of the dataset's update endpoint
+     */
+    public String updateBase() {
+        return "http://localhost:" + port + "/load/update";
+    }
+
+    private String managementUrl() {
+        return "http://localhost:" + mgtPort + "/mgt";
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.load;
+
+import static java.nio.file.Files.copy;
+import static java.nio.file.Files.createDirectories;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+import org.apache.solr.client.solrj.SolrServer;
+import org.apache.solr.client.solrj.embedded.EmbeddedSolrServer;
+import org.apache.solr.core.CoreContainer;
+
+/**
+ * A Solr core run in this JVM, configured from the harness's own minimal
+ * schema: an {@code id} and any number of multi-valued text fields.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class EmbeddedSolr {
+
+    private static final String CORE = "load";
+
+    private static final String[] CONFIG = {"solr.xml", CORE + "/core.properties", CORE + "/conf/schema.xml",
+        CORE + "/conf/solrconfig.xml"};
+
+    private final Path home;
+
+    private CoreContainer container;
+
+    /**
+     * @param home the directory in which to create the Solr home
+     */
+    public EmbeddedSolr(final Path home) {
+        this.home = home;
+    }
+
+    /**
+     * Create the Solr home and load its core.
+     *
+     * @return a client for the core
+     * @throws IOException if the Solr home could not be created
+     */
+    public SolrServer start() throws IOException {
+        for (final String name : CONFIG) {
+            final Path target = home.resolve(name);
+            createDirectories(target.getParent());
+            try (InputStream config = EmbeddedSolr.class.getResourceAsStream("/load/solr/" + name)) {
+                copy(config, target);
+            }
+        }
+        final String solrHome = home.toString();
+        container = CoreContainer.createAndLoad(solrHome, new File(solrHome, "solr.xml"));
+        return new EmbeddedSolrServer(container, CORE);
+    }
+
+    /**
+     * Close the core.
+     */
+    public void stop() {
+        if (container != null) {
+            container.shutdown();
+        }
+    }
+}
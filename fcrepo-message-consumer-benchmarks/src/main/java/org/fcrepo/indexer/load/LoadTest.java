@@ -0,0 +1,340 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.load;
+
+import static java.lang.Integer.parseInt;
+import static java.lang.System.getProperty;
+import static java.lang.System.nanoTime;
+import static java.lang.Thread.sleep;
+import static java.lang.management.ManagementFactory.getMemoryMXBean;
+import static java.nio.file.Files.createTempDirectory;
+import static java.nio.file.Files.isDirectory;
+import static java.nio.file.Files.newDirectoryStream;
+import static java.nio.file.Files.newInputStream;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static javax.jms.DeliveryMode.NON_PERSISTENT;
+import static javax.jms.Session.AUTO_ACKNOWLEDGE;
+import static org.fcrepo.jms.headers.DefaultMessageFactory.JMS_NAMESPACE;
+import static org.fcrepo.kernel.api.RdfLexicon.REPOSITORY_NAMESPACE;
+
+import java.io.IOException;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.jms.Connection;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import javax.jms.Topic;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerService;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.solr.client.solrj.SolrServer;
+import org.fcrepo.indexer.AsynchIndexer;
+import org.fcrepo.indexer.EventLog;
+import org.fcrepo.indexer.EventRecorder;
+import org.fcrepo.indexer.Indexer;
+import org.fcrepo.indexer.IndexerGroup;
+import org.fcrepo.indexer.IndexingEvent;
+import org.fcrepo.indexer.benchmarks.StubRepository;
+import org.fcrepo.indexer.persistence.JcrXmlPersistenceIndexer;
+import org.fcrepo.indexer.persistence.RdfPersistenceIndexer;
+import org.fcrepo.indexer.solr.SolrIndexer;
+import org.fcrepo.indexer.sparql.SparqlIndexer;
+
+import com.codahale.metrics.Snapshot;
+
+/**
+ * Drives sustained load through the whole consumer: events are published at a
+ * fixed rate to an embedded ActiveMQ broker, consumed by an
+ * {@link IndexerGroup}, retrieved from a {@link StubRepository} and indexed
+ * into an embedded Solr core, an in-memory Fuseki dataset, or files on disk.
+ * <p>
+ * Each indexer is run alone at each rate, so that throughput, latency (from
+ * publication of an event to completion of its indexing) and heap usage can
+ * be attributed to it. Runs are configured by system properties:
+ * <ul>
+ * <li>{@code load.indexers}: any of {@code sparql}, {@code solr},
+ * {@code jcrxml} and {@code rdf} (default: all);</li>
+ * <li>{@code load.rates}: events per second (default: 50,200);</li>
+ * <li>{@code load.duration}: seconds of publishing per run (default: 30);</li>
+ * <li>{@code load.drain}: most seconds to wait after publishing for indexing
+ * to finish (default: 60);</li>
+ * <li>{@code load.resources}: distinct resources to which events refer
+ * (default: 1000);</li>
+ * <li>{@code load.triples}: descriptive triples per resource (default:
+ * 50);</li>
+ * <li>{@code load.replay}: an event log, or a directory of them, recorded by
+ * an {@link EventRecorder}, whose identifiers and event types are published
+ * in turn in place of generated events (default: none);</li>
+ * <li>{@code load.fuseki.port}, {@code load.fuseki.mgt.port}: Fuseki's ports
+ * (default: 3030, 3031).</li>
+ * </ul>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class LoadTest {
+
+    private static final String NODE_ADDED = REPOSITORY_NAMESPACE + "NODE_ADDED";
+
+    private static final String PROPERTY_CHANGED = REPOSITORY_NAMESPACE + "PROPERTY_CHANGED";
+
+    private final int duration = parseInt(getProperty("load.duration", "30"));
+
+    private final int drain = parseInt(getProperty("load.drain", "60"));
+
+    private final int resources = parseInt(getProperty("load.resources", "1000"));
+
+    private final MemoryMXBean memory = getMemoryMXBean();
+
+    private final List<IndexingEvent> recorded = new ArrayList<>();
+
+    private Path workDir;
+
+    private StubRepository repository;
+
+    private BrokerService broker;
+
+    private EmbeddedFuseki fuseki;
+
+    private EmbeddedSolr solr;
+
+    private SolrServer solrServer;
+
+    private DefaultHttpClient httpClient;
+
+    /**
+     * Run the load test.
+     *
+     * @param args ignored; see the class description for configuration
+     * @throws Exception if the stand-ins could not be started
+     */
+    public static void main(final String[] args) throws Exception {
+        final LoadTest test = new LoadTest();
+        try {
+            test.start();
+            System.out.println(String.format("%-8s %8s %8s %8s %8s %8s %8s %8s %8s %8s %8s",
+                    "indexer", "rate/s", "sent", "done", "errors", "tput/s", "p50ms", "p95ms", "p99ms",
+                    "heapMB", "liveMB"));
+            for (final String indexer : getProperty("load.indexers", "sparql,solr,jcrxml,rdf").split(",")) {
+                for (final String rate : getProperty("load.rates", "50,200").split(",")) {
+                    test.run(indexer.trim(), parseInt(rate.trim()));
+                }
+            }
+        } finally {
+            test.stop();
+        }
+    }
+
+    private void start() throws Exception {
+        workDir = createTempDirectory("fcrepo-load");
+        repository = new StubRepository(parseInt(getProperty("load.triples", "50")));
+        repository.start();
+
+        broker = new BrokerService();
+        broker.setBrokerName("load");
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.start();
+
+        httpClient = new DefaultHttpClient(new PoolingClientConnectionManager());
+
+        final String replay = getProperty("load.replay");
+        if (replay != null) {
+            read(Paths.get(replay));
+        }
+    }
+
+    private void read(final Path path) throws IOException {
+        if (isDirectory(path)) {
+            final List<Path> logs = new ArrayList<>();
+            try (final DirectoryStream<Path> files = newDirectoryStream(path)) {
+                for (final Path file : files) {
+                    logs.add(file);
+                }
+            }
+            Collections.sort(logs);
+            for (final Path log : logs) {
+                read(log);
+            }
+            return;
+        }
+        try (final EventLog.Reader reader = new EventLog.Reader(newInputStream(path))) {
+            for (IndexingEvent event = reader.read(); event != null; event = reader.read()) {
+                if (event.getIdentifier() != null) {
+                    recorded.add(event);
+                }
+            }
+        }
+    }
+
+    private void stop() throws Exception {
+        if (httpClient != null) {
+            httpClient.getConnectionManager().shutdown();
+        }
+        if (solr != null) {
+            solr.stop();
+        }
+        if (fuseki != null) {
+            fuseki.stop();
+        }
+        if (broker != null) {
+            broker.stop();
+        }
+        if (repository != null) {
+            repository.stop();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Indexer<Object> indexer(final String name) throws Exception {
+        final Indexer<?> indexer;
+        switch (name) {
+            case "sparql":
+                if (fuseki == null) {
+                    fuseki = new EmbeddedFuseki(parseInt(getProperty("load.fuseki.port", "3030")),
+                            parseInt(getProperty("load.fuseki.mgt.port", "3031")));
+                    fuseki.start();
+                }
+                final SparqlIndexer sparql = new SparqlIndexer();
+                sparql.setQueryBase(fuseki.queryBase());
+                sparql.setUpdateBase(fuseki.updateBase());
+                sparql.setFormUpdates(false);
+                indexer = sparql;
+                break;
+            case "solr":
+                if (solr == null) {
+                    solr = new EmbeddedSolr(workDir.resolve("solr"));
+                    solrServer = solr.start();
+                }
+                indexer = new SolrIndexer(solrServer);
+                break;
+            case "jcrxml":
+                indexer = new JcrXmlPersistenceIndexer(workDir.resolve("jcrxml").toString());
+                break;
+            case "rdf":
+                indexer = new RdfPersistenceIndexer(workDir.resolve("rdf").toString(), "TURTLE", ".ttl");
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown indexer: " + name);
+        }
+        return (Indexer<Object>) indexer;
+    }
+
+    private void run(final String name, final int rate) throws Exception {
+        final Map<URI, Long> published = new ConcurrentHashMap<>();
+        final Indexer<Object> target = indexer(name);
+        final MeasuredIndexer indexer = new MeasuredIndexer(target, published);
+        final IndexerGroup group = new IndexerGroup(Collections.<Indexer<Object>>singleton(indexer), httpClient);
+
+        final AtomicLong peakHeap = new AtomicLong();
+        final ScheduledExecutorService sampler = newSingleThreadScheduledExecutor();
+        memory.gc();
+
+        final ActiveMQConnectionFactory factory = new ActiveMQConnectionFactory("vm://load?create=false");
+        final Connection connection = factory.createConnection();
+        long sent = 0;
+        final long start;
+        try {
+            final Session consumerSession = connection.createSession(false, AUTO_ACKNOWLEDGE);
+            final Session producerSession = connection.createSession(false, AUTO_ACKNOWLEDGE);
+            final Topic topic = producerSession.createTopic("fedora");
+            consumerSession.createConsumer(topic).setMessageListener(group);
+            final MessageProducer producer = producerSession.createProducer(topic);
+            producer.setDeliveryMode(NON_PERSISTENT);
+            connection.start();
+
+            sampler.scheduleAtFixedRate(new Runnable() {
+
+                @Override
+                public void run() {
+                    final long used = memory.getHeapMemoryUsage().getUsed();
+                    if (used > peakHeap.get()) {
+                        peakHeap.set(used);
+                    }
+                }
+            }, 0, 50, MILLISECONDS);
+
+            // publish at a fixed rate, catching up rather than drifting when publishing falls behind
+            final long interval = SECONDS.toNanos(1) / rate;
+            final long total = (long) rate * duration;
+            start = nanoTime();
+            for (; sent < total; sent++) {
+                final long wait = start + sent * interval - nanoTime();
+                if (wait > 0) {
+                    NANOSECONDS.sleep(wait);
+                }
+                final String id;
+                final String eventType;
+                if (recorded.isEmpty()) {
+                    id = "/load/" + sent % resources;
+                    eventType = sent < resources ? NODE_ADDED : PROPERTY_CHANGED;
+                } else {
+                    final IndexingEvent event = recorded.get((int) (sent % recorded.size()));
+                    id = event.getIdentifier();
+                    eventType = event.getEventType();
+                }
+                final TextMessage message = producerSession.createTextMessage();
+                message.setStringProperty(JMS_NAMESPACE + "baseURL", repository.restBase());
+                message.setStringProperty(JMS_NAMESPACE + "identifier", id);
+                message.setStringProperty(JMS_NAMESPACE + "eventType", eventType);
+                published.put(URI.create(repository.restBase() + id), nanoTime());
+                producer.send(message);
+            }
+
+            final long deadline = nanoTime() + SECONDS.toNanos(drain);
+            while (indexer.completed() < sent && nanoTime() < deadline) {
+                sleep(100);
+            }
+        } finally {
+            connection.close();
+            sampler.shutdownNow();
+            if (target instanceof AsynchIndexer) {
+                ((AsynchIndexer<?, ?>) target).executorService().shutdown();
+            }
+        }
+        memory.gc();
+        report(name, rate, sent, start, indexer, peakHeap.get(), memory.getHeapMemoryUsage().getUsed());
+    }
+
+    private static void report(final String name, final int rate, final long sent, final long start,
+            final MeasuredIndexer indexer, final long peakHeap, final long liveHeap) {
+        final long completed = indexer.completed();
+        final long elapsed = indexer.lastCompleted() - start;
+        final double throughput = elapsed > 0 ? completed * (double) SECONDS.toNanos(1) / elapsed : 0;
+        final Snapshot latency = indexer.latency().getSnapshot();
+        System.out.println(String.format("%-8s %8d %8d %8d %8d %8.1f %8.1f %8.1f %8.1f %8d %8d",
+                name, rate, sent, completed, indexer.errors(), throughput, latency.getMedian() / 1000,
+                latency.get95thPercentile() / 1000, latency.get99thPercentile() / 1000, peakHeap >> 20,
+                liveHeap >> 20));
+    }
+}
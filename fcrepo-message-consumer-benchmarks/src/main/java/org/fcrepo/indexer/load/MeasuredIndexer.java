@@ -0,0 +1,135 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.load;
+
+import static com.google.common.util.concurrent.Futures.addCallback;
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.fcrepo.indexer.Indexer;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.UniformReservoir;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Wraps an indexer to record, for each operation it completes, the time since
+ * the event that caused it was published.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class MeasuredIndexer implements Indexer<Object> {
+
+    private final Indexer<Object> indexer;
+
+    private final Map<URI, Long> published;
+
+    private final Histogram latency = new Histogram(new UniformReservoir(1 << 16));
+
+    private final AtomicLong completed = new AtomicLong();
+
+    private final AtomicLong errors = new AtomicLong();
+
+    private volatile long lastCompleted;
+
+    /**
+     * @param indexer the indexer to measure
+     * @param published the time (from {@link System#nanoTime}) at which the last event for each resource was
+     *        published
+     */
+    public MeasuredIndexer(final Indexer<Object> indexer, final Map<URI, Long> published) {
+        this.indexer = indexer;
+        this.published = published;
+    }
+
+    @Override
+    public ListenableFuture<?> update(final URI id, final Object content) throws IOException {
+        return measure(id, indexer.update(id, content));
+    }
+
+    @Override
+    public ListenableFuture<?> remove(final URI id) throws IOException {
+        return measure(id, indexer.remove(id));
+    }
+
+    @Override
+    public IndexerType getIndexerType() {
+        return indexer.getIndexerType();
+    }
+
+    private ListenableFuture<?> measure(final URI id, final ListenableFuture<?> future) {
+        addCallback(future, new FutureCallback<Object>() {
+
+            @Override
+            public void onSuccess(final Object result) {
+                done();
+            }
+
+            @Override
+            public void onFailure(final Throwable t) {
+                errors.incrementAndGet();
+                done();
+            }
+
+            private void done() {
+                final long now = nanoTime();
+                final Long start = published.get(id);
+                if (start != null) {
+                    latency.update(NANOSECONDS.toMicros(now - start));
+                }
+                lastCompleted = now;
+                completed.incrementAndGet();
+            }
+        }, sameThreadExecutor());
+        return future;
+    }
+
+    /**
+     * @return the latency (in microseconds) of each completed operation
+     */
+    public Histogram latency() {
+        return latency;
+    }
+
+    /**
+     * @return the number of operations completed, successfully or not
+     */
+    public long completed() {
+        return completed.get();
+    }
+
+    /**
+     * @return the number of operations that failed
+     */
+    public long errors() {
+        return errors.get();
+    }
+
+    /**
+     * @return the time (from {@link System#nanoTime}) at which the last operation completed
+     */
+    public long lastCompleted() {
+        return lastCompleted;
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.load;
+
+import static java.lang.Integer.parseInt;
+import static java.lang.Thread.sleep;
+import static javax.jms.Session.AUTO_ACKNOWLEDGE;
+import static org.fcrepo.jms.headers.DefaultMessageFactory.JMS_NAMESPACE;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.Session;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+
+/**
+ * One consumer node of a {@link ScaleOutTest}, run in its own JVM: consumes
+ * from the shared virtual-topic queue, spends a fixed time on each event as a
+ * stand-in for indexing it, and reports each event on standard output as
+ * {@code event <resource> <sequence>}. Stops when standard input is closed.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class ScaleOutNode {
+
+    static final String QUEUE = "Consumer.indexer.fedora";
+
+    static final String SEQUENCE = "sequence";
+
+    static final String READY = "ready";
+
+    static final String EVENT = "event ";
+
+    /**
+     * @param args the broker URL, and milliseconds of work per event
+     * @throws Exception if the broker could not be reached
+     */
+    public static void main(final String[] args) throws Exception {
+        final int work = parseInt(args[1]);
+        final ActiveMQConnectionFactory factory = new ActiveMQConnectionFactory(args[0]);
+        // one event at a time, so that groups are shared between nodes as they join
+        factory.getPrefetchPolicy().setQueuePrefetch(1);
+        final Connection connection = factory.createConnection();
+        try {
+            final Session session = connection.createSession(false, AUTO_ACKNOWLEDGE);
+            final MessageConsumer consumer = session.createConsumer(session.createQueue(QUEUE));
+            final Thread worker = new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    try {
+                        while (true) {
+                            final Message message = consumer.receive();
+                            if (message == null) {
+                                return;
+                            }
+                            if (work > 0) {
+                                sleep(work);
+                            }
+                            System.out.println(EVENT + message.getStringProperty(JMS_NAMESPACE + "identifier") + " "
+                                    + message.getLongProperty(SEQUENCE));
+                        }
+                    } catch (final JMSException e) {
+                        e.printStackTrace();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }, "scale-out-node");
+            worker.setDaemon(true);
+            worker.start();
+            connection.start();
+            System.out.println(READY);
+            System.out.flush();
+
+            final BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+            while (in.readLine() != null) {
+                // wait for the test to close standard input
+            }
+        } finally {
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.load;
+
+import static java.lang.Integer.parseInt;
+import static java.lang.System.getProperty;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static javax.jms.DeliveryMode.NON_PERSISTENT;
+import static javax.jms.Session.AUTO_ACKNOWLEDGE;
+import static org.fcrepo.indexer.load.ScaleOutNode.EVENT;
+import static org.fcrepo.indexer.load.ScaleOutNode.QUEUE;
+import static org.fcrepo.indexer.load.ScaleOutNode.READY;
+import static org.fcrepo.indexer.load.ScaleOutNode.SEQUENCE;
+import static org.fcrepo.jms.headers.DefaultMessageFactory.JMS_NAMESPACE;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.jms.Connection;
+import javax.jms.Message;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerPlugin;
+import org.apache.activemq.broker.BrokerService;
+import org.apache.activemq.broker.region.DestinationInterceptor;
+import org.apache.activemq.broker.region.virtual.VirtualDestination;
+import org.apache.activemq.broker.region.virtual.VirtualDestinationInterceptor;
+import org.apache.activemq.broker.region.virtual.VirtualTopic;
+import org.fcrepo.indexer.MessageGroupPlugin;
+
+/**
+ * Checks that consumer nodes in separate JVMs can share the repository's
+ * events: an embedded ActiveMQ broker, with a {@link MessageGroupPlugin} and a
+ * virtual topic for {@code fedora}, receives events for a set of resources,
+ * and each of several {@link ScaleOutNode} processes consumes from the
+ * virtual topic's queue. Reports throughput for each number of nodes, and
+ * fails if any resource's events were split between nodes or received out
+ * of order. Runs are configured by system properties:
+ * <ul>
+ * <li>{@code scale.nodes}: numbers of nodes (default: 1,2,4);</li>
+ * <li>{@code scale.events}: events published per run (default: 2000);</li>
+ * <li>{@code scale.resources}: distinct resources to which events refer
+ * (default: 100);</li>
+ * <li>{@code scale.work}: milliseconds each node spends on each event
+ * (default: 5);</li>
+ * <li>{@code scale.drain}: most seconds to wait for every event to be
+ * consumed (default: 120).</li>
+ * </ul>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class ScaleOutTest {
+
+    private final int events = parseInt(getProperty("scale.events", "2000"));
+
+    private final int resources = parseInt(getProperty("scale.resources", "100"));
+
+    private final String work = getProperty("scale.work", "5");
+
+    private final int drain = parseInt(getProperty("scale.drain", "120"));
+
+    private BrokerService broker;
+
+    private String brokerUrl;
+
+    /**
+     * Run the scale-out test.
+     *
+     * @param args ignored; see the class description for configuration
+     * @throws Exception if the broker or a node could not be started
+     */
+    public static void main(final String[] args) throws Exception {
+        final ScaleOutTest test = new ScaleOutTest();
+        boolean ordered = true;
+        try {
+            test.start();
+            System.out.println(String.format("%-6s %8s %8s %8s %8s %8s %8s",
+                    "nodes", "sent", "done", "tput/s", "minRes", "maxRes", "errors"));
+            for (final String nodes : getProperty("scale.nodes", "1,2,4").split(",")) {
+                ordered &= test.run(parseInt(nodes.trim()));
+            }
+        } finally {
+            test.stop();
+        }
+        if (!ordered) {
+            System.exit(1);
+        }
+    }
+
+    private void start() throws Exception {
+        final VirtualTopic virtualTopic = new VirtualTopic();
+        virtualTopic.setName("fedora");
+        virtualTopic.setPrefix("Consumer.*.");
+        final VirtualDestinationInterceptor interceptor = new VirtualDestinationInterceptor();
+        interceptor.setVirtualDestinations(new VirtualDestination[] { virtualTopic });
+
+        broker = new BrokerService();
+        broker.setBrokerName("scale");
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.setDestinationInterceptors(new DestinationInterceptor[] { interceptor });
+        broker.setPlugins(new BrokerPlugin[] { new MessageGroupPlugin() });
+        broker.addConnector("tcp://localhost:0");
+        broker.start();
+        broker.waitUntilStarted();
+        brokerUrl = broker.getTransportConnectors().get(0).getPublishableConnectString();
+    }
+
+    private void stop() throws Exception {
+        if (broker != null) {
+            broker.stop();
+            broker.waitUntilStopped();
+        }
+    }
+
+    private boolean run(final int count) throws Exception {
+        final CountDownLatch ready = new CountDownLatch(count);
+        final CountDownLatch received = new CountDownLatch(events);
+        final AtomicLong last = new AtomicLong();
+        final List<Process> nodes = new ArrayList<>();
+        final List<Map<String, List<Long>>> consumed = new ArrayList<>();
+        try {
+            for (int node = 0; node < count; node++) {
+                final Map<String, List<Long>> sequences = new ConcurrentHashMap<>();
+                consumed.add(sequences);
+                nodes.add(launch(sequences, ready, received, last));
+            }
+            if (!ready.await(60, SECONDS)) {
+                throw new IllegalStateException("Nodes did not start");
+            }
+
+            final long start = nanoTime();
+            publish();
+            received.await(drain, SECONDS);
+            return report(count, consumed, start, last.get());
+        } finally {
+            for (final Process node : nodes) {
+                node.getOutputStream().close();
+                if (!node.waitFor(10, SECONDS)) {
+                    node.destroy();
+                }
+            }
+            // discard anything left over, and the groups' assignments, before the next run
+            broker.getAdminView().removeQueue(QUEUE);
+        }
+    }
+
+    private Process launch(final Map<String, List<Long>> sequences, final CountDownLatch ready,
+            final CountDownLatch received, final AtomicLong last) throws IOException {
+        final String java = getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        final Process process = new ProcessBuilder(java, "-cp", getProperty("java.class.path"),
+                ScaleOutNode.class.getName(), brokerUrl, work).redirectErrorStream(true).start();
+        final Thread reader = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                try (final BufferedReader out =
+                        new BufferedReader(new InputStreamReader(process.getInputStream(), "UTF-8"))) {
+                    String line = out.readLine();
+                    while (line != null) {
+                        if (line.equals(READY)) {
+                            ready.countDown();
+                        } else if (line.startsWith(EVENT)) {
+                            final String[] event = line.substring(EVENT.length()).split(" ");
+                            List<Long> resource = sequences.get(event[0]);
+                            if (resource == null) {
+                                resource = new ArrayList<>();
+                                sequences.put(event[0], resource);
+                            }
+                            resource.add(Long.valueOf(event[1]));
+                            last.set(nanoTime());
+                            received.countDown();
+                        }
+                        line = out.readLine();
+                    }
+                } catch (final IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }, "scale-out-reader");
+        reader.setDaemon(true);
+        reader.start();
+        return process;
+    }
+
+    private void publish() throws Exception {
+        final Connection connection = new ActiveMQConnectionFactory(brokerUrl).createConnection();
+        try {
+            final Session session = connection.createSession(false, AUTO_ACKNOWLEDGE);
+            final MessageProducer producer = session.createProducer(session.createTopic("fedora"));
+            producer.setDeliveryMode(NON_PERSISTENT);
+            for (long sent = 0; sent < events; sent++) {
+                final Message message = session.createMessage();
+                message.setStringProperty(JMS_NAMESPACE + "identifier", "/scale/" + sent % resources);
+                message.setLongProperty(SEQUENCE, sent);
+                producer.send(message);
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    private boolean report(final int count, final List<Map<String, List<Long>>> consumed, final long start,
+            final long last) {
+        long done = 0;
+        int errors = 0;
+        int minResources = Integer.MAX_VALUE;
+        int maxResources = 0;
+        final Map<String, Integer> owners = new HashMap<>();
+        for (int node = 0; node < consumed.size(); node++) {
+            final Map<String, List<Long>> sequences = consumed.get(node);
+            minResources = Math.min(minResources, sequences.size());
+            maxResources = Math.max(maxResources, sequences.size());
+            for (final Map.Entry<String, List<Long>> resource : sequences.entrySet()) {
+                final Integer owner = owners.put(resource.getKey(), node);
+                if (owner != null) {
+                    System.err.println(resource.getKey() + " consumed by nodes " + owner + " and " + node);
+                    errors++;
+                }
+                long previous = -1;
+                for (final long sequence : resource.getValue()) {
+                    if (sequence < previous) {
+                        System.err.println(resource.getKey() + " consumed out of order on node " + node);
+                        errors++;
+                    }
+                    previous = sequence;
+                    done++;
+                }
+            }
+        }
+        final long elapsed = last - start;
+        final double throughput = elapsed > 0 ? done * (double) SECONDS.toNanos(1) / elapsed : 0;
+        System.out.println(String.format("%-6d %8d %8d %8.1f %8d %8d %8d",
+                count, events, done, throughput, minResources, maxResources, errors));
+        if (done < events) {
+            System.err.println("Only " + done + " of " + events + " events consumed within "
+                    + drain + "s");
+        }
+        return errors == 0 && done == events;
+    }
+}
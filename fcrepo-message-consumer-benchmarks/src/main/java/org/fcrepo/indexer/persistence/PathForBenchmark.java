@@ -0,0 +1,103 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.persistence;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.commons.io.FileUtils;
+import org.fcrepo.indexer.persistence.BasePersistenceIndexer.Layout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mapping of resource URIs to files by {@link BasePersistenceIndexer#pathFor},
+ * for each layout, cycling through a fixed set of resources so that their
+ * directories are created during warmup.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class PathForBenchmark {
+
+    private static final int RESOURCES = 10000;
+
+    @Param({"HIERARCHICAL", "SHARDED"})
+    private Layout layout;
+
+    private Path directory;
+
+    private RdfPersistenceIndexer indexer;
+
+    private final URI[] ids = new URI[RESOURCES];
+
+    private int next;
+
+    /**
+     * Create the indexer in a temporary directory.
+     *
+     * @throws IOException if the directory could not be created
+     */
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("fcrepo-benchmark-");
+        indexer = new RdfPersistenceIndexer(directory.toString(), "TURTLE", ".ttl");
+        indexer.setLayout(layout);
+        for (int i = 0; i < RESOURCES; i++) {
+            ids[i] = URI.create("http://localhost:8080/rest/collection" + i % 100 + "/resource" + i);
+        }
+    }
+
+    /**
+     * Delete the temporary directory.
+     *
+     * @throws IOException if it could not be deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    /**
+     * @return the path of the next resource
+     * @throws IOException if its directory could not be created
+     */
+    @Benchmark
+    public Path pathFor() throws IOException {
+        next = (next + 1) % RESOURCES;
+        return indexer.pathFor(ids[next]);
+    }
+}
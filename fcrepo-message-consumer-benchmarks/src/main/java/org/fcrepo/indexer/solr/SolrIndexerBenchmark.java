@@ -0,0 +1,90 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.solr;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.solr.common.SolrInputDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Conversion of named fields to a Solr document by {@link SolrIndexer#fromMap}.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class SolrIndexerBenchmark {
+
+    @Param({"10", "100"})
+    private int fieldCount;
+
+    @Param({"1", "20"})
+    private int valueCount;
+
+    private final SolrIndexer indexer = new SolrIndexer(null);
+
+    private Map<String, Collection<String>> fields;
+
+    /**
+     * Generate the fields.
+     */
+    @Setup
+    public void setUp() {
+        fields = new HashMap<>();
+        for (int f = 0; f < fieldCount; f++) {
+            final List<String> values = new ArrayList<>(valueCount);
+            for (int v = 0; v < valueCount; v++) {
+                values.add("Value " + v + " of field " + f);
+            }
+            fields.put("field" + f, values);
+        }
+    }
+
+    /**
+     * @return the Solr document
+     */
+    @Benchmark
+    public SolrInputDocument fromMap() {
+        final SolrInputDocument doc = indexer.fromMap(fields);
+        // the document's fields are computed lazily, on each access
+        for (final String name : doc.getFieldNames()) {
+            doc.getField(name);
+        }
+        return doc;
+    }
+}
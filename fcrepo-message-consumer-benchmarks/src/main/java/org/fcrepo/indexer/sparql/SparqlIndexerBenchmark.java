@@ -0,0 +1,141 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.sparql;
+
+import static com.hp.hpl.jena.rdf.model.ModelFactory.createDefaultModel;
+import static com.hp.hpl.jena.rdf.model.ResourceFactory.createProperty;
+import static java.util.Collections.emptyIterator;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.net.URI;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.Property;
+import com.hp.hpl.jena.rdf.model.Resource;
+import com.hp.hpl.jena.sparql.engine.http.QueryEngineHTTP;
+import com.hp.hpl.jena.update.UpdateRequest;
+
+/**
+ * Construction of SPARQL updates by {@link SparqlIndexer}, both as a full
+ * delete and reinsert and as the difference from the triples last written
+ * (held in a {@link TripleCache}). The triplestore is stubbed out, so only
+ * the consumer's work is measured.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class SparqlIndexerBenchmark {
+
+    private static final Property DESCRIPTION = createProperty("http://purl.org/dc/elements/1.1/description");
+
+    private static final Property TITLE = createProperty("http://purl.org/dc/elements/1.1/title");
+
+    @Param({"100", "10000"})
+    private int triples;
+
+    private final URI pid = URI.create("http://localhost:8080/rest/resource");
+
+    private final SparqlIndexer fullIndexer = new StubSparqlIndexer();
+
+    private final SparqlIndexer diffIndexer = new StubSparqlIndexer();
+
+    private Model first;
+
+    private Model second;
+
+    private boolean toggle;
+
+    /**
+     * Generate two versions of a resource differing in one triple.
+     */
+    @Setup
+    public void setUp() {
+        first = generate("First title");
+        second = generate("Second title");
+        diffIndexer.setTripleCache(new TripleCache());
+        diffIndexer.updateSynch(pid, first);
+    }
+
+    private Model generate(final String title) {
+        final Model model = createDefaultModel();
+        final Resource subject = model.createResource(pid.toString());
+        subject.addProperty(TITLE, title);
+        for (int i = 0; i < triples; i++) {
+            subject.addProperty(DESCRIPTION, "Description " + i + " of a generated resource");
+        }
+        return model;
+    }
+
+    /**
+     * @return the update deleting and reinserting every triple
+     */
+    @Benchmark
+    public Callable<Void> fullUpdate() {
+        return fullIndexer.updateSynch(pid, first);
+    }
+
+    /**
+     * @return the update for the one changed triple
+     */
+    @Benchmark
+    public Callable<Void> differenceUpdate() {
+        toggle = !toggle;
+        return diffIndexer.updateSynch(pid, toggle ? second : first);
+    }
+
+    /**
+     * A SparqlIndexer whose triplestore holds nothing and accepts every update.
+     */
+    private static class StubSparqlIndexer extends SparqlIndexer {
+
+        @Override
+        protected QueryEngineHTTP buildQueryEngineHTTP(final String describeQuery) {
+            return new QueryEngineHTTP("http://localhost:3030/test/query", describeQuery) {
+
+                @Override
+                public Iterator<Triple> execDescribeTriples() {
+                    return emptyIterator();
+                }
+            };
+        }
+
+        @Override
+        protected void execute(final UpdateRequest update) {
+            // the triplestore is not measured
+        }
+    }
+}
@@ -15,17 +15,33 @@
  */
 package org.fcrepo.indexer;
 
+import static com.google.common.util.concurrent.Futures.addCallback;
+import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.fcrepo.indexer.IndexerMetrics.counter;
+import static org.fcrepo.indexer.IndexerMetrics.timer;
+import static org.fcrepo.indexer.StageObserver.Stage.REMOVE;
+import static org.fcrepo.indexer.StageObserver.Stage.UPDATE;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import java.io.IOException;
 import java.net.URI;
 import java.util.concurrent.Callable;
 
+import org.fcrepo.indexer.StageObserver.Span;
+import org.fcrepo.indexer.StageObserver.Stage;
 import org.slf4j.Logger;
+import org.springframework.beans.factory.BeanNameAware;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListenableFutureTask;
 import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.SettableFuture;
 
 /**
  * An {@link Indexer} that executes its operation asynchronously.
@@ -37,10 +53,29 @@ import com.google.common.util.concurrent.ListeningExecutorService;
  * @param <Result> the type of response to expect from an operation
  */
 public abstract class AsynchIndexer<Content, Result> implements
-    Indexer<Content> {
+    Indexer<Content>, BeanNameAware {
 
     private static final Logger LOGGER = getLogger(AsynchIndexer.class);
 
+    private final Timer waits = timer(getClass(), "wait");
+
+    private final Counter pending = counter(getClass(), "pending");
+
+    private String beanName;
+
+    @Override
+    public void setBeanName(final String name) {
+        this.beanName = name;
+    }
+
+    /**
+     * @return the name of this indexer's bean, which stays the same across
+     *         restarts, or null if it is not a bean
+     */
+    public String getBeanName() {
+        return beanName;
+    }
+
     /**
      * @return The {@link ListeningExecutorService} to use for operation.
      */
@@ -51,7 +86,7 @@ public abstract class AsynchIndexer<Content, Result> implements
         LOGGER.debug("Received update for identifier: {}", identifier);
 
         final ListenableFutureTask<Result> task =
-            ListenableFutureTask.create(updateSynch(identifier, content));
+            ListenableFutureTask.create(measured(updateSynch(identifier, content), UPDATE, identifier));
         task.addListener(new Runnable() {
             @Override
             public void run() {
@@ -60,7 +95,7 @@ public abstract class AsynchIndexer<Content, Result> implements
                 }
             }
         }, executorService());
-        executorService().submit(task);
+        submit(identifier, task);
         LOGGER.debug("Issued task to execution pool for identifier: {}",
                 identifier);
         return task;
@@ -70,7 +105,7 @@ public abstract class AsynchIndexer<Content, Result> implements
     public ListenableFuture<Result> remove(final URI identifier) throws IOException {
         LOGGER.debug("Received remove for identifier: {}", identifier);
         final ListenableFutureTask<Result> task =
-            ListenableFutureTask.create(removeSynch(identifier));
+            ListenableFutureTask.create(measured(removeSynch(identifier), REMOVE, identifier));
         task.addListener(new Runnable() {
             @Override
             public void run() {
@@ -79,10 +114,95 @@ public abstract class AsynchIndexer<Content, Result> implements
                 }
             }
         }, executorService());
-        executorService().submit(task);
+        submit(identifier, task);
         return task;
     }
 
+    /**
+     * Run an operation's task on {@link #executorService()}. Indexers that
+     * must run the operations on a resource in order override this, e.g. with
+     * {@link ResourceOrdering#execute}.
+     *
+     * @param identifier the URI identifier of the resource operated on
+     * @param task the operation's task
+     */
+    protected void submit(final URI identifier, final Runnable task) {
+        executorService().submit(task);
+    }
+
+    /**
+     * Record how long an operation waits to be executed, observe its execution
+     * as a stage, and count it as pending until it finishes.
+     */
+    private Callable<Result> measured(final Callable<Result> operation, final Stage stage, final URI identifier) {
+        final long queued = nanoTime();
+        pending.inc();
+        return new Callable<Result>() {
+
+            @Override
+            public Result call() throws Exception {
+                waits.update(nanoTime() - queued, NANOSECONDS);
+                final Span span = StageObservers.begin(stage, identifier, AsynchIndexer.this.getClass().getName());
+                try {
+                    final Result result = operation.call();
+                    span.end(false);
+                    return result;
+                } catch (final Exception e) {
+                    span.end(true);
+                    throw e;
+                } finally {
+                    pending.dec();
+                }
+            }
+        };
+    }
+
+    /**
+     * Record an operation that is handed to something with threads of its
+     * own, instead of being run on {@link #executorService()}, in the same
+     * metrics and spans as the operations that are. It is pending, and its
+     * stage lasts, from when it is issued until its result completes; its wait
+     * to start cannot be seen, so is not recorded.
+     *
+     * @param stage {@link Stage#UPDATE} or {@link Stage#REMOVE}
+     * @param identifier the URI identifier
+     * @param operation issues the operation, returning its result
+     * @return the result of the operation, failed if it could not be issued,
+     *         completed once the operation has been recorded
+     */
+    protected ListenableFuture<Result> measured(final Stage stage, final URI identifier,
+            final Callable<ListenableFuture<Result>> operation) {
+        pending.inc();
+        final Span span = StageObservers.begin(stage, identifier, getClass().getName());
+        ListenableFuture<Result> issued;
+        try {
+            issued = operation.call();
+        } catch (final Exception e) {
+            issued = immediateFailedFuture(e);
+        }
+        final SettableFuture<Result> result = SettableFuture.create();
+        addCallback(issued, new FutureCallback<Result>() {
+
+            @Override
+            public void onSuccess(final Result r) {
+                finish(false);
+                result.set(r);
+            }
+
+            @Override
+            public void onFailure(final Throwable t) {
+                finish(true);
+                result.setException(t);
+            }
+
+            private void finish(final boolean failed) {
+                span.end(failed);
+                pending.dec();
+            }
+        }, sameThreadExecutor());
+        return result;
+    }
+
     /**
      * @param identifier the URI identifier
      * @return callable
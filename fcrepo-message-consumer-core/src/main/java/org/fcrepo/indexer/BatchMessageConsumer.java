@@ -0,0 +1,274 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static com.google.common.util.concurrent.Futures.allAsList;
+import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static javax.jms.Session.SESSION_TRANSACTED;
+import static org.fcrepo.indexer.IndexerMetrics.histogram;
+import static org.fcrepo.indexer.IndexerMetrics.meter;
+import static org.fcrepo.indexer.IndexerMetrics.timer;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.Session;
+import javax.jms.Topic;
+
+import org.slf4j.Logger;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Consumes messages for an {@link IndexerGroup} in batches, each in one
+ * transacted session: up to {@code batchSize} messages are received and
+ * handled, then the session is committed only once every indexer has
+ * finished with them. If any indexer fails, or does not finish within
+ * {@code indexTimeout}, the session is rolled back and the broker redelivers
+ * the batch, so messages are indexed at least once. Redelivered messages are
+ * then consumed one per transaction, so that a message that can never be
+ * indexed is the only one the broker finally sends to its dead letter queue.
+ * <p>
+ * Messages are received on one thread, in order. For a topic, set a
+ * {@code subscriptionName} (and a {@code clientId}) to subscribe durably, so
+ * that messages published while the consumer is stopped are not lost.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class BatchMessageConsumer implements Runnable {
+
+    private static final Logger LOGGER = getLogger(BatchMessageConsumer.class);
+
+    private static final Timer BATCHES = timer(BatchMessageConsumer.class, "batch");
+
+    private static final Histogram BATCH_SIZES = histogram(BatchMessageConsumer.class, "batch-size");
+
+    private static final Meter ROLLBACKS = meter(BatchMessageConsumer.class, "rollbacks");
+
+    private final ConnectionFactory connectionFactory;
+
+    private final Destination destination;
+
+    private final IndexerGroup indexerGroup;
+
+    private int batchSize = 100;
+
+    private long receiveTimeout = 1000;
+
+    private long indexTimeout = 300000;
+
+    private long recoveryInterval = 5000;
+
+    private String clientId;
+
+    private String subscriptionName;
+
+    private volatile boolean running;
+
+    private Thread thread;
+
+    /**
+     * @param connectionFactory the factory of connections to the broker
+     * @param destination the queue or topic from which to consume
+     * @param indexerGroup the indexers to which messages are sent
+     */
+    public BatchMessageConsumer(final ConnectionFactory connectionFactory, final Destination destination,
+            final IndexerGroup indexerGroup) {
+        this.connectionFactory = connectionFactory;
+        this.destination = destination;
+        this.indexerGroup = indexerGroup;
+    }
+
+    /**
+     * Start consuming on a new thread.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this, "batch-consumer");
+        thread.start();
+    }
+
+    /**
+     * Stop consuming, once the batch in progress is committed or rolled back.
+     *
+     * @throws InterruptedException if interrupted while waiting for the batch
+     */
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.join();
+            thread = null;
+        }
+    }
+
+    /**
+     * Consume until stopped, reconnecting after failures.
+     */
+    @Override
+    public void run() {
+        while (running) {
+            Connection connection = null;
+            try {
+                connection = connectionFactory.createConnection();
+                if (clientId != null) {
+                    connection.setClientID(clientId);
+                }
+                final Session session = connection.createSession(true, SESSION_TRANSACTED);
+                final MessageConsumer consumer = subscriptionName != null && destination instanceof Topic
+                        ? session.createDurableSubscriber((Topic) destination, subscriptionName)
+                        : session.createConsumer(destination);
+                connection.start();
+                while (running) {
+                    consumeBatch(session, consumer);
+                }
+            } catch (final JMSException e) {
+                LOGGER.error("Error consuming messages, reconnecting in {}ms: {}", recoveryInterval, e);
+                pause();
+            } finally {
+                close(connection);
+            }
+        }
+    }
+
+    /**
+     * Receive, index and commit or roll back one batch.
+     *
+     * @return the number of messages received
+     * @throws JMSException if the session failed
+     */
+    @VisibleForTesting
+    int consumeBatch(final Session session, final MessageConsumer consumer) throws JMSException {
+        final Message first = consumer.receive(receiveTimeout);
+        if (first == null) {
+            return 0;
+        }
+        final Timer.Context time = BATCHES.time();
+        // after a rollback, messages are retried alone, so one that fails again takes no others with it
+        final int limit = first.getJMSRedelivered() ? 1 : batchSize;
+        final List<ListenableFuture<List<Object>>> results = new ArrayList<>();
+        int received = 0;
+        for (Message message = first; message != null;
+                message = received < limit ? consumer.receiveNoWait() : null) {
+            received++;
+            results.add(handle(message));
+        }
+        BATCH_SIZES.update(received);
+        try {
+            allAsList(results).get(indexTimeout, MILLISECONDS);
+            session.commit();
+            LOGGER.debug("Committed batch of {} messages", received);
+        } catch (final ExecutionException | TimeoutException e) {
+            LOGGER.error("Rolling back batch of {} messages for redelivery: {}", received, e);
+            ROLLBACKS.mark();
+            session.rollback();
+        } catch (final InterruptedException e) {
+            ROLLBACKS.mark();
+            session.rollback();
+            Thread.currentThread().interrupt();
+            running = false;
+        } finally {
+            time.stop();
+        }
+        return received;
+    }
+
+    private ListenableFuture<List<Object>> handle(final Message message) {
+        try {
+            return indexerGroup.handle(message);
+        } catch (final Exception e) {
+            return immediateFailedFuture(e);
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(recoveryInterval);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static void close(final Connection connection) {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (final JMSException e) {
+                LOGGER.warn("Unable to close connection: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @param size the most messages to index in one transaction
+     */
+    public void setBatchSize(final int size) {
+        this.batchSize = size;
+    }
+
+    /**
+     * @param millis how long to wait for the first message of a batch
+     */
+    public void setReceiveTimeout(final long millis) {
+        this.receiveTimeout = millis;
+    }
+
+    /**
+     * @param millis how long to wait for indexers to finish a batch before rolling it back
+     */
+    public void setIndexTimeout(final long millis) {
+        this.indexTimeout = millis;
+    }
+
+    /**
+     * @param millis how long to wait before reconnecting after a failure
+     */
+    public void setRecoveryInterval(final long millis) {
+        this.recoveryInterval = millis;
+    }
+
+    /**
+     * @param id the client id of the connection, required for a durable subscription
+     */
+    public void setClientId(final String id) {
+        this.clientId = id;
+    }
+
+    /**
+     * @param name the name of a durable subscription to a topic
+     */
+    public void setSubscriptionName(final String name) {
+        this.subscriptionName = name;
+    }
+}
@@ -0,0 +1,293 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+
+/**
+ * The binary format of a log of {@link IndexingEvent}s. A log starts with the
+ * magic number {@code FCEL} and a version byte, followed by one record per
+ * event:
+ * <ul>
+ * <li>the event's timestamp, as a zigzag-encoded variable-length difference
+ * from the previous record's;</li>
+ * <li>its identifier, as a variable-length byte count plus one (zero for
+ * null) followed by UTF-8 bytes;</li>
+ * <li>its base URL, event type and properties, each either a literal string
+ * (a tag of 1, then as the identifier), which is numbered in order of
+ * appearance, or a tag of its number plus 2 if the same string was seen
+ * before (0 for null).</li>
+ * </ul>
+ * Repeated strings thus cost a byte or two, and a typical record is little
+ * more than its identifier. A log cut short, e.g. by a crash, is read up to
+ * its last complete record.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public final class EventLog {
+
+    private static final Logger LOGGER = getLogger(EventLog.class);
+
+    private static final int MAGIC = 0x4643454C;
+
+    private static final int VERSION = 1;
+
+    private static final int NULL = 0;
+
+    private static final int LITERAL = 1;
+
+    /**
+     * The most strings numbered in one log; later strings are written as literals.
+     */
+    private static final int DICTIONARY_SIZE = 4096;
+
+    private EventLog() {
+    }
+
+    /**
+     * Writes events to a log.
+     */
+    public static class Writer implements Closeable, Flushable {
+
+        private final OutputStream out;
+
+        private final Map<String, Integer> dictionary = new HashMap<>();
+
+        private long previous;
+
+        private long size;
+
+        /**
+         * @param stream the stream to which the log is written
+         * @throws IOException if the log could not be started
+         */
+        public Writer(final OutputStream stream) throws IOException {
+            this.out = new BufferedOutputStream(stream);
+            writeInt(MAGIC);
+            writeByte(VERSION);
+        }
+
+        /**
+         * @param event the event to append to the log
+         * @throws IOException if the event could not be written
+         */
+        public void write(final IndexingEvent event) throws IOException {
+            writeVarLong(zigzag(event.getTimestamp() - previous));
+            previous = event.getTimestamp();
+            writeLiteral(event.getIdentifier());
+            writeShared(event.getBaseURL());
+            writeShared(event.getEventType());
+            writeShared(event.getProperties());
+        }
+
+        /**
+         * @return the number of bytes written to the log
+         */
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+        private void writeShared(final String value) throws IOException {
+            if (value == null) {
+                writeVarLong(NULL);
+                return;
+            }
+            final Integer number = dictionary.get(value);
+            if (number != null) {
+                writeVarLong(number + 2);
+                return;
+            }
+            if (dictionary.size() < DICTIONARY_SIZE) {
+                dictionary.put(value, dictionary.size());
+            }
+            writeVarLong(LITERAL);
+            writeLiteral(value);
+        }
+
+        private void writeLiteral(final String value) throws IOException {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            final byte[] bytes = value.getBytes(UTF_8);
+            writeVarLong(bytes.length + 1);
+            out.write(bytes);
+            size += bytes.length;
+        }
+
+        private void writeVarLong(final long value) throws IOException {
+            long remaining = value;
+            while ((remaining & ~0x7FL) != 0) {
+                writeByte((int) (remaining & 0x7F) | 0x80);
+                remaining >>>= 7;
+            }
+            writeByte((int) remaining);
+        }
+
+        private void writeInt(final int value) throws IOException {
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                writeByte(value >>> shift);
+            }
+        }
+
+        private void writeByte(final int value) throws IOException {
+            out.write(value);
+            size++;
+        }
+
+        private static long zigzag(final long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+    }
+
+    /**
+     * Reads events from a log.
+     */
+    public static class Reader implements Closeable {
+
+        private final InputStream in;
+
+        private final List<String> dictionary = new ArrayList<>();
+
+        private long previous;
+
+        /**
+         * @param stream the stream from which the log is read
+         * @throws IOException if the stream is not an event log
+         */
+        public Reader(final InputStream stream) throws IOException {
+            this.in = new BufferedInputStream(stream);
+            final int magic = (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+            final int version = readByte();
+            if (magic != MAGIC || version != VERSION) {
+                throw new IOException("Not an event log of version " + VERSION);
+            }
+        }
+
+        /**
+         * @return the next event of the log, or null at its end
+         * @throws IOException if the log could not be read
+         */
+        public IndexingEvent read() throws IOException {
+            final int first = in.read();
+            if (first < 0) {
+                return null;
+            }
+            try {
+                final long timestamp = previous + unzigzag(readVarLong(first));
+                final String identifier = readLiteral();
+                final String baseURL = readShared();
+                final String eventType = readShared();
+                final String properties = readShared();
+                previous = timestamp;
+                return new IndexingEvent(identifier, baseURL, eventType, properties, timestamp);
+            } catch (final EOFException e) {
+                LOGGER.warn("Event log ends with an incomplete record, which is ignored");
+                return null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private String readShared() throws IOException {
+            final long tag = readVarLong(readByte());
+            if (tag == NULL) {
+                return null;
+            }
+            if (tag == LITERAL) {
+                final String value = readLiteral();
+                if (dictionary.size() < DICTIONARY_SIZE) {
+                    dictionary.add(value);
+                }
+                return value;
+            }
+            final int number = (int) (tag - 2);
+            if (number >= dictionary.size()) {
+                throw new IOException("Event log refers to unknown string " + number);
+            }
+            return dictionary.get(number);
+        }
+
+        private String readLiteral() throws IOException {
+            final long length = readVarLong(readByte());
+            if (length == 0) {
+                return null;
+            }
+            final byte[] bytes = new byte[(int) (length - 1)];
+            int read = 0;
+            while (read < bytes.length) {
+                final int n = in.read(bytes, read, bytes.length - read);
+                if (n < 0) {
+                    throw new EOFException();
+                }
+                read += n;
+            }
+            return new String(bytes, UTF_8);
+        }
+
+        private long readVarLong(final int first) throws IOException {
+            long value = first & 0x7F;
+            int b = first;
+            for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+                b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+            }
+            return value;
+        }
+
+        private int readByte() throws IOException {
+            final int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            return b;
+        }
+
+        private static long unzigzag(final long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
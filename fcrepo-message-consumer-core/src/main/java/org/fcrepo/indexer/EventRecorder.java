@@ -0,0 +1,251 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.fcrepo.indexer.IndexerMetrics.meter;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+
+import com.codahale.metrics.Meter;
+
+/**
+ * Records events to a rotating series of {@link EventLog} files, e.g. to
+ * capture production traffic for benchmarks, or for replay with a
+ * {@link ReplayEventSource}. Events are queued and written on a background
+ * thread, so recording costs the listener thread no I/O; if the queue is
+ * full, events are dropped rather than delaying indexing.
+ * <p>
+ * Files are named {@code events-<sequence>.log}, so they sort in the order
+ * they were written. Once a file passes the configured size a new one is
+ * started, and the oldest files beyond the configured number are deleted.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class EventRecorder implements Closeable {
+
+    private static final Logger LOGGER = getLogger(EventRecorder.class);
+
+    /**
+     * Default size (in bytes) at which a file is closed and a new one started.
+     */
+    public static final long DEFAULT_FILE_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * Default number of files kept.
+     */
+    public static final int DEFAULT_FILES = 10;
+
+    /**
+     * Default number of events queued for writing.
+     */
+    public static final int DEFAULT_QUEUE_SIZE = 10000;
+
+    private static final Pattern FILE_NAME = Pattern.compile("events-(\\d+)\\.log");
+
+    private static final IndexingEvent END = new IndexingEvent(null, null, null, null, 0);
+
+    private static final Meter RECORDED = meter(EventRecorder.class, "recorded");
+
+    private static final Meter DROPPED = meter(EventRecorder.class, "dropped");
+
+    private final Path directory;
+
+    private final long fileSize;
+
+    private final int files;
+
+    private final BlockingQueue<IndexingEvent> queue;
+
+    private final Thread writerThread;
+
+    private EventLog.Writer writer;
+
+    private long nextFile;
+
+    private volatile boolean closed;
+
+    /**
+     * @param directory the directory holding the files
+     * @throws IOException if the directory could not be created
+     */
+    public EventRecorder(final String directory) throws IOException {
+        this(directory, DEFAULT_FILE_SIZE, DEFAULT_FILES, DEFAULT_QUEUE_SIZE);
+    }
+
+    /**
+     * @param directory the directory holding the files
+     * @param fileSize size (in bytes) at which a file is closed and a new one started
+     * @param files the number of files kept
+     * @param queueSize the number of events queued for writing, beyond which events are dropped
+     * @throws IOException if the directory could not be created
+     */
+    public EventRecorder(final String directory, final long fileSize, final int files, final int queueSize)
+            throws IOException {
+        this.directory = Paths.get(directory);
+        this.fileSize = fileSize;
+        this.files = files;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        Files.createDirectories(this.directory);
+        final List<Path> existing = existing();
+        if (!existing.isEmpty()) {
+            nextFile = sequence(existing.get(existing.size() - 1)) + 1;
+        }
+        writerThread = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                write();
+            }
+        }, "event-recorder");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Queue an event to be recorded.
+     *
+     * @param event the event
+     */
+    public void record(final IndexingEvent event) {
+        if (closed || !queue.offer(event)) {
+            DROPPED.mark();
+        }
+    }
+
+    /**
+     * Write the events queued so far and stop recording.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            queue.put(END);
+            writerThread.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write() {
+        try {
+            while (true) {
+                IndexingEvent event = queue.take();
+                // write whatever is queued, and flush once the queue is empty
+                while (event != null) {
+                    if (event == END) {
+                        return;
+                    }
+                    append(event);
+                    event = queue.poll();
+                }
+                flush();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeFile();
+        }
+    }
+
+    private void append(final IndexingEvent event) {
+        try {
+            if (writer == null) {
+                openFile();
+            }
+            writer.write(event);
+            RECORDED.mark();
+            if (writer.size() >= fileSize) {
+                closeFile();
+            }
+        } catch (final IOException e) {
+            LOGGER.error("Unable to record event {}: {}", event, e.getMessage());
+            DROPPED.mark();
+            closeFile();
+        }
+    }
+
+    private void flush() {
+        if (writer != null) {
+            try {
+                writer.flush();
+            } catch (final IOException e) {
+                LOGGER.error("Unable to flush recorded events: {}", e.getMessage());
+                closeFile();
+            }
+        }
+    }
+
+    private void openFile() throws IOException {
+        final Path file = directory.resolve(String.format("events-%010d.log", nextFile++));
+        LOGGER.debug("Recording events to {}", file);
+        writer = new EventLog.Writer(Files.newOutputStream(file, CREATE_NEW, WRITE));
+        final List<Path> existing = existing();
+        for (int i = 0; i < existing.size() - files; i++) {
+            LOGGER.debug("Deleting old event log {}", existing.get(i));
+            Files.deleteIfExists(existing.get(i));
+        }
+    }
+
+    private void closeFile() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (final IOException e) {
+                LOGGER.warn("Unable to close event log: {}", e.getMessage());
+            }
+            writer = null;
+        }
+    }
+
+    private List<Path> existing() throws IOException {
+        final List<Path> existing = new ArrayList<>();
+        try (final DirectoryStream<Path> paths = Files.newDirectoryStream(directory)) {
+            for (final Path path : paths) {
+                if (FILE_NAME.matcher(path.getFileName().toString()).matches()) {
+                    existing.add(path);
+                }
+            }
+        }
+        Collections.sort(existing);
+        return existing;
+    }
+
+    private static long sequence(final Path file) {
+        final Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import java.io.IOException;
+
+/**
+ * A source of repository events other than JMS, for which an
+ * {@link IndexerGroup} is itself the listener, e.g. a recorded
+ * {@link EventLog}.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public interface EventSource {
+
+    /**
+     * Send each event of this source to {@link IndexerGroup#handle(IndexingEvent)}.
+     *
+     * @param group the indexers to which events are sent
+     * @return the number of events sent
+     * @throws IOException if events could not be read
+     * @throws InterruptedException if interrupted while sending events
+     */
+    long feed(IndexerGroup group) throws IOException, InterruptedException;
+}
@@ -0,0 +1,323 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static com.google.common.util.concurrent.Futures.addCallback;
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * A record of how one event was handled: how long each stage of retrieval
+ * took, how much content was retrieved, and the outcome of each indexer.
+ * <p>
+ * {@link IndexerGroup} begins a trace on the thread handling the event, and
+ * {@link TraceObserver} adds to it the stages the retrievers begin on that
+ * thread. The trace is complete once the event has been handled and every
+ * indexer has finished, at which point it is offered to a {@link SlowEventLog}.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class EventTrace {
+
+    private static final ThreadLocal<EventTrace> CURRENT = new ThreadLocal<>();
+
+    private final URI uri;
+
+    private final String eventType;
+
+    private final long received = currentTimeMillis();
+
+    private double millis;
+
+    private long bytes;
+
+    private long triples;
+
+    private final List<Stage> stages = new ArrayList<>();
+
+    private final Map<String, Outcome> indexers = new LinkedHashMap<>();
+
+    private final transient long start = nanoTime();
+
+    private transient int pending = 1;
+
+    private final transient SlowEventLog log;
+
+    private EventTrace(final URI uri, final String eventType, final SlowEventLog log) {
+        this.uri = uri;
+        this.eventType = eventType;
+        this.log = log;
+    }
+
+    /**
+     * Begin tracing an event on this thread.
+     *
+     * @param uri the resource
+     * @param eventType the type of event
+     * @param log the log to which to offer the completed trace
+     * @return the trace
+     */
+    static EventTrace begin(final URI uri, final String eventType, final SlowEventLog log) {
+        final EventTrace trace = new EventTrace(uri, eventType, log);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * Stop tracing on this thread. The trace completes once every indexer
+     * has also finished.
+     */
+    void end() {
+        CURRENT.remove();
+        release();
+    }
+
+    /**
+     * @return the trace of the event being handled on this thread, or null if none
+     */
+    static EventTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Record a stage of handling the event.
+     *
+     * @param name the stage
+     * @param nanos the time taken, ending now
+     */
+    synchronized void addStage(final String name, final long nanos) {
+        final long now = nanoTime();
+        stages.add(new Stage(name, toMillis(now - nanos - start), toMillis(nanos)));
+    }
+
+    /**
+     * @param count the number of bytes retrieved for the event
+     */
+    synchronized void addBytes(final long count) {
+        bytes += count;
+    }
+
+    /**
+     * @param count the number of triples parsed for the event
+     */
+    synchronized void addTriples(final long count) {
+        triples += count;
+    }
+
+    /**
+     * Record the outcome of an indexer's operation for the event being traced
+     * on this thread, if any, once the operation finishes.
+     *
+     * @param indexer the indexer
+     * @param result the operation
+     */
+    static void indexer(final String indexer, final ListenableFuture<?> result) {
+        final EventTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.addIndexer(indexer, result);
+        }
+    }
+
+    /**
+     * Record the outcome of an indexer for the event being traced on this thread, if any.
+     *
+     * @param indexer the indexer
+     * @param status what happened
+     */
+    static void indexer(final String indexer, final String status) {
+        final EventTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.addOutcome(indexer, status, 0);
+        }
+    }
+
+    private void addIndexer(final String indexer, final ListenableFuture<?> result) {
+        final long dispatched = nanoTime();
+        synchronized (this) {
+            pending++;
+        }
+        addCallback(result, new FutureCallback<Object>() {
+
+            @Override
+            public void onSuccess(final Object value) {
+                addOutcome(indexer, "ok", nanoTime() - dispatched);
+                release();
+            }
+
+            @Override
+            public void onFailure(final Throwable t) {
+                addOutcome(indexer, "failed: " + t, nanoTime() - dispatched);
+                release();
+            }
+        }, sameThreadExecutor());
+    }
+
+    private synchronized void addOutcome(final String indexer, final String status, final long nanos) {
+        indexers.put(indexer, new Outcome(status, toMillis(nanos)));
+    }
+
+    private void release() {
+        synchronized (this) {
+            if (--pending > 0) {
+                return;
+            }
+            millis = toMillis(nanoTime() - start);
+        }
+        if (log != null) {
+            log.offer(this);
+        }
+    }
+
+    private static double toMillis(final long nanos) {
+        return nanos / 1000 / 1000.0;
+    }
+
+    /**
+     * @return the resource
+     */
+    public URI getUri() {
+        return uri;
+    }
+
+    /**
+     * @return the type of event
+     */
+    public String getEventType() {
+        return eventType;
+    }
+
+    /**
+     * @return when the event was received, in milliseconds since the epoch
+     */
+    public long getReceived() {
+        return received;
+    }
+
+    /**
+     * @return the time from receiving the event until every indexer finished, in milliseconds
+     */
+    public synchronized double getMillis() {
+        return millis;
+    }
+
+    /**
+     * @return the number of bytes retrieved
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return the number of triples parsed
+     */
+    public synchronized long getTriples() {
+        return triples;
+    }
+
+    /**
+     * @return the stages of retrieval, in the order they finished
+     */
+    public synchronized List<Stage> getStages() {
+        return Collections.unmodifiableList(new ArrayList<>(stages));
+    }
+
+    /**
+     * @return the outcome of each indexer
+     */
+    public synchronized Map<String, Outcome> getIndexers() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(indexers));
+    }
+
+    /**
+     * A stage of handling an event.
+     */
+    public static class Stage {
+
+        private final String name;
+
+        private final double offset;
+
+        private final double millis;
+
+        Stage(final String name, final double offset, final double millis) {
+            this.name = name;
+            this.offset = offset;
+            this.millis = millis;
+        }
+
+        /**
+         * @return the stage
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return when the stage began, in milliseconds after the event was received
+         */
+        public double getOffset() {
+            return offset;
+        }
+
+        /**
+         * @return the time taken, in milliseconds
+         */
+        public double getMillis() {
+            return millis;
+        }
+    }
+
+    /**
+     * The outcome of an indexer's operation.
+     */
+    public static class Outcome {
+
+        private final String status;
+
+        private final double millis;
+
+        Outcome(final String status, final double millis) {
+            this.status = status;
+            this.millis = millis;
+        }
+
+        /**
+         * @return what happened: "ok", "failed: " and the cause, or why nothing was sent
+         */
+        public String getStatus() {
+            return status;
+        }
+
+        /**
+         * @return the time from sending the operation until it finished, in milliseconds
+         */
+        public double getMillis() {
+            return millis;
+        }
+    }
+}
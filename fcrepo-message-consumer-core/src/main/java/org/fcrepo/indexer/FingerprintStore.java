@@ -0,0 +1,356 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static com.google.common.hash.Funnels.asOutputStream;
+import static com.google.common.hash.Hashing.murmur3_128;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.io.ByteStreams;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.util.iterator.ExtendedIterator;
+
+/**
+ * Remembers a fingerprint of the content last sent to each indexer for each
+ * resource, so that an update whose content has not changed can be skipped.
+ * Fingerprints are 64-bit hashes: of each value of {@link NamedFields}, of the
+ * bytes of {@link SpooledContent}, and, for RDF, of the set of triples
+ * independent of their order. RDF containing blank nodes is not fingerprinted,
+ * since blank node labels differ between retrievals.
+ * <p>
+ * Operations may complete in a different order than they were sent, so each
+ * is registered with {@link #dispatch} when it is sent, which forgets the
+ * resource's fingerprint until it completes, and a fingerprint is only
+ * recorded by {@link #complete} if no later operation was sent since.
+ * <p>
+ * If a file is given, changes are appended to it as a log, which is replayed
+ * and rewritten compactly when the store is opened and closed.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class FingerprintStore implements Closeable {
+
+    private static final Logger LOGGER = getLogger(FingerprintStore.class);
+
+    private static final HashFunction HASH = murmur3_128();
+
+    private static final byte PUT = 1;
+
+    private static final byte REMOVE = 0;
+
+    /**
+     * Number of appended log entries after which the log is flushed.
+     */
+    private static final int FLUSH_INTERVAL = 1000;
+
+    private final Map<String, Long> fingerprints = new ConcurrentHashMap<>();
+
+    /**
+     * The last operation sent to each indexer for each resource, until it completes.
+     */
+    private final Map<String, Long> inFlight = new ConcurrentHashMap<>();
+
+    private long operations;
+
+    private final Path file;
+
+    private DataOutputStream log;
+
+    private int unflushed;
+
+    /**
+     * A store held only in memory.
+     */
+    public FingerprintStore() {
+        this.file = null;
+    }
+
+    /**
+     * A store persisted to a file.
+     *
+     * @param file the file holding the fingerprints
+     * @throws IOException if the file could not be read or opened for writing
+     */
+    public FingerprintStore(final String file) throws IOException {
+        this.file = Paths.get(file);
+        if (Files.exists(this.file)) {
+            replay();
+        }
+        snapshot();
+        log = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(this.file, CREATE, APPEND)));
+        LOGGER.info("Opened fingerprint store {} with {} entries", file, fingerprints.size());
+    }
+
+    /**
+     * Compute the fingerprint of content.
+     *
+     * @param content the content retrieved for an indexer
+     * @return the fingerprint, or null if this content cannot be fingerprinted
+     * @throws IOException if spooled content could not be read
+     */
+    public static Long fingerprint(final Object content) throws IOException {
+        if (content instanceof Model) {
+            return fingerprint((Model) content);
+        }
+        if (content instanceof NamedFields) {
+            return fingerprint((NamedFields) content);
+        }
+        if (content instanceof SpooledContent) {
+            final Hasher hasher = HASH.newHasher();
+            try (InputStream in = ((SpooledContent) content).openStream()) {
+                ByteStreams.copy(in, asOutputStream(hasher));
+            }
+            return hasher.hash().asLong();
+        }
+        return null;
+    }
+
+    private static Long fingerprint(final Model model) {
+        long sum = 0;
+        long xor = 0;
+        int count = 0;
+        final ExtendedIterator<Triple> triples = model.getGraph().find(Node.ANY, Node.ANY, Node.ANY);
+        try {
+            while (triples.hasNext()) {
+                final Triple t = triples.next();
+                if (t.getSubject().isBlank() || t.getObject().isBlank()) {
+                    return null;
+                }
+                final long h = HASH.newHasher()
+                        .putString(t.getSubject().toString(), UTF_8).putByte((byte) 0)
+                        .putString(t.getPredicate().toString(), UTF_8).putByte((byte) 0)
+                        .putString(t.getObject().toString(), UTF_8)
+                        .hash().asLong();
+                sum += h;
+                xor ^= h;
+                count++;
+            }
+        } finally {
+            triples.close();
+        }
+        return HASH.newHasher().putLong(sum).putLong(xor).putInt(count).hash().asLong();
+    }
+
+    private static Long fingerprint(final NamedFields fields) {
+        final Hasher hasher = HASH.newHasher();
+        for (final Map.Entry<String, Collection<String>> field : fields.entrySet()) {
+            hasher.putString(field.getKey(), UTF_8).putByte((byte) 0);
+            for (final String value : field.getValue()) {
+                hasher.putString(value, UTF_8).putByte((byte) 0);
+            }
+            hasher.putByte((byte) 1);
+        }
+        return hasher.hash().asLong();
+    }
+
+    /**
+     * @param indexer identifies the indexer
+     * @param uri the resource
+     * @param fingerprint the fingerprint of the content now retrieved
+     * @return whether this content was the last sent to the indexer for the resource
+     */
+    public boolean matches(final String indexer, final URI uri, final long fingerprint) {
+        final Long last = fingerprints.get(key(indexer, uri));
+        return last != null && last == fingerprint;
+    }
+
+    /**
+     * Record the content sent to an indexer for a resource.
+     *
+     * @param indexer identifies the indexer
+     * @param uri the resource
+     * @param fingerprint the fingerprint of the content
+     */
+    public synchronized void put(final String indexer, final URI uri, final long fingerprint) {
+        final String key = key(indexer, uri);
+        final Long previous = fingerprints.put(key, fingerprint);
+        if (previous == null || previous != fingerprint) {
+            append(PUT, key, fingerprint);
+        }
+    }
+
+    /**
+     * Forget the content sent to an indexer for a resource.
+     *
+     * @param indexer identifies the indexer
+     * @param uri the resource
+     */
+    public synchronized void remove(final String indexer, final URI uri) {
+        final String key = key(indexer, uri);
+        if (fingerprints.remove(key) != null) {
+            append(REMOVE, key, 0);
+        }
+    }
+
+    /**
+     * Note that an update or removal is being sent to an indexer for a
+     * resource. Until it completes, no content matches, and any earlier
+     * operation for the resource completes without recording its fingerprint.
+     *
+     * @param indexer identifies the indexer
+     * @param uri the resource
+     * @return identifies the operation, to complete it
+     */
+    public synchronized long dispatch(final String indexer, final URI uri) {
+        final String key = key(indexer, uri);
+        if (fingerprints.remove(key) != null) {
+            append(REMOVE, key, 0);
+        }
+        inFlight.put(key, ++operations);
+        return operations;
+    }
+
+    /**
+     * Complete an operation, recording the fingerprint of the content the
+     * indexer now holds unless a later operation was sent in the meantime.
+     *
+     * @param indexer identifies the indexer
+     * @param uri the resource
+     * @param operation the operation, as returned by {@link #dispatch}
+     * @param fingerprint the fingerprint of the content sent, or null if it
+     *        was a removal, failed or cannot be fingerprinted
+     */
+    public synchronized void complete(final String indexer, final URI uri, final long operation,
+            final Long fingerprint) {
+        final String key = key(indexer, uri);
+        final Long last = inFlight.get(key);
+        if (last == null || last != operation) {
+            return;
+        }
+        inFlight.remove(key);
+        if (fingerprint != null) {
+            put(indexer, uri, fingerprint);
+        }
+    }
+
+    /**
+     * @return the number of fingerprints held
+     */
+    public int size() {
+        return fingerprints.size();
+    }
+
+    /**
+     * Write any buffered changes to the file.
+     *
+     * @throws IOException if the file could not be written
+     */
+    public synchronized void flush() throws IOException {
+        if (log != null) {
+            log.flush();
+            unflushed = 0;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (log != null) {
+            log.close();
+            log = null;
+            snapshot();
+        }
+    }
+
+    private static String key(final String indexer, final URI uri) {
+        return indexer + " " + uri;
+    }
+
+    private synchronized void append(final byte op, final String key, final long fingerprint) {
+        if (log == null) {
+            return;
+        }
+        try {
+            log.writeByte(op);
+            log.writeUTF(key);
+            if (op == PUT) {
+                log.writeLong(fingerprint);
+            }
+            if (++unflushed >= FLUSH_INTERVAL) {
+                flush();
+            }
+        } catch (final IOException e) {
+            // losing a fingerprint only costs a redundant update later
+            LOGGER.warn("Unable to record fingerprint in {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void replay() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            while (true) {
+                final byte op;
+                try {
+                    op = in.readByte();
+                } catch (final EOFException e) {
+                    break;
+                }
+                try {
+                    final String key = in.readUTF();
+                    if (op == PUT) {
+                        fingerprints.put(key, in.readLong());
+                    } else {
+                        fingerprints.remove(key);
+                    }
+                } catch (final EOFException e) {
+                    LOGGER.warn("Ignoring incomplete entry at the end of {}", file);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Rewrite the file with one entry per fingerprint.
+     */
+    private void snapshot() throws IOException {
+        final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            for (final Map.Entry<String, Long> entry : fingerprints.entrySet()) {
+                out.writeByte(PUT);
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue());
+            }
+        }
+        Files.move(temp, file, ATOMIC_MOVE, REPLACE_EXISTING);
+    }
+}
@@ -15,9 +15,14 @@
  */
 package org.fcrepo.indexer;
 
-import com.google.common.base.Strings;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Supplier;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import com.hp.hpl.jena.rdf.model.Model;
 import com.hp.hpl.jena.rdf.model.NodeIterator;
 import com.hp.hpl.jena.rdf.model.Property;
@@ -32,6 +37,8 @@ import org.apache.http.impl.client.DefaultHttpClient;
 import org.apache.http.impl.client.DefaultRedirectStrategy;
 import org.apache.http.impl.client.StandardHttpRequestRetryHandler;
 import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.fcrepo.indexer.PriorityLanes.Lane;
+import org.fcrepo.indexer.StageObserver.Span;
 import org.fcrepo.kernel.api.utils.EventType;
 import org.slf4j.Logger;
 
@@ -39,22 +46,33 @@ import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageListener;
 
-import java.io.InputStream;
+import java.io.IOException;
 import java.io.Reader;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 import static com.google.common.base.Suppliers.memoize;
 import static com.google.common.base.Throwables.propagate;
+import static com.google.common.util.concurrent.Futures.addCallback;
+import static com.google.common.util.concurrent.Futures.allAsList;
+import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
+import static com.google.common.util.concurrent.Futures.successfulAsList;
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
 import static com.hp.hpl.jena.rdf.model.ResourceFactory.createProperty;
 import static com.hp.hpl.jena.rdf.model.ResourceFactory.createResource;
 import static com.hp.hpl.jena.vocabulary.RDF.type;
 import static java.lang.Integer.MAX_VALUE;
+import static java.lang.System.currentTimeMillis;
 import static javax.jcr.observation.Event.NODE_REMOVED;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.fcrepo.jms.headers.DefaultMessageFactory.JMS_NAMESPACE;
@@ -62,6 +80,10 @@ import static org.fcrepo.kernel.api.FedoraJcrTypes.FCR_METADATA;
 import static org.fcrepo.kernel.api.RdfLexicon.CONTAINS;
 import static org.fcrepo.kernel.api.RdfLexicon.HAS_PARENT;
 import static org.fcrepo.kernel.api.RdfLexicon.REPOSITORY_NAMESPACE;
+import static org.fcrepo.indexer.IndexerMetrics.histogram;
+import static org.fcrepo.indexer.IndexerMetrics.meter;
+import static org.fcrepo.indexer.IndexerMetrics.timer;
+import static org.fcrepo.indexer.StageObserver.Stage.RECEIVE;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -77,6 +99,12 @@ public class IndexerGroup implements MessageListener {
 
     private static final Logger LOGGER = getLogger(IndexerGroup.class);
 
+    private static final Timer MESSAGE_TIMER = timer(IndexerGroup.class, "onMessage");
+
+    private static final Histogram RECEIVE_LAG = histogram(IndexerGroup.class, "receive-lag");
+
+    private static final Meter ERRORS = meter(IndexerGroup.class, "errors");
+
     @VisibleForTesting
     protected final Set<Indexer<Object>> indexers;
 
@@ -147,6 +175,29 @@ public class IndexerGroup implements MessageListener {
     private final Map<String,DefaultHttpClient> clients;
     private final DefaultHttpClient defaultClient;
 
+    private ParallelNTriplesParser rdfParser;
+
+    private TransformCache transformCache;
+
+    private LocalLdpathTransform localTransform;
+
+    private FingerprintStore fingerprintStore;
+
+    private SlowEventLog slowEventLog;
+
+    private EventRecorder eventRecorder;
+
+    private PriorityLanes lanes;
+
+    private int spoolThreshold = SpooledContent.DEFAULT_THRESHOLD;
+
+    private final Map<Indexer<Object>, String> indexerKeys = new IdentityHashMap<>();
+
+    /**
+     * Whether some indexers of the same class have no bean name to tell them apart.
+     */
+    private boolean unnamedIndexers;
+
     /**
      * Default constructor.
      * @param indexers the set of indexers
@@ -163,6 +214,7 @@ public class IndexerGroup implements MessageListener {
         this.indexers = indexers;
         this.clients = new HashMap<>();
         this.defaultClient = null;
+        nameIndexers();
     }
 
     /**
@@ -177,6 +229,105 @@ public class IndexerGroup implements MessageListener {
         this.fedoraUsername = null;
         this.fedoraPassword = null;
         this.defaultClient = httpClient;
+        nameIndexers();
+    }
+
+    /**
+     * Parse retrieved RDF as N-Triples using the given parser, which splits
+     * large payloads and parses them concurrently. If not set, RDF is
+     * retrieved as N3 and parsed on the listener thread.
+     * @param parser the parser to use for retrieved RDF
+    **/
+    public void setParallelRdfParser(final ParallelNTriplesParser parser) {
+        this.rdfParser = parser;
+    }
+
+    /**
+     * Hold retrieved jcr/xml exports of up to the given size in memory; larger
+     * exports are spooled to temporary files. Defaults to 1 MB.
+     * @param bytes the size (in bytes) of the largest export held in memory
+    **/
+    public void setSpoolThreshold(final int bytes) {
+        this.spoolThreshold = bytes;
+    }
+
+    /**
+     * Cache LDPath transform results, keyed by resource ETag, so unchanged
+     * resources are not transformed again by the repository.
+     * @param cache the cache of transform results
+    **/
+    public void setTransformCache(final TransformCache cache) {
+        this.transformCache = cache;
+    }
+
+    /**
+     * Evaluate LDPath transforms in-process against the retrieved RDF, rather
+     * than requesting fcr:transform from the repository.
+     * @param transform the local transform evaluator
+    **/
+    public void setLocalTransform(final LocalLdpathTransform transform) {
+        this.localTransform = transform;
+    }
+
+    /**
+     * Skip updates whose content is unchanged since it was last sent to the
+     * same indexer, as recorded in the given store. Reindexing sends content
+     * whether or not it has changed. Fingerprints are kept by the indexers'
+     * bean names, so indexers of the same class must be beans.
+     * @param store the fingerprints of content last sent to each indexer
+    **/
+    public void setFingerprintStore(final FingerprintStore store) {
+        if (store != null && unnamedIndexers) {
+            throw new IllegalStateException(
+                    "Indexers of the same class must be beans for their fingerprints to be told apart");
+        }
+        this.fingerprintStore = store;
+    }
+
+    /**
+     * Trace the handling of each event, and keep the traces of the slowest
+     * events in the given log.
+     * @param log the log of the slowest events
+    **/
+    public void setSlowEventLog(final SlowEventLog log) {
+        this.slowEventLog = log;
+    }
+
+    /**
+     * Record each event received from JMS, e.g. to replay it later with a
+     * {@link ReplayEventSource}.
+     * @param recorder the recorder of events
+    **/
+    public void setEventRecorder(final EventRecorder recorder) {
+        this.eventRecorder = recorder;
+    }
+
+    /**
+     * Schedule live events, the parent updates they cause and reindexing in
+     * separate lanes, so that reindexing only uses the capacity live events
+     * leave.
+     * @param lanes the lanes
+    **/
+    public void setPriorityLanes(final PriorityLanes lanes) {
+        this.lanes = lanes;
+    }
+
+    private void nameIndexers() {
+        if (indexers == null) {
+            return;
+        }
+        // indexers are known by their bean names, which key their persisted fingerprints,
+        // or else by their class, told apart by an order that may change between restarts
+        final Map<String, Integer> seen = new HashMap<>();
+        for (final Indexer<Object> indexer : indexers) {
+            final String beanName = indexer instanceof AsynchIndexer ? ((AsynchIndexer<?, ?>) indexer).getBeanName()
+                    : null;
+            final String name = beanName != null ? beanName : indexer.getClass().getName();
+            final Integer n = seen.containsKey(name) ? seen.get(name) + 1 : 0;
+            seen.put(name, n);
+            indexerKeys.put(indexer, n == 0 ? name : name + "#" + n);
+            unnamedIndexers |= n > 0;
+        }
     }
 
     @VisibleForTesting
@@ -238,46 +389,167 @@ public class IndexerGroup implements MessageListener {
             LOGGER.debug("Received message: {}", message.getJMSMessageID());
         } catch (final JMSException e) {
             LOGGER.error("Received unintelligible message: {}", e);
+            ERRORS.mark();
             propagate(e);
         }
         try {
-            // get id and eventType from message
-            final String eventType =
-                message.getStringProperty(EVENT_TYPE_HEADER_NAME);
-            final String id = message.getStringProperty(IDENTIFIER_HEADER_NAME);
-            String baseURL = message.getStringProperty(BASE_URL_HEADER_NAME);
+            handle(message);
+        } catch (final URISyntaxException e) {
+            LOGGER.error("Error creating URI", e);
+            ERRORS.mark();
+        } catch (final JMSException e) {
+            LOGGER.error("Error processing JMS event!", e);
+            ERRORS.mark();
+        }
+    }
+
+    /**
+     * Handle a JMS message representing an object update or deletion event,
+     * returning once its content has been retrieved and sent to each indexer.
+     * @param message the message
+     * @return the indexers' operations, which fail if any of them fails
+     * @throws JMSException if the message could not be read
+     * @throws URISyntaxException if the message does not identify a resource
+    **/
+    public ListenableFuture<List<Object>> handle(final Message message) throws JMSException, URISyntaxException {
+        final IndexingEvent event = IndexingEvent.fromMessage(message);
+        if (eventRecorder != null) {
+            eventRecorder.record(event);
+        }
+        return handle(event);
+    }
+
+    /**
+     * Handle an event, from JMS or any other {@link EventSource}, returning
+     * once its content has been retrieved and sent to each indexer.
+     * @param event the event
+     * @return the indexers' operations, which fail if any of them fails
+     * @throws URISyntaxException if the event does not identify a resource
+    **/
+    public ListenableFuture<List<Object>> handle(final IndexingEvent event) throws URISyntaxException {
+        if (event.getTimestamp() > 0) {
+            RECEIVE_LAG.update(currentTimeMillis() - event.getTimestamp());
+        }
+        final Timer.Context time = MESSAGE_TIMER.time();
+        try {
+            final String eventType = event.getEventType();
 
-            LOGGER.debug("Discovered id: {} in message.", id);
+            LOGGER.debug("Discovered id: {} in message.", event.getIdentifier());
             LOGGER.debug("Discovered event type: {} in message.", eventType);
-            LOGGER.debug("Discovered baseURL: {} in message.", baseURL);
-            LOGGER.debug("Discovered properties: {} in message.", message.getStringProperty(PROPERTIES_HEADER_NAME));
+            LOGGER.debug("Discovered baseURL: {} in message.", event.getBaseURL());
+            LOGGER.debug("Discovered properties: {} in message.", event.getProperties());
 
-            // Trim trailing '/'
-            while (!Strings.isNullOrEmpty(baseURL) && baseURL.endsWith("/")) {
-                baseURL = baseURL.substring(0, baseURL.length() - 1);
+            final URI uri = event.uri();
+            if (lanes != null) {
+                return schedule(Lane.LIVE, uri, eventType);
             }
+            return allAsList(dispatch(uri, eventType, null));
+        } finally {
+            time.stop();
+        }
+    }
 
-            index( new URI(baseURL + id), eventType );
-        } catch (final URISyntaxException e) {
-            LOGGER.error("Error creating URI", e);
-        } catch (final JMSException e) {
-            LOGGER.error("Error processing JMS event!", e);
+    /**
+     * Queue a resource to be indexed in a lane.
+     * @return the indexers' operations, including those for any parent it cascades to
+    **/
+    private ListenableFuture<List<Object>> schedule(final Lane lane, final URI uri, final String eventType) {
+        final SettableFuture<List<Object>> all = SettableFuture.create();
+        final Callable<ListenableFuture<List<Object>>> work = new Callable<ListenableFuture<List<Object>>>() {
+
+            @Override
+            public ListenableFuture<List<Object>> call() throws URISyntaxException {
+                // a cascaded parent is queued as a job of its own, so this job's slot
+                // is freed without waiting for it
+                final List<ListenableFuture<?>> cascaded = new ArrayList<>();
+                final List<ListenableFuture<?>> results = dispatch(uri, eventType, cascaded);
+                final List<ListenableFuture<?>> everything = new ArrayList<>(results);
+                everything.addAll(cascaded);
+                relay(allAsList(everything), all);
+                return allAsList(results);
+            }
+        };
+        try {
+            final ListenableFuture<List<Object>> job = lanes.submit(lane, uri.toString(), work);
+            // if the job itself could not run, nothing else will complete the event
+            addCallback(job, new FutureCallback<List<Object>>() {
+
+                @Override
+                public void onSuccess(final List<Object> result) {
+                    // completed with any cascaded operations
+                }
+
+                @Override
+                public void onFailure(final Throwable t) {
+                    all.setException(t);
+                }
+            }, sameThreadExecutor());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            all.setException(e);
+        }
+        return all;
+    }
+
+    private static void relay(final ListenableFuture<List<Object>> from, final SettableFuture<List<Object>> to) {
+        addCallback(from, new FutureCallback<List<Object>>() {
+
+            @Override
+            public void onSuccess(final List<Object> result) {
+                to.set(result);
+            }
+
+            @Override
+            public void onFailure(final Throwable t) {
+                to.setException(t);
+            }
+        }, sameThreadExecutor());
+    }
+
+    /**
+     * Index a resource, tracing it as an event.
+     * @return the operations sent to indexers
+    **/
+    private List<ListenableFuture<?>> dispatch(final URI uri, final String eventType,
+            final List<ListenableFuture<?>> cascaded) throws URISyntaxException {
+        final EventTrace trace = slowEventLog == null ? null : EventTrace.begin(uri, eventType, slowEventLog);
+        final Span span = StageObservers.begin(RECEIVE, uri);
+        boolean indexed = false;
+        try {
+            final List<ListenableFuture<?>> results = index( uri, eventType, cascaded );
+            indexed = true;
+            return results;
+        } finally {
+            span.end(!indexed);
+            if (trace != null) {
+                trace.end();
+            }
         }
     }
 
     /**
      * Index a resource.
+     * @param cascaded if not null, the parent of a datastream is queued in the cascade lane,
+     *        and its operations added here, instead of being indexed directly
+     * @return the operations sent to indexers
     **/
-    private void index( final URI uri, final String eventType ) throws URISyntaxException {
+    private List<ListenableFuture<?>> index( final URI uri, final String eventType,
+            final List<ListenableFuture<?>> cascaded ) throws URISyntaxException {
         final Boolean removal = REMOVAL_EVENT_TYPE.equals(eventType);
+        // reindexing rebuilds indexes, e.g. after they were wiped, so sends content even if unchanged
+        final boolean reindexing = REINDEX_EVENT_TYPE.equals(eventType);
         final HttpClient httpClient = httpClient(uri.toString());
         LOGGER.debug("It is {} that this is a removal operation.", removal);
-        final Supplier<Model> rdfr =
-            memoize(new RdfRetriever(uri, httpClient));
-        final Supplier<NamedFields> nfr =
-            memoize(new NamedFieldsRetriever(uri, httpClient, rdfr));
-        final Supplier<InputStream> jcrfr =
-             memoize(new JcrXmlRetriever(uri, httpClient));
+        final RdfRetriever rdfRetriever = new RdfRetriever(uri, httpClient, rdfParser);
+        final Supplier<Model> rdfr = memoize(rdfRetriever);
+        final Supplier<NamedFields> nfr = memoize(new NamedFieldsRetriever(uri, httpClient, rdfr,
+                rdfRetriever.etag(), transformCache, localTransform));
+        final Supplier<SpooledContent> jcrfr =
+             memoize(new JcrXmlRetriever(uri, httpClient, spoolThreshold));
+        final List<ListenableFuture<?>> results = new ArrayList<>();
+        final List<ListenableFuture<?>> jcrxmlUpdates = new ArrayList<>();
+        final Map<Object, Long> fingerprints = new IdentityHashMap<>();
+        boolean spooled = false;
         Boolean indexable = false;
 
         if (!removal) {
@@ -298,7 +570,11 @@ public class IndexerGroup implements MessageListener {
                 if ( parents.hasNext() ) {
                     final String parent = parents.nextNode().asResource().getURI();
                     LOGGER.info("Datastream found, also indexing parent {}", parent);
-                    index( new URI(parent), "NODE_UPDATED");
+                    if (cascaded != null) {
+                        cascaded.add(schedule(Lane.CASCADE, new URI(parent), "NODE_UPDATED"));
+                    } else {
+                        results.addAll(index( new URI(parent), "NODE_UPDATED", null ));
+                    }
                 }
             }
         }
@@ -334,6 +610,7 @@ public class IndexerGroup implements MessageListener {
                                 "Retrieving jcr/xml for: {} and persist it to {}...",
                                 uri, indexer);
                         content = jcrfr.get();
+                        spooled = true;
                         hasContent = true;
                         break;
                     default:
@@ -342,47 +619,171 @@ public class IndexerGroup implements MessageListener {
                 }
             }
 
+            final String key = indexerKeys.get(indexer);
             try {
                 if (removal) {
                     LOGGER.debug(
                             "Executing removal of: {} to indexer: {}...",
                             uri, indexer);
-                    indexer.remove(uri);
+                    final long operation = fingerprintStore == null ? 0 : fingerprintStore.dispatch(key, uri);
+                    final ListenableFuture<?> result = indexer.remove(uri);
+                    if (fingerprintStore != null) {
+                        recordFingerprint(result, key, uri, operation, null);
+                    }
+                    trace(key, result);
+                    if (result != null) {
+                        results.add(result);
+                    }
                 } else {
-                    if (hasContent) {
+                    final Long fingerprint = hasContent ? fingerprint(content, fingerprints) : null;
+                    if (fingerprint != null && !reindexing && fingerprintStore.matches(key, uri, fingerprint)) {
+                        LOGGER.debug("Content of: {} unchanged for indexer: {}, skipping update.", uri, indexer);
+                        EventTrace.indexer(key, "unchanged");
+                    } else if (hasContent) {
                         LOGGER.debug(
                                 "Executing update of: {} to indexer: {}...",
                                 uri, indexer);
-                        indexer.update(uri, content);
+                        final long operation = fingerprintStore == null ? 0 : fingerprintStore.dispatch(key, uri);
+                        final ListenableFuture<?> result = indexer.update(uri, content);
+                        if (content instanceof SpooledContent) {
+                            jcrxmlUpdates.add(result);
+                        }
+                        if (fingerprintStore != null) {
+                            recordFingerprint(result, key, uri, operation, fingerprint);
+                        }
+                        trace(key, result);
+                        if (result != null) {
+                            results.add(result);
+                        }
                     } else if (indexable) {
                         LOGGER.error(
                                 "Received update for: {} but was unable to retrieve "
                                         + "content for update to indexer: {}!",
                                 uri, indexer);
+                        EventTrace.indexer(key, "no content");
+                    } else {
+                        EventTrace.indexer(key, "not indexable");
                     }
                 }
             } catch (final Exception e) {
                 LOGGER.error("Error {} indexing {}: {}!", indexer.getClass().getName(), uri, e);
+                ERRORS.mark();
+                EventTrace.indexer(key, "failed: " + e);
+                results.add(immediateFailedFuture(e));
             }
         }
+        if (spooled) {
+            releaseWhenRead(jcrfr.get(), jcrxmlUpdates);
+        }
+        return results;
+    }
+
+    /**
+     * Record an indexer's operation in the trace of the event being handled, if any.
+    **/
+    private static void trace(final String indexer, final ListenableFuture<?> result) {
+        if (result != null) {
+            EventTrace.indexer(indexer, result);
+        } else {
+            EventTrace.indexer(indexer, "sent");
+        }
+    }
+
+    /**
+     * Fingerprint content once, however many indexers receive it.
+     * @return the fingerprint, or null if fingerprints are not in use or the content cannot be fingerprinted
+    **/
+    private Long fingerprint(final Object content, final Map<Object, Long> fingerprints) throws IOException {
+        if (fingerprintStore == null || content == null) {
+            return null;
+        }
+        if (!fingerprints.containsKey(content)) {
+            fingerprints.put(content, FingerprintStore.fingerprint(content));
+        }
+        return fingerprints.get(content);
+    }
+
+    /**
+     * Record the fingerprint of content sent to an indexer once the indexer has
+     * accepted it, unless a later operation for the resource was sent meanwhile.
+     * Nothing is recorded for a removal, a failure or an operation whose result is unknown.
+    **/
+    private void recordFingerprint(final ListenableFuture<?> result, final String indexer, final URI uri,
+            final long operation, final Long fingerprint) {
+        if (result == null) {
+            fingerprintStore.complete(indexer, uri, operation, null);
+            return;
+        }
+        addCallback(result, new FutureCallback<Object>() {
+
+            @Override
+            public void onSuccess(final Object value) {
+                fingerprintStore.complete(indexer, uri, operation, fingerprint);
+            }
+
+            @Override
+            public void onFailure(final Throwable t) {
+                fingerprintStore.complete(indexer, uri, operation, null);
+            }
+        }, sameThreadExecutor());
+    }
+
+    /**
+     * Release spooled content once every indexer reading it has finished.
+    **/
+    private static void releaseWhenRead(final SpooledContent content, final List<ListenableFuture<?>> readers) {
+        successfulAsList(readers).addListener(new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    content.close();
+                } catch (final IOException e) {
+                    LOGGER.warn("Unable to release spooled content: {}", e.getMessage());
+                }
+            }
+        }, sameThreadExecutor());
     }
 
     /**
      * Reindex a resource (and optionally all of its children).
+     * With priority lanes, resources are queued in the bulk lane, and this
+     * returns once they all have been indexed.
      * @param uri The resource URI to reindex.
      * @param recursive If true, also recursively reindex all children.
      * @throws URISyntaxException if URI syntax exception occurred
     **/
     public void reindex( final URI uri, final boolean recursive ) throws URISyntaxException {
         reindexed = new HashSet<>();
-        reindexURI( uri, recursive );
+        final List<ListenableFuture<List<Object>>> scheduled = new ArrayList<>();
+        reindexURI( uri, recursive, scheduled );
+        if (!scheduled.isEmpty()) {
+            try {
+                int failed = 0;
+                for (final List<Object> result : successfulAsList(scheduled).get()) {
+                    if (result == null) {
+                        failed++;
+                    }
+                }
+                LOGGER.info("Reindexed {} resources from {}, {} failed", scheduled.size(), uri, failed);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (final ExecutionException e) {
+                LOGGER.error("Error reindexing {}: {}", uri, e.getMessage());
+            }
+        }
     }
 
-    private void reindexURI( final URI uri, final boolean recursive ) throws URISyntaxException {
+    private void reindexURI( final URI uri, final boolean recursive,
+            final List<ListenableFuture<List<Object>>> scheduled ) throws URISyntaxException {
         LOGGER.debug("Reindexing {}, recursive: {}", uri, recursive);
         if ( !reindexed.contains(uri) ) {
-            // index() will check for indexable mixin
-            index( uri, REINDEX_EVENT_TYPE );
+            // index(), called by dispatch(), will check for indexable mixin
+            if (lanes != null) {
+                scheduled.add(schedule(Lane.BULK, uri, REINDEX_EVENT_TYPE));
+            } else {
+                dispatch( uri, REINDEX_EVENT_TYPE, null );
+            }
         }
 
         // prevent infinite recursion
@@ -390,13 +791,13 @@ public class IndexerGroup implements MessageListener {
 
         // check for children (rdf should be cached...)
         if ( recursive ) {
-            final Supplier<Model> rdfr = memoize(new RdfRetriever(uri, httpClient(uri.toString())));
+            final Supplier<Model> rdfr = memoize(new RdfRetriever(uri, httpClient(uri.toString()), rdfParser));
             final Model model = rdfr.get();
             final NodeIterator children = model.listObjectsOfProperty( CONTAINS );
             while ( children.hasNext() ) {
                 final URI child = new URI(children.nextNode().asResource().getURI());
                 if ( !reindexed.contains(child) ) {
-                    reindexURI( child, true );
+                    reindexURI( child, true, scheduled );
                 }
             }
         }
@@ -0,0 +1,93 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.JmxReporter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * Holds the metrics recorded by every stage of indexing: receiving messages,
+ * retrieving content from the repository, and each indexer's operations.
+ * Metrics are named after the class whose work they measure, e.g.
+ * {@code org.fcrepo.indexer.RdfRetriever.head}. Those of each stage are
+ * recorded by {@link MetricsObserver}.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public final class IndexerMetrics {
+
+    private static final MetricRegistry REGISTRY = new MetricRegistry();
+
+    private IndexerMetrics() {
+    }
+
+    /**
+     * @return the registry holding all indexing metrics
+     */
+    public static MetricRegistry registry() {
+        return REGISTRY;
+    }
+
+    /**
+     * @return a reporter (not yet started) publishing all indexing metrics as JMX MBeans
+     */
+    public static JmxReporter jmxReporter() {
+        return JmxReporter.forRegistry(REGISTRY).inDomain("org.fcrepo.indexer").build();
+    }
+
+    /**
+     * @param type the class recording the metric
+     * @param names the name of the metric
+     * @return the timer
+     */
+    public static Timer timer(final Class<?> type, final String... names) {
+        return REGISTRY.timer(name(type, names));
+    }
+
+    /**
+     * @param type the class recording the metric
+     * @param names the name of the metric
+     * @return the histogram
+     */
+    public static Histogram histogram(final Class<?> type, final String... names) {
+        return REGISTRY.histogram(name(type, names));
+    }
+
+    /**
+     * @param type the class recording the metric
+     * @param names the name of the metric
+     * @return the meter
+     */
+    public static Meter meter(final Class<?> type, final String... names) {
+        return REGISTRY.meter(name(type, names));
+    }
+
+    /**
+     * @param type the class recording the metric
+     * @param names the name of the metric
+     * @return the counter
+     */
+    public static Counter counter(final Class<?> type, final String... names) {
+        return REGISTRY.counter(name(type, names));
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static org.fcrepo.indexer.IndexerGroup.BASE_URL_HEADER_NAME;
+import static org.fcrepo.indexer.IndexerGroup.EVENT_TYPE_HEADER_NAME;
+import static org.fcrepo.indexer.IndexerGroup.IDENTIFIER_HEADER_NAME;
+import static org.fcrepo.indexer.IndexerGroup.PROPERTIES_HEADER_NAME;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Objects;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+import com.google.common.base.Strings;
+
+/**
+ * A repository event, as read from a JMS message or an event log.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class IndexingEvent {
+
+    private final String identifier;
+
+    private final String baseURL;
+
+    private final String eventType;
+
+    private final String properties;
+
+    private final long timestamp;
+
+    /**
+     * @param identifier the path of the resource
+     * @param baseURL the URL of the repository
+     * @param eventType the types of the event
+     * @param properties the properties changed, or null
+     * @param timestamp when the event was published, in milliseconds, or 0 if unknown
+     */
+    public IndexingEvent(final String identifier, final String baseURL, final String eventType,
+            final String properties, final long timestamp) {
+        this.identifier = identifier;
+        this.baseURL = baseURL;
+        this.eventType = eventType;
+        this.properties = properties;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * @param message a message from the repository
+     * @return the event of the message
+     * @throws JMSException if the message could not be read
+     */
+    public static IndexingEvent fromMessage(final Message message) throws JMSException {
+        return new IndexingEvent(message.getStringProperty(IDENTIFIER_HEADER_NAME),
+                message.getStringProperty(BASE_URL_HEADER_NAME),
+                message.getStringProperty(EVENT_TYPE_HEADER_NAME),
+                message.getStringProperty(PROPERTIES_HEADER_NAME),
+                message.getJMSTimestamp());
+    }
+
+    /**
+     * @return the URI of the resource
+     * @throws URISyntaxException if the event does not identify a resource
+     */
+    public URI uri() throws URISyntaxException {
+        // Trim trailing '/'
+        String base = baseURL;
+        while (!Strings.isNullOrEmpty(base) && base.endsWith("/")) {
+            base = base.substring(0, base.length() - 1);
+        }
+        return new URI(base + identifier);
+    }
+
+    /**
+     * @return the path of the resource
+     */
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    /**
+     * @return the URL of the repository
+     */
+    public String getBaseURL() {
+        return baseURL;
+    }
+
+    /**
+     * @return the types of the event
+     */
+    public String getEventType() {
+        return eventType;
+    }
+
+    /**
+     * @return the properties changed, or null
+     */
+    public String getProperties() {
+        return properties;
+    }
+
+    /**
+     * @return when the event was published, in milliseconds, or 0 if unknown
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (!(o instanceof IndexingEvent)) {
+            return false;
+        }
+        final IndexingEvent other = (IndexingEvent) o;
+        return timestamp == other.timestamp && Objects.equals(identifier, other.identifier)
+                && Objects.equals(baseURL, other.baseURL) && Objects.equals(eventType, other.eventType)
+                && Objects.equals(properties, other.properties);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(identifier, baseURL, eventType, properties, timestamp);
+    }
+
+    @Override
+    public String toString() {
+        return eventType + " " + baseURL + identifier + " at " + timestamp;
+    }
+}
@@ -17,6 +17,7 @@ package org.fcrepo.indexer;
 
 import static com.google.common.base.Throwables.propagate;
 import static org.apache.http.HttpStatus.SC_OK;
+import static org.fcrepo.indexer.StageObserver.Stage.EXPORT;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import java.io.IOException;
@@ -31,6 +32,7 @@ import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpHead;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.util.EntityUtils;
+import org.fcrepo.indexer.StageObserver.Span;
 import org.slf4j.Logger;
 
 import com.google.common.base.Supplier;
@@ -41,12 +43,14 @@ import javax.ws.rs.core.Link;
  * Retrieves Modeshape jcr/xml for file system persistence
  * @author lsitu
  */
-public class JcrXmlRetriever implements Supplier<InputStream> {
+public class JcrXmlRetriever implements Supplier<SpooledContent> {
 
     private final URI identifier;
 
     private final HttpClient httpClient;
 
+    private final int spoolThreshold;
+
     private static final Logger LOGGER = getLogger(JcrXmlRetriever.class);
 
     /**
@@ -55,16 +59,31 @@ public class JcrXmlRetriever implements Supplier<InputStream> {
      * @param client the http client
      */
     public JcrXmlRetriever(final URI identifier, final HttpClient client) {
+        this(identifier, client, SpooledContent.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Constructor
+     * @param identifier the URI identifier
+     * @param client the http client
+     * @param spoolThreshold the size (in bytes) of the largest export held in memory
+     */
+    public JcrXmlRetriever(final URI identifier, final HttpClient client, final int spoolThreshold) {
         this.identifier = identifier;
         this.httpClient = client;
+        this.spoolThreshold = spoolThreshold;
     }
 
     @Override
     /**
-     * Retrieve jcr/xml with no binary contents from the repository
+     * Retrieve jcr/xml with no binary contents from the repository, spooled
+     * so that it can be read by more than one indexer. Callers must close the
+     * result when done.
      */
-    public InputStream get() {
+    public SpooledContent get() {
 
+        final Span span = StageObservers.begin(EXPORT, identifier);
+        SpooledContent spooled = null;
         try {
             // make an initial HEAD request and check Link headers for descriptions located elsewhere
             final HttpHead headRequest = new HttpHead(identifier);
@@ -88,13 +107,19 @@ public class JcrXmlRetriever implements Supplier<InputStream> {
             LOGGER.debug("Retrieving jcr/xml content from: {}...", request.getURI());
             final HttpResponse response = httpClient.execute(request);
             if (response.getStatusLine().getStatusCode() == SC_OK) {
-               return response.getEntity().getContent();
+                try (InputStream content = response.getEntity().getContent()) {
+                    spooled = SpooledContent.spool(content, spoolThreshold);
+                    span.bytes(spooled.size());
+                    return spooled;
+                }
             } else {
                 throw new HttpException(response.getStatusLine().getStatusCode() + " : " +
                                                 EntityUtils.toString(response.getEntity()));
             }
         } catch (IOException | HttpException e) {
             throw propagate(e);
+        } finally {
+            span.end(spooled == null);
         }
     }
 
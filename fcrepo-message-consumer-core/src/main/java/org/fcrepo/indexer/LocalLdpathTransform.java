@@ -0,0 +1,260 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static com.google.common.base.Throwables.propagate;
+import static com.hp.hpl.jena.rdf.model.ModelFactory.createDefaultModel;
+import static com.hp.hpl.jena.rdf.model.ResourceFactory.createProperty;
+import static com.hp.hpl.jena.vocabulary.RDF.type;
+import static org.apache.http.HttpStatus.SC_NOT_FOUND;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.http.HttpStatus.SC_OK;
+import static org.fcrepo.kernel.api.RdfLexicon.REPOSITORY_NAMESPACE;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.apache.http.HttpException;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.apache.marmotta.ldpath.LDPath;
+import org.apache.marmotta.ldpath.backend.jena.GenericJenaBackend;
+import org.apache.marmotta.ldpath.exception.LDPathParseException;
+import org.apache.marmotta.ldpath.model.programs.Program;
+import org.slf4j.Logger;
+
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.Property;
+import com.hp.hpl.jena.rdf.model.RDFNode;
+import com.hp.hpl.jena.rdf.model.Resource;
+import com.hp.hpl.jena.rdf.model.StmtIterator;
+
+/**
+ * Evaluates LDPath indexing transforms in-process, against RDF that has already
+ * been retrieved, instead of asking the repository to run them via
+ * {@code fcr:transform}. Programs are fetched from the repository's transform
+ * configuration when first needed, and kept parsed for a time to live, after
+ * which they are fetched again so that changes to them are seen.
+ * <p>
+ * As in the repository, the program for a transform key is chosen by the
+ * types of the resource: for a resource of type {@code fedora:Container}
+ * using transform {@code default}, the program is read from
+ * {@code <programBase>default/fedora:Container}. The first program found is
+ * used, trying the resource's primary type, then its mixin types, then its
+ * other types, with {@code fedora:Resource}, which the other types extend,
+ * last; types listed together are tried in name order. If a program cannot
+ * be fetched, the resource is left for the repository to transform. Programs
+ * are evaluated against the retrieved RDF only, so paths that would follow
+ * links into other resources see only the triples present in that RDF.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class LocalLdpathTransform {
+
+    private static final Logger LOGGER = getLogger(LocalLdpathTransform.class);
+
+    private static final String REPOSITORY_PREFIX = "fedora:";
+
+    private static final String RESOURCE_TYPE = REPOSITORY_PREFIX + "Resource";
+
+    private static final Property PRIMARY_TYPE = createProperty(REPOSITORY_NAMESPACE + "primaryType");
+
+    private static final Property MIXIN_TYPES = createProperty(REPOSITORY_NAMESPACE + "mixinTypes");
+
+    /**
+     * Default time (in milliseconds) for which a parsed program is used before it is fetched again.
+     */
+    public static final long DEFAULT_PROGRAM_TTL = 60000;
+
+    private final String programBase;
+
+    private final Cache<String, Optional<Program<RDFNode>>> programs;
+
+    /**
+     * @param programBase the URL of the repository's LDPath transform
+     *        configuration, e.g.
+     *        {@code http://localhost:8080/rest/fedora:system/fedora:transform/fedora:ldpath/}
+     */
+    public LocalLdpathTransform(final String programBase) {
+        this(programBase, DEFAULT_PROGRAM_TTL);
+    }
+
+    /**
+     * @param programBase the URL of the repository's LDPath transform configuration
+     * @param programTtl the time (in milliseconds) for which a parsed program,
+     *        or the absence of one, is used before it is fetched again
+     */
+    public LocalLdpathTransform(final String programBase, final long programTtl) {
+        this.programBase = programBase.endsWith("/") ? programBase : programBase + "/";
+        this.programs = CacheBuilder.newBuilder().expireAfterWrite(programTtl, MILLISECONDS).build();
+    }
+
+    /**
+     * Evaluate a transform against a resource.
+     *
+     * @param rdf the retrieved RDF for the resource
+     * @param uri the resource to transform
+     * @param transformKey the transform key
+     * @param httpClient client used to fetch programs not yet cached
+     * @return the named fields, or null if no program applies to this resource
+     *         or a program could not be fetched, for the repository to
+     *         transform it instead
+     */
+    public NamedFields transform(final Model rdf, final URI uri, final String transformKey,
+            final HttpClient httpClient) {
+        final Resource context = rdf.createResource(uri.toString());
+        final Program<RDFNode> program;
+        try {
+            program = programFor(context, transformKey, httpClient);
+        } catch (final IOException | HttpException e) {
+            // not remembered, so the program is fetched again for the next resource
+            LOGGER.warn("Unable to retrieve LDPath program for: {}, transforming it in the repository: {}",
+                    uri, e.getMessage());
+            return null;
+        }
+        if (program == null) {
+            return null;
+        }
+        LOGGER.debug("Evaluating LDPath transform: {} locally for: {}", transformKey, uri);
+        final Map<String, Collection<?>> results = program.execute(new GenericJenaBackend(rdf), context);
+        final Map<String, Collection<String>> fields = new HashMap<>(results.size());
+        for (final Map.Entry<String, Collection<?>> result : results.entrySet()) {
+            final ImmutableList.Builder<String> values = ImmutableList.builder();
+            for (final Object value : result.getValue()) {
+                if (value != null) {
+                    values.add(asString(value));
+                }
+            }
+            fields.put(result.getKey(), values.build());
+        }
+        return new NamedFields(fields);
+    }
+
+    private Program<RDFNode> programFor(final Resource context, final String transformKey,
+            final HttpClient httpClient) throws IOException, HttpException {
+        for (final String typeName : typeNames(context)) {
+            final Program<RDFNode> program = program(transformKey + "/" + typeName, httpClient);
+            if (program != null) {
+                return program;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the names of the resource's types, in the order their programs are tried
+     */
+    private static Set<String> typeNames(final Resource context) {
+        final Set<String> names = new LinkedHashSet<>();
+        names.addAll(values(context, PRIMARY_TYPE));
+        names.addAll(values(context, MIXIN_TYPES));
+        final SortedSet<String> types = new TreeSet<>();
+        final StmtIterator statements = context.listProperties(type);
+        try {
+            while (statements.hasNext()) {
+                final RDFNode t = statements.next().getObject();
+                if (t.isURIResource() && t.asResource().getURI().startsWith(REPOSITORY_NAMESPACE)) {
+                    types.add(REPOSITORY_PREFIX + t.asResource().getLocalName());
+                }
+            }
+        } finally {
+            statements.close();
+        }
+        final boolean resource = types.remove(RESOURCE_TYPE);
+        names.addAll(types);
+        if (resource) {
+            names.add(RESOURCE_TYPE);
+        }
+        return names;
+    }
+
+    private static SortedSet<String> values(final Resource context, final Property property) {
+        final SortedSet<String> values = new TreeSet<>();
+        final StmtIterator statements = context.listProperties(property);
+        try {
+            while (statements.hasNext()) {
+                final RDFNode value = statements.next().getObject();
+                if (value.isLiteral()) {
+                    values.add(value.asLiteral().getLexicalForm());
+                }
+            }
+        } finally {
+            statements.close();
+        }
+        return values;
+    }
+
+    private Program<RDFNode> program(final String path, final HttpClient httpClient)
+            throws IOException, HttpException {
+        Optional<Program<RDFNode>> program = programs.getIfPresent(path);
+        if (program == null) {
+            program = fetch(programBase + path, httpClient);
+            programs.put(path, program);
+        }
+        return program.orNull();
+    }
+
+    private static Optional<Program<RDFNode>> fetch(final String location, final HttpClient httpClient)
+            throws IOException, HttpException {
+        LOGGER.debug("Retrieving LDPath program from: {}", location);
+        final HttpResponse response = httpClient.execute(new HttpGet(location));
+        final int status = response.getStatusLine().getStatusCode();
+        if (status == SC_NOT_FOUND) {
+            EntityUtils.consumeQuietly(response.getEntity());
+            return Optional.absent();
+        }
+        if (status != SC_OK) {
+            EntityUtils.consumeQuietly(response.getEntity());
+            throw new HttpException(response.getStatusLine().toString());
+        }
+        try (Reader r = new InputStreamReader(response.getEntity().getContent(), "UTF8")) {
+            final LDPath<RDFNode> parser = new LDPath<>(new GenericJenaBackend(createDefaultModel()));
+            return Optional.of(parser.parseProgram(r));
+        } catch (final LDPathParseException e) {
+            throw propagate(e);
+        }
+    }
+
+    private static String asString(final Object value) {
+        if (value instanceof RDFNode) {
+            final RDFNode node = (RDFNode) value;
+            if (node.isLiteral()) {
+                return node.asLiteral().getLexicalForm();
+            }
+            if (node.isURIResource()) {
+                return node.asResource().getURI();
+            }
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static org.fcrepo.indexer.IndexerGroup.IDENTIFIER_HEADER_NAME;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.apache.activemq.broker.BrokerPluginSupport;
+import org.apache.activemq.broker.ProducerBrokerExchange;
+import org.apache.activemq.command.ActiveMQDestination;
+import org.apache.activemq.command.Message;
+import org.slf4j.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * An ActiveMQ broker plugin that puts each repository event into a message
+ * group (sets its {@code JMSXGroupID}) named for the resource, or for its
+ * container {@code depth} levels below the root. Install it in the
+ * repository's broker alongside a virtual topic for the event topic, e.g.
+ *
+ * <pre>
+ * &lt;plugins&gt;
+ *   &lt;bean xmlns="http://www.springframework.org/schema/beans"
+ *         class="org.fcrepo.indexer.MessageGroupPlugin"/&gt;
+ * &lt;/plugins&gt;
+ * &lt;destinationInterceptors&gt;
+ *   &lt;virtualDestinationInterceptor&gt;
+ *     &lt;virtualDestinations&gt;
+ *       &lt;virtualTopic name="fedora" prefix="Consumer.*."/&gt;
+ *     &lt;/virtualDestinations&gt;
+ *   &lt;/virtualDestinationInterceptor&gt;
+ * &lt;/destinationInterceptors&gt;
+ * </pre>
+ *
+ * and several consumers can then share the queue
+ * {@code Consumer.indexer.fedora}: the broker delivers every message of a
+ * group to the same consumer, so each resource's events are still indexed in
+ * order.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class MessageGroupPlugin extends BrokerPluginSupport {
+
+    private static final Logger LOGGER = getLogger(MessageGroupPlugin.class);
+
+    private static final String METADATA = "/fcr:metadata";
+
+    private String topic = "fedora";
+
+    private int depth;
+
+    @Override
+    public void send(final ProducerBrokerExchange producerExchange, final Message messageSend) throws Exception {
+        final ActiveMQDestination destination = messageSend.getDestination();
+        if (messageSend.getGroupID() == null && destination != null && destination.isTopic()
+                && topic.equals(destination.getPhysicalName())) {
+            final Object identifier = messageSend.getProperty(IDENTIFIER_HEADER_NAME);
+            if (identifier != null) {
+                final String group = groupOf(identifier.toString(), depth);
+                LOGGER.trace("Grouping message {} as {}", messageSend.getMessageId(), group);
+                messageSend.setGroupID(group);
+            }
+        }
+        super.send(producerExchange, messageSend);
+    }
+
+    /**
+     * @param identifier the repository path of a resource
+     * @param depth the number of levels below the root at which to group, or 0
+     *        to group by resource
+     * @return the name of the message group of the resource's events
+     */
+    @VisibleForTesting
+    static String groupOf(final String identifier, final int depth) {
+        String path = identifier;
+        final int fragment = path.indexOf('#');
+        if (fragment >= 0) {
+            path = path.substring(0, fragment);
+        }
+        if (path.endsWith(METADATA)) {
+            path = path.substring(0, path.length() - METADATA.length());
+        }
+        while (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        if (depth > 0) {
+            int end = 0;
+            for (int level = 0; level < depth && end >= 0; level++) {
+                end = path.indexOf('/', end + 1);
+            }
+            if (end > 0) {
+                path = path.substring(0, end);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * @param name the name of the topic to which the repository publishes events
+     */
+    public void setTopic(final String name) {
+        this.topic = name;
+    }
+
+    /**
+     * Group events by container rather than by resource, e.g. with a depth of
+     * 1, the events of {@code /a/b} and {@code /a/c} are both in group
+     * {@code /a}. Grouping by a container also orders the updates an indexer
+     * makes to the container for changes to its members.
+     *
+     * @param levels the number of levels below the root at which to group, or
+     *        0 (the default) to group by resource
+     */
+    public void setDepth(final int levels) {
+        this.depth = levels;
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.fcrepo.indexer.IndexerMetrics.histogram;
+import static org.fcrepo.indexer.IndexerMetrics.registry;
+import static org.fcrepo.indexer.IndexerMetrics.timer;
+import static org.fcrepo.indexer.StageObserver.Stage.UPDATE;
+
+import java.net.URI;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
+
+/**
+ * Records each stage in {@link IndexerMetrics}: the time taken by retrieval
+ * stages, under the retriever, e.g. {@code org.fcrepo.indexer.RdfRetriever.get},
+ * with the size of what was retrieved; and the time taken by, and errors in,
+ * each indexer's operations, under the indexer. Always observed, ahead of any
+ * observers found on the classpath.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+final class MetricsObserver implements StageObserver {
+
+    private static final Timer HEAD_TIMER = timer(RdfRetriever.class, "head");
+
+    private static final Timer GET_TIMER = timer(RdfRetriever.class, "get");
+
+    private static final Timer PARSE_TIMER = timer(RdfRetriever.class, "parse");
+
+    private static final Histogram RDF_SIZES = histogram(RdfRetriever.class, "bytes");
+
+    private static final Timer TRANSFORM_TIMER = timer(NamedFieldsRetriever.class, "transform");
+
+    private static final Timer EXPORT_TIMER = timer(JcrXmlRetriever.class, "export");
+
+    private static final Histogram EXPORT_SIZES = histogram(JcrXmlRetriever.class, "bytes");
+
+    @Override
+    public Span begin(final Stage stage, final URI uri, final String source) {
+        switch (stage) {
+            case HEAD:
+                return new Measured(HEAD_TIMER, null, null);
+            case GET:
+                return new Measured(GET_TIMER, RDF_SIZES, null);
+            case PARSE:
+                // its bytes were already counted by the get
+                return new Measured(PARSE_TIMER, null, null);
+            case TRANSFORM:
+                return new Measured(TRANSFORM_TIMER, null, null);
+            case EXPORT:
+                return new Measured(EXPORT_TIMER, EXPORT_SIZES, null);
+            case UPDATE:
+            case REMOVE:
+                if (source == null) {
+                    return StageObservers.NONE;
+                }
+                return new Measured(registry().timer(name(source, stage == UPDATE ? "update" : "remove")), null,
+                        registry().meter(name(source, "errors")));
+            default:
+                // receipt is timed by IndexerGroup, as a whole message
+                return StageObservers.NONE;
+        }
+    }
+
+    private static class Measured implements Span {
+
+        private final long start = nanoTime();
+
+        private final Timer timer;
+
+        private final Histogram sizes;
+
+        private final Meter errors;
+
+        Measured(final Timer timer, final Histogram sizes, final Meter errors) {
+            this.timer = timer;
+            this.sizes = sizes;
+            this.errors = errors;
+        }
+
+        @Override
+        public Span bytes(final long count) {
+            if (sizes != null) {
+                sizes.update(count);
+            }
+            return this;
+        }
+
+        @Override
+        public Span triples(final long count) {
+            return this;
+        }
+
+        @Override
+        public void end(final boolean failed) {
+            timer.update(nanoTime() - start, NANOSECONDS);
+            if (failed && errors != null) {
+                errors.mark();
+            }
+        }
+    }
+}
@@ -15,18 +15,50 @@
  */
 package org.fcrepo.indexer;
 
+import static com.google.common.collect.Interners.newWeakInterner;
+import static java.util.Arrays.binarySearch;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.sort;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import com.google.common.collect.Interner;
 
 
 /**
- * A group of named fields.
+ * An immutable group of named fields. Field names are interned and kept in a
+ * sorted array alongside an array of value arrays, so instances are compact and
+ * may be shared freely between indexers running concurrently. Use
+ * {@link #withField(String, Collection)} to derive a modified copy; the copy
+ * shares all unchanged values with the original.
  *
  * @author ajs6f
  * @since Dec 13, 2013
  */
-public class NamedFields extends HashMap<String, Collection<String>> {
+public class NamedFields extends AbstractMap<String, Collection<String>> implements Serializable {
+
+    private static final long serialVersionUID = 2L;
+
+    private static final Interner<String> FIELD_NAMES = newWeakInterner();
+
+    private static final String[] NO_STRINGS = new String[0];
+
+    private static final String[][] NO_VALUES = new String[0][];
+
+    private final String[] names;
+
+    private final String[][] values;
+
+    private transient Set<Entry<String, Collection<String>>> entrySet;
 
     /**
      * Default constructor
@@ -34,16 +66,144 @@ public class NamedFields extends HashMap<String, Collection<String>> {
      * @param values the values
      */
     public NamedFields(final Map<String, Collection<String>> values) {
-        super(values);
+        final int size = values.size();
+        final String[] keys = new String[size];
+        int i = 0;
+        for (final String key : values.keySet()) {
+            keys[i++] = FIELD_NAMES.intern(key);
+        }
+        sort(keys);
+        this.names = keys;
+        this.values = new String[size][];
+        for (i = 0; i < size; i++) {
+            this.values[i] = toArray(values.get(keys[i]));
+        }
     }
 
     /**
      * Constructor for empty object.
      */
     public NamedFields() {
-        super();
+        this(NO_STRINGS, NO_VALUES);
+    }
+
+    private NamedFields(final String[] names, final String[][] values) {
+        this.names = names;
+        this.values = values;
+    }
+
+    /**
+     * Derive a copy of these fields with one field added or replaced. Values of
+     * all other fields are shared with this instance.
+     *
+     * @param name the field name
+     * @param fieldValues the values for the field
+     * @return the new fields
+     */
+    public NamedFields withField(final String name, final Collection<String> fieldValues) {
+        final int i = binarySearch(names, name);
+        if (i >= 0) {
+            final String[][] newValues = copyOf(values, values.length);
+            newValues[i] = toArray(fieldValues);
+            return new NamedFields(names, newValues);
+        }
+        final int insert = -(i + 1);
+        final String[] newNames = new String[names.length + 1];
+        final String[][] newValues = new String[names.length + 1][];
+        System.arraycopy(names, 0, newNames, 0, insert);
+        System.arraycopy(values, 0, newValues, 0, insert);
+        newNames[insert] = FIELD_NAMES.intern(name);
+        newValues[insert] = toArray(fieldValues);
+        System.arraycopy(names, insert, newNames, insert + 1, names.length - insert);
+        System.arraycopy(values, insert, newValues, insert + 1, names.length - insert);
+        return new NamedFields(newNames, newValues);
+    }
+
+    @Override
+    public Collection<String> get(final Object key) {
+        final int i = indexOf(key);
+        return i < 0 ? null : new Values(values[i]);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return indexOf(key) >= 0;
     }
 
-    private static final long serialVersionUID = 1L;
+    @Override
+    public int size() {
+        return names.length;
+    }
+
+    @Override
+    public Set<Entry<String, Collection<String>>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Entry<String, Collection<String>>>() {
+
+                @Override
+                public Iterator<Entry<String, Collection<String>>> iterator() {
+                    return new Iterator<Entry<String, Collection<String>>>() {
+
+                        private int next = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < names.length;
+                        }
+
+                        @Override
+                        public Entry<String, Collection<String>> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            final int i = next++;
+                            return new SimpleImmutableEntry<String, Collection<String>>(names[i],
+                                    new Values(values[i]));
+                        }
+
+                        @Override
+                        public void remove() {
+                            throw new UnsupportedOperationException();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return names.length;
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    private int indexOf(final Object key) {
+        return key instanceof String ? binarySearch(names, key) : -1;
+    }
+
+    private static String[] toArray(final Collection<String> values) {
+        return values == null || values.isEmpty() ? NO_STRINGS : values.toArray(new String[values.size()]);
+    }
+
+    /**
+     * Read-only list view over a field's value array.
+     */
+    private static class Values extends AbstractList<String> implements RandomAccess {
+
+        private final String[] values;
+
+        Values(final String[] values) {
+            this.values = values;
+        }
 
+        @Override
+        public String get(final int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
 }
@@ -15,25 +15,19 @@
  */
 package org.fcrepo.indexer;
 
-import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.ImmutableList.builder;
-import static com.google.common.collect.Maps.transformValues;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import java.io.IOException;
-import java.lang.reflect.Type;
 import java.util.Collection;
-import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
 
 import org.slf4j.Logger;
 
-import com.google.common.base.Function;
 import com.google.common.collect.ImmutableList;
 import com.google.gson.Gson;
-import com.google.gson.JsonElement;
 import com.google.gson.TypeAdapter;
-import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
 
@@ -45,43 +39,42 @@ import com.google.gson.stream.JsonWriter;
  */
 public class NamedFieldsDeserializer extends TypeAdapter<NamedFields> {
 
-    private static final Type type = new TypeToken<List<Map<String, JsonElement>>>() {}
-            .getType();
-
-    private Gson gson;
-
     //TODO make index-time boost somehow adjustable, or something
     public static final Long INDEX_TIME_BOOST = 1L;
 
     private static final Logger LOGGER = getLogger(NamedFieldsDeserializer.class);
 
-    private static Function<JsonElement, Collection<String>> jsonElement2list =
-        new Function<JsonElement, Collection<String>>() {
-
-            @Override
-            public List<String> apply(final JsonElement input) {
-                final JsonElement json =
-                    checkNotNull(input, "Cannot transform null!");
-                final ImmutableList.Builder<String> b = builder();
-                for (final JsonElement value : json.getAsJsonArray()) {
-                    b.add(value.getAsString());
-                }
-                return b.build();
-            }
-        };
-
     @Override
     public void write(final JsonWriter out, final NamedFields value)
         throws IOException {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Reads the LDPath transform output (a JSON array whose first element is
+     * an object mapping field names to arrays of values) token by token,
+     * building the fields directly without an intermediate JSON tree.
+     */
     @Override
     public NamedFields read(final JsonReader in)
         throws IOException {
         try {
-            final List<Map<String, JsonElement>> fields = gson.fromJson(in, type);
-            return new NamedFields(transformValues(fields.get(0), jsonElement2list));
+            final Map<String, Collection<String>> fields = new HashMap<>();
+            in.beginArray();
+            if (in.hasNext()) {
+                in.beginObject();
+                while (in.hasNext()) {
+                    final String name = in.nextName();
+                    fields.put(name, readValues(in));
+                }
+                in.endObject();
+            }
+            // only the first result is used
+            while (in.hasNext()) {
+                in.skipValue();
+            }
+            in.endArray();
+            return new NamedFields(fields);
         } catch (final Exception e) {
             LOGGER.error("Failed to parse JSON to List<Map<String, Collection<String>>>!", e);
             throw e;
@@ -89,13 +82,36 @@ public class NamedFieldsDeserializer extends TypeAdapter<NamedFields> {
 
     }
 
+    private static Collection<String> readValues(final JsonReader in) throws IOException {
+        final ImmutableList.Builder<String> values = builder();
+        in.beginArray();
+        while (in.hasNext()) {
+            switch (in.peek()) {
+                case BOOLEAN:
+                    values.add(String.valueOf(in.nextBoolean()));
+                    break;
+                case NULL:
+                    in.nextNull();
+                    break;
+                default:
+                    values.add(in.nextString());
+                    break;
+            }
+        }
+        in.endArray();
+        return values.build();
+    }
 
     /**
+     * Reading no longer delegates to Gson, so this is retained only for
+     * compatibility with existing callers.
+     *
      * @param gson the Gson engine to set
      * @return this object for continued use
+     * @deprecated has no effect; the deserializer needs no Gson engine
      */
+    @Deprecated
     public NamedFieldsDeserializer setGson(final Gson gson) {
-        this.gson = gson;
         return this;
     }
 
@@ -19,6 +19,7 @@ import static com.google.common.base.Throwables.propagate;
 import static com.hp.hpl.jena.rdf.model.ResourceFactory.createResource;
 import static org.apache.http.HttpStatus.SC_OK;
 import static org.fcrepo.indexer.IndexerGroup.INDEXING_TRANSFORM_PREDICATE;
+import static org.fcrepo.indexer.StageObserver.Stage.TRANSFORM;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import java.io.IOException;
@@ -34,6 +35,7 @@ import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpHead;
+import org.fcrepo.indexer.StageObserver.Span;
 import org.slf4j.Logger;
 
 import com.google.common.base.Supplier;
@@ -60,6 +62,12 @@ public class NamedFieldsRetriever implements Supplier<NamedFields> {
 
     private final Supplier<Model> rdfr;
 
+    private final Supplier<String> rdfEtag;
+
+    private final TransformCache cache;
+
+    private final LocalLdpathTransform localTransform;
+
     private Gson gson;
 
     private static final Type typeToken = new TypeToken<NamedFields>() {}
@@ -75,20 +83,53 @@ public class NamedFieldsRetriever implements Supplier<NamedFields> {
      */
     public NamedFieldsRetriever(final URI uri, final HttpClient client,
         final Supplier<Model> rdfr) {
+        this(uri, client, rdfr, null);
+    }
+
+    /**
+     * @param uri the URI identifier
+     * @param client the http client
+     * @param rdfr Used to determine the transform to use with this indexing
+     *        step
+     * @param cache if not null, transform results are cached here and reused
+     *        while the resource's ETag is unchanged
+     */
+    public NamedFieldsRetriever(final URI uri, final HttpClient client,
+        final Supplier<Model> rdfr, final TransformCache cache) {
+        this(uri, client, rdfr, null, cache, null);
+    }
+
+    /**
+     * @param uri the URI identifier
+     * @param client the http client
+     * @param rdfr Used to determine the transform to use with this indexing
+     *        step
+     * @param rdfEtag if not null, supplies the ETag of the RDF supplied by
+     *        {@code rdfr}, which is then used by the cache instead of asking
+     *        the repository for the resource's ETag
+     * @param cache if not null, transform results are cached here and reused
+     *        while the resource's ETag is unchanged
+     * @param localTransform if not null, transforms are evaluated in-process
+     *        against the retrieved RDF where a program is available
+     */
+    public NamedFieldsRetriever(final URI uri, final HttpClient client, final Supplier<Model> rdfr,
+        final Supplier<String> rdfEtag, final TransformCache cache, final LocalLdpathTransform localTransform) {
         this.uri = uri;
         this.httpClient = client;
         this.rdfr = rdfr;
-        final NamedFieldsDeserializer deserializer =
-            new NamedFieldsDeserializer();
+        this.rdfEtag = rdfEtag;
+        this.cache = cache;
+        this.localTransform = localTransform;
         this.gson =
-            new GsonBuilder().registerTypeAdapter(typeToken, deserializer)
+            new GsonBuilder().registerTypeAdapter(typeToken, new NamedFieldsDeserializer())
                     .create();
-        deserializer.setGson(gson);
     }
 
     @Override
     public NamedFields get() {
         LOGGER.debug("Retrieving RDF representation for: {}", uri);
+        final Span span = StageObservers.begin(TRANSFORM, uri);
+        NamedFields fields = null;
         try {
             final Model rdf = rdfr.get();
 
@@ -114,13 +155,17 @@ public class NamedFieldsRetriever implements Supplier<NamedFields> {
                 }
 
                 // Return fields based on transform-predicate defined on the resource-description
-                return getNamedFields(rdf, descriptionURI);
+                fields = getNamedFields(rdf, descriptionURI);
+                return fields;
             }
 
             // Return fields based on transform-predicate defined on the original resource
-            return getNamedFields(rdf, uri);
+            fields = getNamedFields(rdf, uri);
+            return fields;
         } catch (IOException | HttpException e) {
             throw propagate(e);
+        } finally {
+            span.end(fields == null);
         }
     }
 
@@ -136,6 +181,23 @@ public class NamedFieldsRetriever implements Supplier<NamedFields> {
         final String transformKey =
                 indexingTransform.asLiteral().getString();
         LOGGER.debug("Discovered transform key: {}", transformKey);
+
+        if (localTransform != null) {
+            final NamedFields fields = localTransform.transform(rdf, uri, transformKey, httpClient);
+            if (fields != null) {
+                return fields;
+            }
+            LOGGER.debug("No local program for transform: {}, using the repository.", transformKey);
+        }
+
+        final String etag = cache == null ? null : rdfEtag == null ? etagFor(uri) : rdfEtag.get();
+        if (etag != null) {
+            final NamedFields cached = cache.get(uri, transformKey, etag);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
         final HttpGet transformedResourceRequest =
                 new HttpGet(uri.toString() + "/fcr:transform/" + transformKey);
         LOGGER.debug("Retrieving transformed resource from: {}",
@@ -150,8 +212,21 @@ public class NamedFieldsRetriever implements Supplier<NamedFields> {
                 Reader r =
                     new InputStreamReader(response.getEntity().getContent(),
                             "UTF8")) {
-            return gson.fromJson(r, typeToken);
+            final NamedFields fields = gson.fromJson(r, typeToken);
+            if (etag != null) {
+                cache.put(uri, transformKey, etag, fields);
+            }
+            return fields;
         }
     }
 
+    /**
+     * @return the current ETag of the resource, or null if it has none
+     */
+    private String etagFor(final URI uri) throws IOException {
+        final HttpResponse response = httpClient.execute(new HttpHead(uri));
+        final Header etag = response.getFirstHeader("ETag");
+        return response.getStatusLine().getStatusCode() == SC_OK && etag != null ? etag.getValue() : null;
+    }
+
 }
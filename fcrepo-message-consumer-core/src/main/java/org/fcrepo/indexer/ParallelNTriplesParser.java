@@ -0,0 +1,193 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static com.hp.hpl.jena.rdf.model.ModelFactory.createDefaultModel;
+import static java.lang.Runtime.getRuntime;
+import static org.apache.jena.riot.Lang.NTRIPLES;
+import static org.apache.jena.riot.system.StreamRDFLib.graph;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.slf4j.Logger;
+
+import com.hp.hpl.jena.graph.Graph;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.rdf.model.Model;
+
+/**
+ * Parses line-based RDF (N-Triples) by splitting a buffered payload on line
+ * boundaries and parsing the chunks concurrently on a fork-join pool. The
+ * resulting triples are merged into a single {@link Model}. Payloads smaller
+ * than the configured threshold, or containing blank nodes (whose labels are
+ * only meaningful within a single parse), are parsed serially on the calling
+ * thread.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class ParallelNTriplesParser {
+
+    private static final Logger LOGGER = getLogger(ParallelNTriplesParser.class);
+
+    /**
+     * Payloads below this size (in bytes) are parsed on the calling thread.
+     */
+    public static final int DEFAULT_THRESHOLD = 1024 * 1024;
+
+    /**
+     * Smallest chunk (in bytes) handed to a single parser.
+     */
+    private static final int MINIMUM_CHUNK_SIZE = 64 * 1024;
+
+    private static final byte NEWLINE = '\n';
+
+    private final ForkJoinPool pool;
+
+    private final int threshold;
+
+    /**
+     * Default constructor: one worker per available processor.
+     */
+    public ParallelNTriplesParser() {
+        this(getRuntime().availableProcessors(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param parallelism the number of parsing threads
+     * @param threshold payloads smaller than this (in bytes) are parsed serially
+     */
+    public ParallelNTriplesParser(final int parallelism, final int threshold) {
+        this.pool = new ForkJoinPool(parallelism);
+        this.threshold = threshold;
+    }
+
+    /**
+     * Parse an N-Triples payload.
+     *
+     * @param payload the complete N-Triples document, UTF-8 encoded
+     * @return a model containing all triples in the payload
+     */
+    public Model parse(final byte[] payload) {
+        final Model model = createDefaultModel();
+        if (payload.length < threshold || hasBlankNodes(payload)) {
+            LOGGER.debug("Parsing {} bytes of N-Triples serially.", payload.length);
+            RDFDataMgr.parse(graph(model.getGraph()), new ByteArrayInputStream(payload), NTRIPLES);
+            return model;
+        }
+        final int chunkSize = Math.max(MINIMUM_CHUNK_SIZE, payload.length / (pool.getParallelism() * 4));
+        LOGGER.debug("Parsing {} bytes of N-Triples in chunks of ~{} bytes.", payload.length, chunkSize);
+        final Graph graph = model.getGraph();
+        for (final Triple t : pool.invoke(new ChunkTask(payload, 0, payload.length, chunkSize))) {
+            graph.add(t);
+        }
+        return model;
+    }
+
+    /**
+     * Shut down the parsing threads.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private static boolean hasBlankNodes(final byte[] payload) {
+        for (int i = 0; i < payload.length - 1; i++) {
+            if (payload[i] == '_' && payload[i + 1] == ':') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Index just past the first newline at or after the given offset, or the
+     * end of the range if there is none.
+     */
+    private static int nextLineStart(final byte[] payload, final int from, final int end) {
+        for (int i = from; i < end; i++) {
+            if (payload[i] == NEWLINE) {
+                return i + 1;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Splits a range of the payload on a line boundary until it is small
+     * enough, then parses it.
+     */
+    private static class ChunkTask extends RecursiveTask<List<Triple>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] payload;
+
+        private final int start;
+
+        private final int end;
+
+        private final int chunkSize;
+
+        ChunkTask(final byte[] payload, final int start, final int end, final int chunkSize) {
+            this.payload = payload;
+            this.start = start;
+            this.end = end;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected List<Triple> compute() {
+            if (end - start > chunkSize) {
+                final int split = nextLineStart(payload, start + (end - start) / 2, end);
+                if (split < end) {
+                    final ChunkTask second = new ChunkTask(payload, split, end, chunkSize);
+                    second.fork();
+                    final List<Triple> triples = new ChunkTask(payload, start, split, chunkSize).compute();
+                    triples.addAll(second.join());
+                    return triples;
+                }
+            }
+            final List<Triple> triples = new ArrayList<>();
+            RDFDataMgr.parse(new ListSink(triples), new ByteArrayInputStream(payload, start, end - start), NTRIPLES);
+            return triples;
+        }
+    }
+
+    /**
+     * Collects parsed triples into a list.
+     */
+    private static class ListSink extends StreamRDFBase {
+
+        private final List<Triple> triples;
+
+        ListSink(final List<Triple> triples) {
+            this.triples = triples;
+        }
+
+        @Override
+        public void triple(final Triple triple) {
+            triples.add(triple);
+        }
+    }
+}
@@ -0,0 +1,411 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static com.google.common.util.concurrent.Futures.addCallback;
+import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.fcrepo.indexer.IndexerMetrics.meter;
+import static org.fcrepo.indexer.IndexerMetrics.timer;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * Schedules indexing work in separate lanes, so that live events are not
+ * queued behind a bulk reindex. A job retrieves a resource and sends it to
+ * the indexers; at most {@code maxInFlight} jobs run at once, each holding
+ * its slot until the indexers have finished with it, so the indexers' own
+ * queues stay short. Free slots go to queued jobs by weighted round robin:
+ * in each round, each lane may start up to its weight of jobs, and a lane
+ * with nothing queued gives up its turns, so bulk work uses whatever capacity
+ * live events leave. A live job that has waited longer than the live latency
+ * target goes next regardless.
+ * <p>
+ * Jobs for the same resource run in the order they were submitted, whatever
+ * their lanes: a job waits, outside its lane, until the resource's previous
+ * job has finished, so that e.g. a removal cannot overtake an update.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class PriorityLanes implements Closeable {
+
+    private static final Logger LOGGER = getLogger(PriorityLanes.class);
+
+    /**
+     * Lanes of work, in the order they are served within a round.
+     */
+    public static enum Lane {
+        /** Events received from the repository. */
+        LIVE,
+        /** Updates of a parent caused by an event for its child. */
+        CASCADE,
+        /** Reindexing. */
+        BULK
+    }
+
+    private static final Meter LATE = meter(PriorityLanes.class, "late");
+
+    private final Map<Lane, Deque<Job<?>>> queues = new EnumMap<>(Lane.class);
+
+    private final Map<Lane, Integer> weights = new EnumMap<>(Lane.class);
+
+    private final Map<Lane, Integer> turns = new EnumMap<>(Lane.class);
+
+    private final Map<Lane, Timer> waits = new EnumMap<>(Lane.class);
+
+    /**
+     * For each resource with a job queued or running, its jobs in order; only
+     * the first is in a lane.
+     */
+    private final Map<String, Deque<Job<?>>> resources = new HashMap<>();
+
+    /**
+     * The number of jobs waiting for an earlier job for their resource, by lane.
+     */
+    private final Map<Lane, Integer> held = new EnumMap<>(Lane.class);
+
+    private final Lock lock = new ReentrantLock();
+
+    /**
+     * Signalled when a job is queued, a slot is freed or the lanes are closed.
+     */
+    private final Condition ready = lock.newCondition();
+
+    /**
+     * Signalled when a job leaves a queue or the lanes are closed.
+     */
+    private final Condition space = lock.newCondition();
+
+    private final Thread[] workers;
+
+    private final int maxInFlight;
+
+    private int inFlight;
+
+    private int capacity = 1000;
+
+    private long liveLatencyTarget;
+
+    private boolean closed;
+
+    /**
+     * Schedule up to 8 jobs at once on 4 threads.
+     */
+    public PriorityLanes() {
+        this(4, 8);
+    }
+
+    /**
+     * @param threads the number of threads on which jobs are run
+     * @param maxInFlight the most jobs whose indexing is unfinished at once
+     */
+    public PriorityLanes(final int threads, final int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        for (final Lane lane : Lane.values()) {
+            queues.put(lane, new ArrayDeque<Job<?>>());
+            turns.put(lane, 0);
+            held.put(lane, 0);
+            waits.put(lane, timer(PriorityLanes.class, "wait-" + lane.name().toLowerCase()));
+        }
+        weights.put(Lane.LIVE, 8);
+        weights.put(Lane.CASCADE, 4);
+        weights.put(Lane.BULK, 1);
+        workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    for (Job<?> job = take(); job != null; job = take()) {
+                        execute(job);
+                    }
+                }
+            }, "priority-lanes-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Queue a job, waiting for room in its lane if the lane is full. Cascaded
+     * jobs are queued without limit, as they are submitted by jobs already
+     * running.
+     *
+     * @param lane the lane of the job
+     * @param resource the resource the job indexes, whose jobs run in order
+     * @param work the job, returning the indexers' operations
+     * @param <T> the type of the operations' result
+     * @return the result of the operations
+     * @throws InterruptedException if interrupted while waiting for room
+     */
+    public <T> ListenableFuture<T> submit(final Lane lane, final String resource,
+            final Callable<? extends ListenableFuture<T>> work) throws InterruptedException {
+        final Job<T> job = new Job<>(lane, resource, work);
+        lock.lock();
+        try {
+            while (!closed && lane != Lane.CASCADE && queues.get(lane).size() + held.get(lane) >= capacity) {
+                space.await();
+            }
+            if (closed) {
+                throw new RejectedExecutionException("Priority lanes are closed");
+            }
+            Deque<Job<?>> earlier = resources.get(resource);
+            if (earlier == null) {
+                earlier = new ArrayDeque<>();
+                resources.put(resource, earlier);
+            }
+            earlier.add(job);
+            if (earlier.size() == 1) {
+                queues.get(lane).add(job);
+                ready.signalAll();
+            } else {
+                held.put(lane, held.get(lane) + 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return job.result;
+    }
+
+    /**
+     * Start the jobs submitted so far, including those waiting for an earlier
+     * job for their resource to finish, then stop.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            ready.signalAll();
+            space.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (final Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the next job to run, once a slot is free, or null once closed
+     */
+    private Job<?> take() {
+        lock.lock();
+        try {
+            while (true) {
+                if (inFlight < maxInFlight) {
+                    final Job<?> job = next();
+                    if (job != null) {
+                        inFlight++;
+                        space.signalAll();
+                        return job;
+                    }
+                }
+                if (closed && empty() && resources.isEmpty()) {
+                    return null;
+                }
+                ready.await();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Job<?> next() {
+        final Job<?> oldestLive = queues.get(Lane.LIVE).peek();
+        if (liveLatencyTarget > 0 && oldestLive != null && nanoTime() - oldestLive.queued > liveLatencyTarget) {
+            LATE.mark();
+            return queues.get(Lane.LIVE).poll();
+        }
+        // a second pass starts a new round, if the first found no lane with turns left
+        for (int pass = 0; pass < 2; pass++) {
+            for (final Lane lane : Lane.values()) {
+                final int left = turns.get(lane);
+                if (left > 0 && !queues.get(lane).isEmpty()) {
+                    turns.put(lane, left - 1);
+                    return queues.get(lane).poll();
+                }
+            }
+            if (empty()) {
+                return null;
+            }
+            turns.putAll(weights);
+        }
+        return null;
+    }
+
+    private boolean empty() {
+        for (final Deque<Job<?>> queue : queues.values()) {
+            if (!queue.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private <T> void execute(final Job<T> job) {
+        waits.get(job.lane).update(nanoTime() - job.queued, NANOSECONDS);
+        ListenableFuture<T> operations;
+        try {
+            operations = job.work.call();
+        } catch (final Exception e) {
+            LOGGER.error("Error running {} job: {}", job.lane, e);
+            operations = immediateFailedFuture(e);
+        }
+        addCallback(operations, new FutureCallback<T>() {
+
+            @Override
+            public void onSuccess(final T result) {
+                release(job);
+                job.result.set(result);
+            }
+
+            @Override
+            public void onFailure(final Throwable t) {
+                release(job);
+                job.result.setException(t);
+            }
+        }, sameThreadExecutor());
+    }
+
+    /**
+     * Free a finished job's slot, and queue the next job for its resource.
+     */
+    private void release(final Job<?> job) {
+        lock.lock();
+        try {
+            inFlight--;
+            final Deque<Job<?>> jobs = resources.get(job.resource);
+            jobs.poll();
+            final Job<?> next = jobs.peek();
+            if (next == null) {
+                resources.remove(job.resource);
+            } else {
+                held.put(next.lane, held.get(next.lane) - 1);
+                queues.get(next.lane).add(next);
+            }
+            ready.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param weight the jobs started from the live lane in each round (default 8)
+     */
+    public void setLiveWeight(final int weight) {
+        setWeight(Lane.LIVE, weight);
+    }
+
+    /**
+     * @param weight the jobs started from the cascade lane in each round (default 4)
+     */
+    public void setCascadeWeight(final int weight) {
+        setWeight(Lane.CASCADE, weight);
+    }
+
+    /**
+     * @param weight the jobs started from the bulk lane in each round (default 1)
+     */
+    public void setBulkWeight(final int weight) {
+        setWeight(Lane.BULK, weight);
+    }
+
+    private void setWeight(final Lane lane, final int weight) {
+        lock.lock();
+        try {
+            weights.put(lane, weight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param millis how long a live job may wait before it goes ahead of
+     *        every other lane, or 0 (the default) for no target
+     */
+    public void setLiveLatencyTarget(final long millis) {
+        lock.lock();
+        try {
+            this.liveLatencyTarget = MILLISECONDS.toNanos(millis);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param jobs the most jobs queued in the live or bulk lane before
+     *        submitters wait (default 1000)
+     */
+    public void setCapacity(final int jobs) {
+        lock.lock();
+        try {
+            this.capacity = jobs;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Job<T> {
+
+        private final Lane lane;
+
+        private final String resource;
+
+        private final Callable<? extends ListenableFuture<T>> work;
+
+        private final SettableFuture<T> result = SettableFuture.create();
+
+        private final long queued = nanoTime();
+
+        private Job(final Lane lane, final String resource, final Callable<? extends ListenableFuture<T>> work) {
+            this.lane = lane;
+            this.resource = resource;
+            this.work = work;
+        }
+    }
+}
@@ -19,6 +19,10 @@ import static com.google.common.base.Throwables.propagate;
 import static com.hp.hpl.jena.rdf.model.ModelFactory.createDefaultModel;
 import static org.apache.http.HttpStatus.SC_OK;
 import static org.apache.jena.riot.WebContent.contentTypeN3;
+import static org.apache.jena.riot.WebContent.contentTypeNTriples;
+import static org.fcrepo.indexer.StageObserver.Stage.GET;
+import static org.fcrepo.indexer.StageObserver.Stage.HEAD;
+import static org.fcrepo.indexer.StageObserver.Stage.PARSE;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import java.io.IOException;
@@ -35,6 +39,8 @@ import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpHead;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.util.EntityUtils;
+import org.fcrepo.indexer.StageObserver.Span;
 import org.slf4j.Logger;
 
 import com.google.common.base.Supplier;
@@ -56,6 +62,10 @@ public class RdfRetriever implements Supplier<Model> {
 
     private final HttpClient httpClient;
 
+    private final ParallelNTriplesParser parser;
+
+    private volatile String etag;
+
     private static final Logger LOGGER = getLogger(RdfRetriever.class);
 
     /**
@@ -63,8 +73,19 @@ public class RdfRetriever implements Supplier<Model> {
      * @param client the http client
      */
     public RdfRetriever(final URI identifier, final HttpClient client) {
+        this(identifier, client, null);
+    }
+
+    /**
+     * @param identifier the URI identifier
+     * @param client the http client
+     * @param parser if not null, RDF is requested as N-Triples and parsed
+     *        with this parser
+     */
+    public RdfRetriever(final URI identifier, final HttpClient client, final ParallelNTriplesParser parser) {
         this.identifier = identifier;
         this.httpClient = client;
+        this.parser = parser;
     }
 
     @Override
@@ -73,7 +94,13 @@ public class RdfRetriever implements Supplier<Model> {
         try {
             // make an initial HEAD request and check Link headers for descriptions located elsewhere
             final HttpHead headRequest = new HttpHead(identifier);
-            final HttpResponse headResponse = httpClient.execute(headRequest);
+            final Span headSpan = StageObservers.begin(HEAD, identifier);
+            HttpResponse headResponse = null;
+            try {
+                headResponse = httpClient.execute(headRequest);
+            } finally {
+                headSpan.end(headResponse == null);
+            }
             URI descriptionURI = null;
             final Header[] links = headResponse.getHeaders("Link");
             if ( links != null ) {
@@ -90,22 +117,60 @@ public class RdfRetriever implements Supplier<Model> {
             }
 
             final HttpUriRequest request = new HttpGet(descriptionURI);
-            request.addHeader("Accept", RDF_SERIALIZATION);
+            request.addHeader("Accept", parser == null ? RDF_SERIALIZATION : contentTypeNTriples);
             LOGGER.debug("Retrieving RDF content from: {}...", request.getURI());
-            final HttpResponse response = httpClient.execute(request);
-            if (response.getStatusLine().getStatusCode() == SC_OK) {
-                try (
-                    Reader r =
-                        new InputStreamReader(
-                                response.getEntity().getContent(), "UTF8")) {
-                    return createDefaultModel().read(r, "", "N3");
+            final Span getSpan = StageObservers.begin(GET, identifier);
+            Model model = null;
+            try {
+                final HttpResponse response = httpClient.execute(request);
+                if (response.getStatusLine().getStatusCode() == SC_OK) {
+                    final Header etagHeader = response.getFirstHeader("ETag");
+                    etag = etagHeader == null ? null : etagHeader.getValue();
+                    if (parser != null) {
+                        final byte[] content = EntityUtils.toByteArray(response.getEntity());
+                        getSpan.bytes(content.length);
+                        final Span parseSpan = StageObservers.begin(PARSE, identifier).bytes(content.length);
+                        try {
+                            model = parser.parse(content);
+                        } finally {
+                            parseSpan.triples(model == null ? 0 : model.size()).end(model == null);
+                        }
+                        return model;
+                    }
+                    if (response.getEntity().getContentLength() >= 0) {
+                        getSpan.bytes(response.getEntity().getContentLength());
+                    }
+                    try (
+                        Reader r =
+                            new InputStreamReader(
+                                    response.getEntity().getContent(), "UTF8")) {
+                        // N3 is parsed as it is read, so its parse is part of the get
+                        model = createDefaultModel().read(r, "", "N3");
+                        getSpan.triples(model.size());
+                        return model;
+                    }
+                } else {
+                    throw new HttpException(response.getStatusLine().toString());
                 }
-            } else {
-                throw new HttpException(response.getStatusLine().toString());
+            } finally {
+                getSpan.end(model == null);
             }
         } catch (IOException | HttpException e) {
             throw propagate(e);
         }
     }
 
+    /**
+     * @return the ETag of the RDF once retrieved, or null if it had none
+     */
+    public Supplier<String> etag() {
+        return new Supplier<String>() {
+
+            @Override
+            public String get() {
+                return etag;
+            }
+        };
+    }
+
 }
@@ -0,0 +1,185 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static com.google.common.util.concurrent.Futures.addCallback;
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+import static java.lang.System.nanoTime;
+import static java.nio.file.Files.isDirectory;
+import static java.nio.file.Files.newDirectoryStream;
+import static java.nio.file.Files.newInputStream;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.fcrepo.indexer.IndexerMetrics.meter;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+
+import com.codahale.metrics.Meter;
+import com.google.common.util.concurrent.FutureCallback;
+
+/**
+ * Replays events from {@link EventLog} files, either as fast as the indexers
+ * take them or at the cadence at which they were recorded (optionally sped
+ * up), e.g. for reproducible performance tests, or to catch up after an
+ * outage without a broker. An event that fails is logged, counted and
+ * skipped, and the replay goes on.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class ReplayEventSource implements EventSource {
+
+    private static final Logger LOGGER = getLogger(ReplayEventSource.class);
+
+    private static final Meter REPLAYED = meter(ReplayEventSource.class, "replayed");
+
+    private static final Meter FAILED = meter(ReplayEventSource.class, "failed");
+
+    private final Path path;
+
+    private double speed;
+
+    private int maxInFlight = 1000;
+
+    /**
+     * @param path an event log, or a directory of them, replayed in order of name
+     */
+    public ReplayEventSource(final Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public long feed(final IndexerGroup group) throws IOException, InterruptedException {
+        final Semaphore inFlight = new Semaphore(maxInFlight);
+        final FutureCallback<Object> release = new FutureCallback<Object>() {
+
+            @Override
+            public void onSuccess(final Object result) {
+                inFlight.release();
+            }
+
+            @Override
+            public void onFailure(final Throwable t) {
+                inFlight.release();
+            }
+        };
+        final long start = nanoTime();
+        long first = -1;
+        long sent = 0;
+        try {
+            for (final Path log : logs()) {
+                LOGGER.info("Replaying events from {}", log);
+                try (final EventLog.Reader reader = new EventLog.Reader(newInputStream(log))) {
+                    for (IndexingEvent event = reader.read(); event != null; event = reader.read()) {
+                        if (speed > 0 && event.getTimestamp() > 0) {
+                            if (first < 0) {
+                                first = event.getTimestamp();
+                            }
+                            final long due = start + (long) (MILLISECONDS.toNanos(event.getTimestamp() - first)
+                                    / speed);
+                            final long wait = due - nanoTime();
+                            if (wait > 0) {
+                                NANOSECONDS.sleep(wait);
+                            }
+                        }
+                        inFlight.acquire();
+                        boolean handled = false;
+                        try {
+                            handled = send(group, event, release);
+                        } finally {
+                            if (!handled) {
+                                inFlight.release();
+                            }
+                        }
+                        if (handled) {
+                            sent++;
+                        }
+                    }
+                } catch (final EOFException e) {
+                    LOGGER.warn("Skipping empty event log {}", log);
+                }
+            }
+        } finally {
+            // wait for the indexers to finish with every event sent
+            inFlight.acquire(maxInFlight);
+            inFlight.release(maxInFlight);
+        }
+        LOGGER.info("Replayed {} events from {}", sent, path);
+        return sent;
+    }
+
+    private static boolean send(final IndexerGroup group, final IndexingEvent event,
+            final FutureCallback<Object> release) {
+        try {
+            // replayed events are not late, however long ago they were recorded
+            addCallback(group.handle(new IndexingEvent(event.getIdentifier(), event.getBaseURL(),
+                    event.getEventType(), event.getProperties(), 0)), release, sameThreadExecutor());
+            REPLAYED.mark();
+            return true;
+        } catch (final URISyntaxException e) {
+            LOGGER.error("Skipping event with invalid URI: {}", event);
+            return false;
+        } catch (final RuntimeException e) {
+            // e.g. the resource was deleted after the event was recorded
+            LOGGER.error("Skipping event that failed: {}", event, e);
+            FAILED.mark();
+            return false;
+        }
+    }
+
+    private List<Path> logs() throws IOException {
+        if (!isDirectory(path)) {
+            return Collections.singletonList(path);
+        }
+        final List<Path> logs = new ArrayList<>();
+        try (final DirectoryStream<Path> files = newDirectoryStream(path)) {
+            for (final Path file : files) {
+                if (!isDirectory(file)) {
+                    logs.add(file);
+                }
+            }
+        }
+        Collections.sort(logs);
+        return logs;
+    }
+
+    /**
+     * @param factor the speed at which to replay events relative to their
+     *        recorded cadence, e.g. 2 for twice as fast, or 0 (the default) to
+     *        replay them as fast as the indexers take them
+     */
+    public void setSpeed(final double factor) {
+        this.speed = factor;
+    }
+
+    /**
+     * @param max the most events sent to indexers and not yet indexed
+     */
+    public void setMaxInFlight(final int max) {
+        this.maxInFlight = max;
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+
+/**
+ * Orders the operations an {@link AsynchIndexer} plans on each resource, for
+ * indexers that remember what they last sent for a resource. Operations
+ * planned with {@link #ordered} are run with {@link #execute}, which hands the
+ * operations on a resource to the executor one at a time, without holding a
+ * thread while they wait. An operation is skipped if another operation on the
+ * same resource was planned after it, since that one runs (or has run) in its
+ * place.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class ResourceOrdering {
+
+    private static final Logger LOGGER = getLogger(ResourceOrdering.class);
+
+    private final Map<String, Operations> planned = new HashMap<>();
+
+    /**
+     * For each resource with a task running, the tasks waiting for it.
+     */
+    private final Map<String, Deque<Runnable>> queued = new HashMap<>();
+
+    /**
+     * Plan an operation on a resource.
+     *
+     * @param resource the resource
+     * @param operation the operation
+     * @param skipped the result of the operation if it is skipped
+     * @param <T> the type of the operation's result
+     * @return the operation, to run once with {@link #execute}
+     */
+    public <T> Callable<T> ordered(final String resource, final Callable<T> operation, final T skipped) {
+        final Operations operations;
+        final long sequence;
+        synchronized (planned) {
+            Operations existing = planned.get(resource);
+            if (existing == null) {
+                existing = new Operations();
+                planned.put(resource, existing);
+            }
+            existing.pending++;
+            sequence = ++existing.planned;
+            operations = existing;
+        }
+        return new Callable<T>() {
+
+            @Override
+            public T call() throws Exception {
+                try {
+                    synchronized (planned) {
+                        if (operations.planned > sequence) {
+                            LOGGER.debug("Skipping operation on {} planned before another", resource);
+                            return skipped;
+                        }
+                    }
+                    return operation.call();
+                } finally {
+                    synchronized (planned) {
+                        if (--operations.pending == 0) {
+                            planned.remove(resource);
+                        }
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Run a task on a resource once the tasks on it given before have
+     * finished.
+     *
+     * @param resource the resource
+     * @param task the task, which has finished when it returns
+     * @param executor the executor on which to run the task
+     */
+    public void execute(final String resource, final Runnable task, final Executor executor) {
+        synchronized (queued) {
+            final Deque<Runnable> waiting = queued.get(resource);
+            if (waiting != null) {
+                waiting.add(task);
+                return;
+            }
+            queued.put(resource, new ArrayDeque<Runnable>());
+        }
+        executor.execute(inTurn(resource, task, executor));
+    }
+
+    /**
+     * @return the task, handing the next task on the resource to the executor when it finishes
+     */
+    private Runnable inTurn(final String resource, final Runnable task, final Executor executor) {
+        return new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    task.run();
+                } finally {
+                    final Runnable next;
+                    synchronized (queued) {
+                        next = queued.get(resource).poll();
+                        if (next == null) {
+                            queued.remove(resource);
+                        }
+                    }
+                    if (next != null) {
+                        executor.execute(inTurn(resource, next, executor));
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * The operations planned on a resource that have not yet run.
+     */
+    private static final class Operations {
+
+        private int pending;
+
+        private long planned;
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the traces of the slowest events handled, so that tail latency can
+ * be diagnosed. Holds a fixed number of traces; a trace is kept only if it is
+ * slower than the fastest one held.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class SlowEventLog {
+
+    private static final Comparator<EventTrace> BY_TIME = new Comparator<EventTrace>() {
+
+        @Override
+        public int compare(final EventTrace a, final EventTrace b) {
+            return Double.compare(a.getMillis(), b.getMillis());
+        }
+    };
+
+    private final int capacity;
+
+    // the fastest trace held is at the head
+    private final PriorityQueue<EventTrace> traces;
+
+    /**
+     * Default constructor: keeps the 100 slowest events.
+     */
+    public SlowEventLog() {
+        this(100);
+    }
+
+    /**
+     * @param capacity the number of events to keep
+     */
+    public SlowEventLog(final int capacity) {
+        this.capacity = capacity;
+        this.traces = new PriorityQueue<>(capacity + 1, BY_TIME);
+    }
+
+    /**
+     * Keep a completed trace if it is among the slowest.
+     *
+     * @param trace the trace
+     */
+    public synchronized void offer(final EventTrace trace) {
+        if (traces.size() < capacity) {
+            traces.add(trace);
+        } else if (capacity > 0 && BY_TIME.compare(trace, traces.peek()) > 0) {
+            traces.poll();
+            traces.add(trace);
+        }
+    }
+
+    /**
+     * @return the traces kept, slowest first
+     */
+    public synchronized List<EventTrace> slowest() {
+        final List<EventTrace> slowest = new ArrayList<>(traces);
+        Collections.sort(slowest, Collections.reverseOrder(BY_TIME));
+        return slowest;
+    }
+
+    /**
+     * Forget all traces.
+     */
+    public synchronized void clear() {
+        traces.clear();
+    }
+}
@@ -0,0 +1,250 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static java.nio.channels.Channels.newChannel;
+import static java.nio.channels.Channels.newInputStream;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+
+/**
+ * Content read once from a stream and held so that it can be handed to any
+ * number of consumers, each reading through its own independent view.
+ * Content up to a threshold is held in a heap buffer of exactly its size, read
+ * through a buffer that starts small and grows as needed; larger content is
+ * spilled to a temporary file, from which {@link FileChannel#transferFrom} can
+ * copy it without passing through the Java heap.
+ * <p>
+ * Content must be {@link #close() closed} once all consumers are done with it,
+ * to delete its temporary file.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public final class SpooledContent implements Closeable {
+
+    private static final Logger LOGGER = getLogger(SpooledContent.class);
+
+    /**
+     * Default size (in bytes) of the largest content held in memory.
+     */
+    public static final int DEFAULT_THRESHOLD = 1024 * 1024;
+
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
+    private static final long TRANSFER_SIZE = 1024 * 1024;
+
+    private final ByteBuffer buffer;
+
+    private final Path file;
+
+    private final long size;
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private SpooledContent(final ByteBuffer buffer, final Path file, final long size) {
+        this.buffer = buffer;
+        this.file = file;
+        this.size = size;
+    }
+
+    /**
+     * Read a stream to its end and hold its content, in memory if it is no
+     * larger than the {@link #DEFAULT_THRESHOLD}. The stream is not closed.
+     *
+     * @param in the stream to spool
+     * @return the spooled content
+     * @throws IOException if the stream could not be read, or the temporary file written
+     */
+    public static SpooledContent spool(final InputStream in) throws IOException {
+        return spool(in, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Read a stream to its end and hold its content. The stream is not closed.
+     *
+     * @param in the stream to spool
+     * @param threshold the size (in bytes) of the largest content held in memory
+     * @return the spooled content
+     * @throws IOException if the stream could not be read, or the temporary file written
+     */
+    public static SpooledContent spool(final InputStream in, final int threshold) throws IOException {
+        byte[] bytes = new byte[Math.min(INITIAL_BUFFER_SIZE, threshold)];
+        int length = 0;
+        while (true) {
+            if (length == bytes.length) {
+                if (length >= threshold) {
+                    // only content that goes on past the threshold is spilled
+                    final int next = in.read();
+                    if (next < 0) {
+                        break;
+                    }
+                    return spill(bytes, length, next, in);
+                }
+                bytes = Arrays.copyOf(bytes, (int) Math.min(2L * length, threshold));
+            }
+            final int read = in.read(bytes, length, bytes.length - length);
+            if (read < 0) {
+                break;
+            }
+            length += read;
+        }
+        final byte[] content = length == bytes.length ? bytes : Arrays.copyOf(bytes, length);
+        return new SpooledContent(ByteBuffer.wrap(content), null, length);
+    }
+
+    /**
+     * The content does not fit in memory, so write what has been read so far
+     * and the rest of the source to a temporary file.
+     */
+    private static SpooledContent spill(final byte[] head, final int length, final int next, final InputStream in)
+            throws IOException {
+        final Path file = Files.createTempFile("fcrepo-indexer-", ".spool");
+        try (FileChannel out = FileChannel.open(file, WRITE)) {
+            final ByteBuffer read = ByteBuffer.wrap(head, 0, length);
+            while (read.hasRemaining()) {
+                out.write(read);
+            }
+            out.write(ByteBuffer.wrap(new byte[] { (byte) next }));
+            final ReadableByteChannel source = newChannel(in);
+            long position = out.position();
+            long transferred;
+            while ((transferred = out.transferFrom(source, position, TRANSFER_SIZE)) > 0) {
+                position += transferred;
+            }
+            LOGGER.debug("Spooled {} bytes to {}", position, file);
+            return new SpooledContent(null, file, position);
+        } catch (final IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * @return empty content
+     */
+    public static SpooledContent empty() {
+        return new SpooledContent(ByteBuffer.allocate(0), null, 0);
+    }
+
+    /**
+     * @return the length of the content in bytes
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return whether the content is held in memory rather than in a temporary file
+     */
+    public boolean inMemory() {
+        return buffer != null;
+    }
+
+    /**
+     * Open an independent view of the content as a channel, positioned at the
+     * start of the content. The caller is responsible for closing it.
+     *
+     * @return a channel over the content
+     * @throws IOException if the temporary file could not be opened
+     */
+    public ReadableByteChannel openChannel() throws IOException {
+        if (closed.get()) {
+            throw new IllegalStateException("Spooled content has already been released!");
+        }
+        if (buffer != null) {
+            return new BufferChannel(buffer.duplicate());
+        }
+        return FileChannel.open(file, READ);
+    }
+
+    /**
+     * Open an independent view of the content as a stream. The caller is
+     * responsible for closing it.
+     *
+     * @return a stream over the content
+     * @throws IOException if the temporary file could not be opened
+     */
+    public InputStream openStream() throws IOException {
+        return newInputStream(openChannel());
+    }
+
+    /**
+     * Release the content, deleting its temporary file if it has one. Views
+     * already open on a temporary file remain readable until they are closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed.compareAndSet(false, true) && file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * A channel reading from a private duplicate of the content buffer.
+     */
+    private static class BufferChannel implements ReadableByteChannel {
+
+        private final ByteBuffer view;
+
+        private boolean open = true;
+
+        BufferChannel(final ByteBuffer view) {
+            this.view = view;
+        }
+
+        @Override
+        public int read(final ByteBuffer dst) throws IOException {
+            if (!open) {
+                throw new ClosedChannelException();
+            }
+            if (!view.hasRemaining()) {
+                return -1;
+            }
+            final int n = Math.min(dst.remaining(), view.remaining());
+            final ByteBuffer slice = view.slice();
+            slice.limit(n);
+            dst.put(slice);
+            view.position(view.position() + n);
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+}
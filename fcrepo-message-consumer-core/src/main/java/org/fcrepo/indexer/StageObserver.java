@@ -0,0 +1,89 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import java.net.URI;
+
+/**
+ * Observes each stage of handling an event as it happens, on the thread doing
+ * the work, e.g. to emit profiling events. Implementations are found with
+ * {@link java.util.ServiceLoader}: list them in
+ * {@code META-INF/services/org.fcrepo.indexer.StageObserver} on the
+ * consumer's classpath. The consumer's own metrics and event traces are
+ * recorded by built-in observers. See {@link StageObservers}.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public interface StageObserver {
+
+    /**
+     * Stages of handling an event.
+     */
+    public static enum Stage {
+        /** Receipt of a message, up to dispatch to each indexer. */
+        RECEIVE,
+        /** A HEAD request for a resource. */
+        HEAD,
+        /** A GET request for a resource's RDF, including its parse when streamed. */
+        GET,
+        /** Parsing retrieved RDF. */
+        PARSE,
+        /** Retrieval of a resource's LDPath transform output. */
+        TRANSFORM,
+        /** Retrieval of a resource's jcr/xml export. */
+        EXPORT,
+        /** Execution of an indexer's update. */
+        UPDATE,
+        /** Execution of an indexer's removal. */
+        REMOVE
+    }
+
+    /**
+     * Begin a stage.
+     *
+     * @param stage the stage
+     * @param uri the resource
+     * @param source the indexer, for indexer stages, or null
+     * @return the span of the stage, which must be ended
+     */
+    Span begin(Stage stage, URI uri, String source);
+
+    /**
+     * A stage in progress.
+     */
+    public static interface Span {
+
+        /**
+         * @param count the number of bytes transferred in this stage
+         * @return this span
+         */
+        Span bytes(long count);
+
+        /**
+         * @param count the number of triples parsed in this stage
+         * @return this span
+         */
+        Span triples(long count);
+
+        /**
+         * End the stage.
+         *
+         * @param failed whether the stage failed
+         */
+        void end(boolean failed);
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+import org.fcrepo.indexer.StageObserver.Span;
+import org.fcrepo.indexer.StageObserver.Stage;
+import org.slf4j.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * The {@link StageObserver}s of every stage: the built-in
+ * {@link MetricsObserver} and {@link TraceObserver}, followed by any found on
+ * the classpath when this class is loaded. Each stage is begun once, here, and
+ * its span handed on to each observer.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public final class StageObservers {
+
+    private static final Logger LOGGER = getLogger(StageObservers.class);
+
+    /**
+     * A span that ignores everything, for observers not interested in a stage.
+     */
+    static final Span NONE = new Span() {
+
+        @Override
+        public Span bytes(final long count) {
+            return this;
+        }
+
+        @Override
+        public Span triples(final long count) {
+            return this;
+        }
+
+        @Override
+        public void end(final boolean failed) {
+            // nothing observed
+        }
+    };
+
+    private static final StageObserver[] BUILT_IN = { new MetricsObserver(), new TraceObserver() };
+
+    private static volatile StageObserver[] observers = withBuiltIns(load());
+
+    private StageObservers() {
+    }
+
+    private static StageObserver[] load() {
+        final List<StageObserver> found = new ArrayList<>();
+        try {
+            for (final StageObserver observer : ServiceLoader.load(StageObserver.class)) {
+                LOGGER.info("Observing indexing stages with {}", observer.getClass().getName());
+                found.add(observer);
+            }
+        } catch (final ServiceConfigurationError e) {
+            LOGGER.warn("Unable to load stage observers: {}", e.getMessage());
+        }
+        return found.toArray(new StageObserver[found.size()]);
+    }
+
+    private static StageObserver[] withBuiltIns(final StageObserver... others) {
+        final StageObserver[] all = new StageObserver[BUILT_IN.length + others.length];
+        System.arraycopy(BUILT_IN, 0, all, 0, BUILT_IN.length);
+        System.arraycopy(others, 0, all, BUILT_IN.length, others.length);
+        return all;
+    }
+
+    /**
+     * Begin a stage with every observer.
+     *
+     * @param stage the stage
+     * @param uri the resource
+     * @return the span of the stage, which must be ended
+     */
+    public static Span begin(final Stage stage, final URI uri) {
+        return begin(stage, uri, null);
+    }
+
+    /**
+     * Begin a stage with every observer.
+     *
+     * @param stage the stage
+     * @param uri the resource
+     * @param source the indexer, for indexer stages, or null
+     * @return the span of the stage, which must be ended
+     */
+    public static Span begin(final Stage stage, final URI uri, final String source) {
+        final StageObserver[] current = observers;
+        final Span[] spans = new Span[current.length];
+        for (int i = 0; i < current.length; i++) {
+            spans[i] = current[i].begin(stage, uri, source);
+        }
+        return new Span() {
+
+            @Override
+            public Span bytes(final long count) {
+                for (final Span span : spans) {
+                    span.bytes(count);
+                }
+                return this;
+            }
+
+            @Override
+            public Span triples(final long count) {
+                for (final Span span : spans) {
+                    span.triples(count);
+                }
+                return this;
+            }
+
+            @Override
+            public void end(final boolean failed) {
+                for (final Span span : spans) {
+                    span.end(failed);
+                }
+            }
+        };
+    }
+
+    /**
+     * Replace the observers found on the classpath. The built-in observers are kept.
+     *
+     * @param replacements the observers to use besides the built-in ones
+     */
+    @VisibleForTesting
+    static void set(final StageObserver... replacements) {
+        observers = withBuiltIns(replacements);
+    }
+}
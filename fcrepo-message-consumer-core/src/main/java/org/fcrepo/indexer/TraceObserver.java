@@ -0,0 +1,87 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static java.lang.System.nanoTime;
+import static org.fcrepo.indexer.StageObserver.Stage.PARSE;
+
+import java.net.URI;
+
+/**
+ * Adds each retrieval stage to the {@link EventTrace} of the event being
+ * handled on the thread beginning it, if any: how long it took, and the bytes
+ * and triples retrieved. Always observed, ahead of any observers found on the
+ * classpath.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+final class TraceObserver implements StageObserver {
+
+    @Override
+    public Span begin(final Stage stage, final URI uri, final String source) {
+        final String name = name(stage);
+        final EventTrace trace = EventTrace.current();
+        if (name == null || trace == null) {
+            return StageObservers.NONE;
+        }
+        final long start = nanoTime();
+        return new Span() {
+
+            @Override
+            public Span bytes(final long count) {
+                // the bytes parsed were already counted by the get
+                if (stage != PARSE) {
+                    trace.addBytes(count);
+                }
+                return this;
+            }
+
+            @Override
+            public Span triples(final long count) {
+                trace.addTriples(count);
+                return this;
+            }
+
+            @Override
+            public void end(final boolean failed) {
+                trace.addStage(name, nanoTime() - start);
+            }
+        };
+    }
+
+    /**
+     * @return the name of a retrieval stage in a trace, or null for a stage
+     *         traced otherwise, e.g. indexers' operations, which are traced
+     *         by their outcomes
+     */
+    private static String name(final Stage stage) {
+        switch (stage) {
+            case HEAD:
+                return "rdf-head";
+            case GET:
+                return "rdf-get";
+            case PARSE:
+                return "rdf-parse";
+            case TRANSFORM:
+                return "transform";
+            case EXPORT:
+                return "export";
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.net.URI;
+
+import org.slf4j.Logger;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Bounded cache of LDPath transform results, keyed by resource URI, transform
+ * key and the resource's ETag, so that unchanged resources are not transformed
+ * again by the repository. Cached {@link NamedFields} are immutable and may be
+ * shared between events. A result also depends on the LDPath program and on
+ * any other resources its paths read, neither of which changes the ETag, so
+ * results are only kept for a time to live.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class TransformCache {
+
+    private static final Logger LOGGER = getLogger(TransformCache.class);
+
+    /**
+     * Default maximum number of cached transform results.
+     */
+    public static final long DEFAULT_MAXIMUM_SIZE = 10000;
+
+    /**
+     * Default time (in milliseconds) for which a transform result is reused.
+     */
+    public static final long DEFAULT_TTL = 60000;
+
+    private final Cache<String, NamedFields> cache;
+
+    /**
+     * Default constructor.
+     */
+    public TransformCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * @param maximumSize the maximum number of transform results to retain
+     */
+    public TransformCache(final long maximumSize) {
+        this(maximumSize, DEFAULT_TTL);
+    }
+
+    /**
+     * @param maximumSize the maximum number of transform results to retain
+     * @param ttl the time (in milliseconds) for which a transform result is reused
+     */
+    public TransformCache(final long maximumSize, final long ttl) {
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl, MILLISECONDS)
+                .recordStats().build();
+    }
+
+    /**
+     * @param uri the transformed resource
+     * @param transformKey the LDPath transform key
+     * @param etag the resource's current ETag
+     * @return the cached result, or null if none is cached for this version
+     */
+    public NamedFields get(final URI uri, final String transformKey, final String etag) {
+        final NamedFields fields = cache.getIfPresent(key(uri, transformKey, etag));
+        LOGGER.debug("Transform cache {} for: {} with ETag: {}", fields == null ? "miss" : "hit", uri, etag);
+        return fields;
+    }
+
+    /**
+     * @param uri the transformed resource
+     * @param transformKey the LDPath transform key
+     * @param etag the resource's ETag when it was transformed
+     * @param fields the transform result
+     */
+    public void put(final URI uri, final String transformKey, final String etag, final NamedFields fields) {
+        cache.put(key(uri, transformKey, etag), fields);
+    }
+
+    /**
+     * @return hit and miss statistics for this cache
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static String key(final URI uri, final String transformKey, final String etag) {
+        return uri + " " + transformKey + " " + etag;
+    }
+}
@@ -15,22 +15,37 @@
  */
 package org.fcrepo.indexer.persistence;
 
+import static com.google.common.hash.Hashing.murmur3_128;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.commons.lang3.StringUtils.substringAfterLast;
+import static org.fcrepo.indexer.StageObserver.Stage.REMOVE;
+import static org.fcrepo.indexer.StageObserver.Stage.UPDATE;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URLEncoder;
 import java.net.URI;
 import java.nio.file.Files;
-import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+import net.jpountz.lz4.LZ4BlockOutputStream;
 
 import org.apache.commons.lang3.StringUtils;
+import org.fcrepo.indexer.StageObserver.Stage;
 import org.fcrepo.indexer.SynchIndexer;
+import org.fcrepo.indexer.persistence.GroupCommitWriter.FileContent;
 import org.slf4j.Logger;
 
+import com.google.common.util.concurrent.ListenableFuture;
+
 /**
  * Base indexer class to extend for persisting various forms of metadata to disk.
  * @author ajs6f
@@ -38,13 +53,97 @@ import org.slf4j.Logger;
  * @author lsitu
  * @since 2014-10-20
 **/
-public abstract class BasePersistenceIndexer<Content, File> extends SynchIndexer<Content, File> {
+public abstract class BasePersistenceIndexer<Content> extends SynchIndexer<Content, File> {
 
     private static final Logger LOGGER = getLogger(BasePersistenceIndexer.class);
 
+    /**
+     * How persisted files are arranged under the base directory.
+     */
+    public static enum Layout {
+        /**
+         * Mirror the repository hierarchy: one directory per container.
+         */
+        HIERARCHICAL,
+        /**
+         * Spread files over a fixed-depth tree of directories chosen by a hash
+         * of the record's URI, so no directory grows beyond a bounded size.
+         */
+        SHARDED
+    }
+
+    /**
+     * Streaming compression applied to persisted records.
+     */
+    public static enum Compression {
+        /**
+         * No compression: records are written as they are.
+         */
+        NONE(""),
+        /**
+         * Gzip format: widely readable, at a higher cost in CPU time.
+         */
+        GZIP(".gz"),
+        /**
+         * LZ4 block format: much faster than gzip, at a somewhat lower ratio.
+         */
+        LZ4(".lz4");
+
+        private static final int BUFFER_SIZE = 64 * 1024;
+
+        private final String extension;
+
+        Compression(final String extension) {
+            this.extension = extension;
+        }
+
+        /**
+         * @return the suffix appended to file names written with this compression
+         */
+        public String extension() {
+            return extension;
+        }
+
+        /**
+         * @param out the stream to write compressed content to
+         * @return a stream compressing what is written to it; closing it closes {@code out}
+         * @throws IOException if the compressed stream could not be started
+         */
+        public OutputStream wrap(final OutputStream out) throws IOException {
+            switch (this) {
+                case GZIP:
+                    return new GZIPOutputStream(out, BUFFER_SIZE);
+                case LZ4:
+                    return new LZ4BlockOutputStream(out, BUFFER_SIZE);
+                default:
+                    return out;
+            }
+        }
+    }
+
+    /**
+     * Longest encoded file name used in the sharded layout; longer names are
+     * replaced by a hash of the URI.
+     */
+    private static final int MAX_FILE_NAME = 200;
+
+    /**
+     * Bound on the number of directories remembered as existing.
+     */
+    private static final int MAX_KNOWN_DIRECTORIES = 100000;
+
     private final String pathName;
     private final String extension;
 
+    private Layout layout = Layout.HIERARCHICAL;
+    private int shardDepth = 2;
+    private Compression compression = Compression.NONE;
+
+    private SegmentedArchive archive;
+    private GroupCommitWriter writer;
+
+    private final Set<Path> knownDirectories = Collections.newSetFromMap(new ConcurrentHashMap<Path, Boolean>());
+
     /**
      * Constructor.
      * @param pathName Base directory for persisting files.
@@ -55,6 +154,108 @@ public abstract class BasePersistenceIndexer<Content, File> extends SynchIndexer
         this.extension = extension;
     }
 
+    /**
+     * @param layout how persisted files are arranged, {@link Layout#HIERARCHICAL} by default
+     */
+    public void setLayout(final Layout layout) {
+        this.layout = layout;
+    }
+
+    /**
+     * @param shardDepth number of directory levels in the {@link Layout#SHARDED}
+     *        layout, each with up to 256 entries (default 2)
+     */
+    public void setShardDepth(final int shardDepth) {
+        if (shardDepth < 1 || shardDepth > 8) {
+            throw new IllegalArgumentException("Shard depth must be between 1 and 8!");
+        }
+        this.shardDepth = shardDepth;
+    }
+
+    /**
+     * @param compression compression applied to persisted records, {@link Compression#NONE} by default;
+     *        its extension is appended to file names
+     */
+    public void setCompression(final Compression compression) {
+        this.compression = compression;
+    }
+
+    /**
+     * @return the compression applied to persisted records
+     */
+    protected Compression compression() {
+        return compression;
+    }
+
+    /**
+     * Records appended to an archive are not streamed into it, since each
+     * record's length is written before its content: RDF, and jcr/xml when
+     * compressed, is serialized into memory in full before it is appended.
+     * Use files instead of an archive where records may be too large to hold
+     * in memory.
+     * @param archive if set, records are appended to this archive instead of
+     *        being written to one file each
+     */
+    public void setArchive(final SegmentedArchive archive) {
+        this.archive = archive;
+    }
+
+    /**
+     * @return the archive records are appended to, or null if each record is written to its own file
+     */
+    protected SegmentedArchive archive() {
+        return archive;
+    }
+
+    /**
+     * @param writer if set, files are written by this writer, off the calling
+     *        thread, atomically and durably; ignored when an archive is set
+     */
+    public void setWriter(final GroupCommitWriter writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public ListenableFuture<File> update(final URI id, final Content content) throws IOException {
+        if (writer == null || archive != null) {
+            return super.update(id, content);
+        }
+        return write(id, content, UPDATE);
+    }
+
+    @Override
+    public ListenableFuture<File> remove(final URI id) throws IOException {
+        if (writer == null || archive != null) {
+            return super.remove(id);
+        }
+        return write(id, removalContent(), REMOVE);
+    }
+
+    private ListenableFuture<File> write(final URI id, final Content content, final Stage stage) {
+        if (id.toString().endsWith("/")) {
+            throw new IllegalArgumentException("Identifiers for use with this indexer may not end in '/'!");
+        }
+        LOGGER.debug("Issuing write of {} to writer", id);
+        return measured(stage, id, new Callable<ListenableFuture<File>>() {
+
+            @Override
+            public ListenableFuture<File> call() throws IOException {
+                return writer.write(pathFor(id), fileContent(content));
+            }
+        });
+    }
+
+    /**
+     * @param content a record's content
+     * @return writes the content to a file, applying the configured compression
+     */
+    protected abstract FileContent fileContent(final Content content);
+
+    /**
+     * @return the content written to a record's file when it is removed
+     */
+    protected abstract Content removalContent();
+
     /**
      * Return the path where a given record should be persisted.
      * @param id The record's URI
@@ -62,6 +263,12 @@ public abstract class BasePersistenceIndexer<Content, File> extends SynchIndexer
      * @throws IOException if IO exception occurred
     **/
     protected Path pathFor(final URI id) throws IOException {
+        final Path path = layout == Layout.SHARDED ? shardedPathFor(id) : hierarchicalPathFor(id);
+        ensureDirectory(path.getParent());
+        return path;
+    }
+
+    private Path hierarchicalPathFor(final URI id) throws IOException {
 
         // strip the http protocol and replace column(:) in front of the port number
         String fullPath = id.toString().substring(id.toString().indexOf("//") + 2);
@@ -81,10 +288,31 @@ public abstract class BasePersistenceIndexer<Content, File> extends SynchIndexer
 
         fullPath = pathBuilder.substring(0, pathBuilder.length() - 1).toString();
 
-        final Path dir = Paths.get(pathName, fullPath);
-        if (Files.notExists(dir, LinkOption.NOFOLLOW_LINKS)) {
-            Files.createDirectories(Paths.get(pathName, fullPath));
+        return Paths.get(pathName, fullPath, idPath + extension + compression.extension());
+    }
+
+    private Path shardedPathFor(final URI id) throws IOException {
+        final String hash = murmur3_128().hashString(id.toString(), UTF_8).toString();
+        final String[] shards = new String[shardDepth];
+        for (int i = 0; i < shardDepth; i++) {
+            shards[i] = hash.substring(2 * i, 2 * i + 2);
+        }
+        final String encoded = URLEncoder.encode(id.toString(), "UTF-8");
+        final String name = encoded.length() <= MAX_FILE_NAME ? encoded : hash;
+        return Paths.get(pathName, shards).resolve(name + extension + compression.extension());
+    }
+
+    /**
+     * Create a directory unless it is already known to exist. Directories are
+     * assumed not to be removed while the indexer is running.
+     */
+    private void ensureDirectory(final Path dir) throws IOException {
+        if (!knownDirectories.contains(dir)) {
+            Files.createDirectories(dir);
+            if (knownDirectories.size() >= MAX_KNOWN_DIRECTORIES) {
+                knownDirectories.clear();
+            }
+            knownDirectories.add(dir);
         }
-        return Paths.get(dir.toString(), idPath + extension);
     }
 }
@@ -0,0 +1,337 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.persistence;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.UUID.randomUUID;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.slf4j.Logger;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Writes files for the persistence indexers off the message listener thread.
+ * <p>
+ * Each file is written to a temporary file beside its target, and forced to
+ * disk, by one of a fixed number of writer threads; writes to the same target
+ * always go to the same thread, so they complete in the order they were
+ * issued. A single commit thread then collects finished files into batches
+ * (group commit): each file in a batch is atomically renamed over its target,
+ * and each directory touched by the batch is forced once. The future
+ * returned for a write completes only after its batch is durable. When the
+ * writer threads' queues are full, callers block, which applies back-pressure
+ * to the message listener.
+ * <p>
+ * Temporary files left behind by an earlier process, e.g. one that crashed
+ * between writing and renaming a file, are deleted from each directory the
+ * first time it is written to.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class GroupCommitWriter implements Closeable {
+
+    private static final Logger LOGGER = getLogger(GroupCommitWriter.class);
+
+    private static final String TEMP_PREFIX = ".tmp-";
+
+    private static final String TEMP_SUFFIX = ".part";
+
+    /**
+     * Bound on the number of directories remembered as swept of stale temporary files.
+     */
+    private static final int MAX_SWEPT_DIRECTORIES = 100000;
+
+    /**
+     * Writes the content of a file.
+     */
+    public static interface FileContent {
+
+        /**
+         * @param file the file to write, which already exists and is empty
+         * @throws IOException if the content could not be written
+         */
+        void writeTo(Path file) throws IOException;
+    }
+
+    private final ThreadPoolExecutor[] writers;
+
+    private final BlockingQueue<Pending> commits = new LinkedBlockingQueue<>();
+
+    private final Thread committer;
+
+    private final long commitInterval;
+
+    private final int maxBatch;
+
+    private volatile boolean running = true;
+
+    private final Set<Path> swept = Collections.newSetFromMap(new ConcurrentHashMap<Path, Boolean>());
+
+    /**
+     * Temporary files being written or awaiting commit, which are not stale.
+     */
+    private final Set<Path> inFlight = Collections.newSetFromMap(new ConcurrentHashMap<Path, Boolean>());
+
+    /**
+     * Default constructor: 4 writer threads, each queueing up to 256 writes,
+     * committing at least every 10ms in batches of up to 512 files.
+     */
+    public GroupCommitWriter() {
+        this(4, 256, 10, 512);
+    }
+
+    /**
+     * @param parallelism the number of writer threads
+     * @param queueCapacity the number of writes each writer thread queues before callers block
+     * @param commitInterval the longest (in milliseconds) a finished file waits for its batch to fill
+     * @param maxBatch the largest number of files committed together
+     */
+    public GroupCommitWriter(final int parallelism, final int queueCapacity, final long commitInterval,
+            final int maxBatch) {
+        this.commitInterval = commitInterval;
+        this.maxBatch = maxBatch;
+        final ThreadFactory threads = new ThreadFactoryBuilder()
+                .setNameFormat("persistence-writer-%d").setDaemon(true).build();
+        final RejectedExecutionHandler block = new RejectedExecutionHandler() {
+
+            @Override
+            public void rejectedExecution(final Runnable task, final ThreadPoolExecutor executor) {
+                if (executor.isShutdown()) {
+                    throw new RejectedExecutionException("Writer has been closed!");
+                }
+                try {
+                    executor.getQueue().put(task);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RejectedExecutionException(e);
+                }
+            }
+        };
+        writers = new ThreadPoolExecutor[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            writers[i] = new ThreadPoolExecutor(1, 1, 0, MILLISECONDS,
+                    new ArrayBlockingQueue<Runnable>(queueCapacity), threads, block);
+        }
+        committer = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                commitLoop();
+            }
+        }, "persistence-committer");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    /**
+     * Write a file.
+     *
+     * @param target the file to write
+     * @param content writes the file's content
+     * @return the file, once its content is durable
+     */
+    public ListenableFuture<File> write(final Path target, final FileContent content) {
+        final SettableFuture<File> result = SettableFuture.create();
+        writerFor(target).execute(new Runnable() {
+
+            @Override
+            public void run() {
+                Path temp = null;
+                try {
+                    sweep(target.getParent());
+                    temp = target.resolveSibling(TEMP_PREFIX + randomUUID() + TEMP_SUFFIX);
+                    inFlight.add(temp);
+                    // created with default permissions, unlike Files.createTempFile
+                    Files.createFile(temp);
+                    content.writeTo(temp);
+                    // forced here, so that the writer threads force files in parallel
+                    try (FileChannel channel = FileChannel.open(temp, WRITE)) {
+                        channel.force(true);
+                    }
+                    commits.put(new Pending(temp, target, result));
+                } catch (final IOException | RuntimeException e) {
+                    discard(temp);
+                    result.setException(e);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    discard(temp);
+                    result.setException(e);
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Finish all issued writes and stop the writer and commit threads.
+     */
+    @Override
+    public void close() throws IOException {
+        for (final ThreadPoolExecutor writer : writers) {
+            writer.shutdown();
+        }
+        try {
+            for (final ThreadPoolExecutor writer : writers) {
+                writer.awaitTermination(1, MINUTES);
+            }
+            running = false;
+            committer.join(MINUTES.toMillis(1));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Delete the temporary files in a directory that no write of this writer
+     * is using, the first time the directory is written to.
+     */
+    private void sweep(final Path directory) {
+        if (directory == null || swept.contains(directory)) {
+            return;
+        }
+        if (swept.size() >= MAX_SWEPT_DIRECTORIES) {
+            swept.clear();
+        }
+        swept.add(directory);
+        try (DirectoryStream<Path> temps = Files.newDirectoryStream(directory, TEMP_PREFIX + "*" + TEMP_SUFFIX)) {
+            for (final Path temp : temps) {
+                if (!inFlight.contains(temp)) {
+                    LOGGER.info("Deleting stale temporary file {}", temp);
+                    Files.deleteIfExists(temp);
+                }
+            }
+        } catch (final IOException e) {
+            LOGGER.warn("Unable to sweep temporary files from {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private ThreadPoolExecutor writerFor(final Path target) {
+        return writers[(target.hashCode() & Integer.MAX_VALUE) % writers.length];
+    }
+
+    private void commitLoop() {
+        final List<Pending> batch = new ArrayList<>(maxBatch);
+        while (running || !commits.isEmpty()) {
+            try {
+                final Pending first = commits.poll(100, MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                final long deadline = System.nanoTime() + MILLISECONDS.toNanos(commitInterval);
+                while (batch.size() < maxBatch) {
+                    final Pending next = commits.poll(deadline - System.nanoTime(), NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (final InterruptedException e) {
+                LOGGER.warn("Commit thread interrupted with {} files pending", commits.size());
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(final List<Pending> batch) {
+        LOGGER.debug("Committing {} files", batch.size());
+        final Set<Path> directories = new LinkedHashSet<>();
+        for (final Pending pending : batch) {
+            try {
+                Files.move(pending.temp, pending.target, ATOMIC_MOVE, REPLACE_EXISTING);
+                inFlight.remove(pending.temp);
+                directories.add(pending.target.getParent());
+            } catch (final IOException | RuntimeException e) {
+                discard(pending.temp);
+                pending.result.setException(e);
+            }
+        }
+        for (final Path directory : directories) {
+            try (FileChannel channel = FileChannel.open(directory, READ)) {
+                channel.force(true);
+            } catch (final IOException e) {
+                // not every platform allows directories to be opened and forced
+                LOGGER.trace("Unable to force directory {}: {}", directory, e.getMessage());
+            }
+        }
+        for (final Pending pending : batch) {
+            pending.result.set(pending.target.toFile());
+        }
+    }
+
+    private void discard(final Path temp) {
+        if (temp != null) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (final IOException e) {
+                LOGGER.warn("Unable to delete temporary file {}: {}", temp, e.getMessage());
+            }
+            inFlight.remove(temp);
+        }
+    }
+
+    /**
+     * A written file awaiting commit.
+     */
+    private static class Pending {
+
+        private final Path temp;
+
+        private final Path target;
+
+        private final SettableFuture<File> result;
+
+        Pending(final Path temp, final Path target, final SettableFuture<File> result) {
+            this.temp = temp;
+            this.target = target;
+            this.result = result;
+        }
+    }
+}
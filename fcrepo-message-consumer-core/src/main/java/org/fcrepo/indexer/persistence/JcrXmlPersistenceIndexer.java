@@ -15,19 +15,29 @@
  */
 package org.fcrepo.indexer.persistence;
 
+import static com.google.common.io.ByteStreams.copy;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
 import static org.fcrepo.indexer.Indexer.IndexerType.JCRXML_PERSISTENCE;
+import static org.fcrepo.indexer.persistence.BasePersistenceIndexer.Compression.NONE;
 import static org.slf4j.LoggerFactory.getLogger;
 
-import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
-import java.nio.file.CopyOption;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.concurrent.Callable;
 
+import org.fcrepo.indexer.SpooledContent;
+import org.fcrepo.indexer.persistence.GroupCommitWriter.FileContent;
 import org.slf4j.Logger;
 
 /**
@@ -37,7 +47,7 @@ import org.slf4j.Logger;
  * @since Aug 19, 2013
  * @author lsitu
 **/
-public class JcrXmlPersistenceIndexer extends BasePersistenceIndexer<InputStream, File> {
+public class JcrXmlPersistenceIndexer extends BasePersistenceIndexer<SpooledContent> {
 
     private static final Logger LOGGER = getLogger(JcrXmlPersistenceIndexer.class);
 
@@ -52,11 +62,12 @@ public class JcrXmlPersistenceIndexer extends BasePersistenceIndexer<InputStream
     /**
      * Create/update an index entry for the object.
      * @param id The object's URI
-     * @param content InputStream containing JCR/XML content
+     * @param content spooled JCR/XML content, which is read through its own
+     *        view and so may be shared with other indexers
      * @return The file where the content was written.
     **/
     @Override
-    public Callable<File> updateSynch(final URI id, final InputStream content) {
+    public Callable<File> updateSynch(final URI id, final SpooledContent content) {
         if (id.toString().endsWith("/")) {
             throw new IllegalArgumentException("Identifiers for use with this indexer may not end in '/'!");
         }
@@ -64,23 +75,75 @@ public class JcrXmlPersistenceIndexer extends BasePersistenceIndexer<InputStream
         return new Callable<File>() {
             @Override
             public File call() throws IOException {
+                if (archive() != null) {
+                    LOGGER.debug("Appending {} to archive", id);
+                    if (compression() != NONE) {
+                        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                        try (InputStream in = content.openStream();
+                                OutputStream out = compression().wrap(compressed)) {
+                            copy(in, out);
+                        }
+                        return archive().put(id.toString(), ByteBuffer.wrap(compressed.toByteArray())).toFile();
+                    }
+                    try (ReadableByteChannel in = content.openChannel()) {
+                        return archive().put(id.toString(), in, content.size()).toFile();
+                    }
+                }
                 final Path p = pathFor(id);
                 LOGGER.debug("Updating {} to file: {}", id, p.toAbsolutePath().toString());
-                Files.copy(content, p, new CopyOption[]{});
+                fileContent(content).writeTo(p);
                 return p.toFile();
             }
         };
     }
 
+    @Override
+    protected FileContent fileContent(final SpooledContent content) {
+        return new FileContent() {
+            @Override
+            public void writeTo(final Path p) throws IOException {
+                if (compression() != NONE) {
+                    try (InputStream in = content.openStream();
+                            OutputStream out = compression().wrap(Files.newOutputStream(p))) {
+                        copy(in, out);
+                    }
+                    return;
+                }
+                try (FileChannel out = FileChannel.open(p, CREATE, WRITE, TRUNCATE_EXISTING);
+                        ReadableByteChannel in = content.openChannel()) {
+                    final long size = content.size();
+                    long position = 0;
+                    long transferred;
+                    while (position < size && (transferred = out.transferFrom(in, position, size - position)) > 0) {
+                        position += transferred;
+                    }
+                }
+            }
+        };
+    }
+
+    @Override
+    protected SpooledContent removalContent() {
+        return SpooledContent.empty();
+    }
+
     /**
      * Remove the object from the file system.
      * @param id The object's URI
     **/
     @Override
     public Callable<File> removeSynch(final URI id) {
-        // empty update
         LOGGER.debug("Received remove for identifier: {}", id);
-        return updateSynch(id, new ByteArrayInputStream("".getBytes()));
+        if (archive() != null) {
+            return new Callable<File>() {
+                @Override
+                public File call() throws IOException {
+                    return archive().remove(id.toString()).toFile();
+                }
+            };
+        }
+        // empty update
+        return updateSynch(id, removalContent());
     }
 
     @Override
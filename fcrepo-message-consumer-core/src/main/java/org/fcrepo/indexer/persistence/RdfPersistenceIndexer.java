@@ -19,16 +19,20 @@ import static com.hp.hpl.jena.rdf.model.ModelFactory.createDefaultModel;
 import static org.fcrepo.indexer.Indexer.IndexerType.RDF;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import java.io.ByteArrayOutputStream;
 import java.io.FileOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.util.concurrent.Callable;
 
 import com.hp.hpl.jena.rdf.model.Model;
 
 import org.fcrepo.indexer.Indexer.IndexerType;
+import org.fcrepo.indexer.persistence.GroupCommitWriter.FileContent;
 import org.slf4j.Logger;
 
 /**
@@ -38,7 +42,7 @@ import org.slf4j.Logger;
  * @author lsitu
  * @since 2014-10-20
 **/
-public class RdfPersistenceIndexer extends BasePersistenceIndexer<Model, File> {
+public class RdfPersistenceIndexer extends BasePersistenceIndexer<Model> {
 
     private static final Logger LOGGER = getLogger(RdfPersistenceIndexer.class);
 
@@ -93,23 +97,55 @@ public class RdfPersistenceIndexer extends BasePersistenceIndexer<Model, File> {
         return new Callable<File>() {
             @Override
             public File call() throws IOException {
+                if (archive() != null) {
+                    LOGGER.debug("Appending {} to archive", id);
+                    final ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+                    try (OutputStream out = compression().wrap(serialized)) {
+                        model.write(out, rdfLang.toString());
+                    }
+                    return archive().put(id.toString(), ByteBuffer.wrap(serialized.toByteArray())).toFile();
+                }
                 final Path p = pathFor(id);
-                final FileOutputStream out = new FileOutputStream(p.toFile());
                 LOGGER.debug("Updating {} to file: {}", id, p.toAbsolutePath().toString());
-                model.write(out, rdfLang.toString());
+                fileContent(model).writeTo(p);
                 return p.toFile();
             }
         };
     }
 
+    @Override
+    protected FileContent fileContent(final Model model) {
+        return new FileContent() {
+            @Override
+            public void writeTo(final Path p) throws IOException {
+                try (OutputStream out = compression().wrap(new FileOutputStream(p.toFile()))) {
+                    model.write(out, rdfLang.toString());
+                }
+            }
+        };
+    }
+
+    @Override
+    protected Model removalContent() {
+        return createDefaultModel();
+    }
+
     /**
      * Remove the record.
      * @param id the record's URI
     **/
     @Override
     public Callable<File> removeSynch(final URI id) {
-        // empty update
         LOGGER.debug("Received remove for identifier: {}", id);
-        return updateSynch(id, createDefaultModel());
+        if (archive() != null) {
+            return new Callable<File>() {
+                @Override
+                public File call() throws IOException {
+                    return archive().remove(id.toString()).toFile();
+                }
+            };
+        }
+        // empty update
+        return updateSynch(id, removalContent());
     }
 }
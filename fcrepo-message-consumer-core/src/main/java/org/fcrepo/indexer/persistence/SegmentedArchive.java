@@ -0,0 +1,741 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.persistence;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+
+/**
+ * An append-only store of records keyed by resource URI, used by the
+ * persistence indexers in place of one file per resource. Records are
+ * appended to a rolling series of segment files, and an in-memory index maps
+ * each key to the offset of its latest record. Removals append a tombstone.
+ * <p>
+ * Once the proportion of superseded and removed bytes in the sealed (no
+ * longer written) segments passes a threshold, they are compacted in the
+ * background: live records are copied into fresh segments and the old ones
+ * deleted. Each record carries a sequence number, so the index can be rebuilt
+ * from the segments alone when the archive is reopened; a partially written
+ * record at the end of a segment is discarded.
+ * <p>
+ * Record layout: magic (int), key length (int), sequence (long), value length
+ * (long, -1 for a tombstone), key (UTF-8), value.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class SegmentedArchive implements Closeable {
+
+    private static final Logger LOGGER = getLogger(SegmentedArchive.class);
+
+    /**
+     * Default size (in bytes) at which the active segment is sealed and a new one started.
+     */
+    public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * Default proportion of dead bytes in sealed segments that triggers compaction.
+     */
+    public static final double DEFAULT_COMPACTION_THRESHOLD = 0.5;
+
+    private static final int MAGIC = 0xFC4EA2C1;
+
+    private static final int HEADER_SIZE = 24;
+
+    private static final int MAX_KEY_LENGTH = 0xFFFF;
+
+    private static final long TOMBSTONE = -1;
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+
+    private final long segmentSize;
+
+    private final double compactionThreshold;
+
+    private final NavigableMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+
+    private final ConcurrentMap<String, Location> index = new ConcurrentHashMap<>();
+
+    /**
+     * Held for reading by anything that reads or appends to a segment, and
+     * for writing while compacted segments are deleted.
+     */
+    private final ReadWriteLock segmentLock = new ReentrantReadWriteLock();
+
+    private final Object appendLock = new Object();
+
+    private final ExecutorService compactor = newSingleThreadExecutor();
+
+    private final AtomicBoolean compactionPending = new AtomicBoolean();
+
+    private volatile Segment active;
+
+    private int nextSegmentId;
+
+    private long nextSequence;
+
+    /**
+     * @param directory the directory holding the segment files
+     * @throws IOException if the archive could not be opened
+     */
+    public SegmentedArchive(final String directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * @param directory the directory holding the segment files
+     * @param segmentSize size (in bytes) at which segments are sealed
+     * @param compactionThreshold proportion of dead bytes in sealed segments
+     *        (between 0 and 1) that triggers compaction
+     * @throws IOException if the archive could not be opened
+     */
+    public SegmentedArchive(final String directory, final long segmentSize, final double compactionThreshold)
+            throws IOException {
+        this.directory = Paths.get(directory);
+        this.segmentSize = segmentSize;
+        this.compactionThreshold = compactionThreshold;
+        Files.createDirectories(this.directory);
+        recover();
+        synchronized (appendLock) {
+            active = createSegment();
+        }
+    }
+
+    /**
+     * Append a record.
+     *
+     * @param key the record's key
+     * @param value the record's content
+     * @return the segment file holding the record
+     * @throws IOException if the record could not be written
+     */
+    public Path put(final String key, final ByteBuffer value) throws IOException {
+        final ByteBuffer content = value.duplicate();
+        return put(key, new ReadableByteChannel() {
+
+            @Override
+            public int read(final ByteBuffer dst) {
+                if (!content.hasRemaining()) {
+                    return -1;
+                }
+                final int n = Math.min(dst.remaining(), content.remaining());
+                final ByteBuffer slice = content.slice();
+                slice.limit(n);
+                dst.put(slice);
+                content.position(content.position() + n);
+                return n;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+                // nothing to release
+            }
+        }, content.remaining());
+    }
+
+    /**
+     * Append a record, copying its content from a channel.
+     *
+     * @param key the record's key
+     * @param value a channel supplying the record's content
+     * @param length the number of bytes to read from the channel
+     * @return the segment file holding the record
+     * @throws IOException if the record could not be written
+     */
+    public Path put(final String key, final ReadableByteChannel value, final long length) throws IOException {
+        return append(key, value, length);
+    }
+
+    /**
+     * Append a tombstone for a key.
+     *
+     * @param key the key to remove
+     * @return the segment file holding the tombstone
+     * @throws IOException if the tombstone could not be written
+     */
+    public Path remove(final String key) throws IOException {
+        return append(key, null, TOMBSTONE);
+    }
+
+    /**
+     * @param key a record key
+     * @return whether a live record exists for the key
+     */
+    public boolean contains(final String key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * @return the number of live records
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * @return the number of segment files
+     */
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Read the latest content for a key.
+     *
+     * @param key the record key
+     * @return the content, or null if there is no live record for the key
+     * @throws IOException if the record could not be read
+     */
+    public byte[] get(final String key) throws IOException {
+        segmentLock.readLock().lock();
+        try {
+            final Location location = index.get(key);
+            if (location == null) {
+                return null;
+            }
+            final ByteBuffer value = ByteBuffer.allocate((int) location.valueLength);
+            readFully(segments.get(location.segment).channel, value, location.valuePosition());
+            return value.array();
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visit every live record, reading the segments sequentially.
+     *
+     * @param visitor the visitor
+     * @throws IOException if a record could not be read
+     */
+    public void export(final RecordVisitor visitor) throws IOException {
+        final List<Map.Entry<String, Location>> live = new ArrayList<>(index.entrySet());
+        Collections.sort(live, new Comparator<Map.Entry<String, Location>>() {
+
+            @Override
+            public int compare(final Map.Entry<String, Location> a, final Map.Entry<String, Location> b) {
+                final int bySegment = Integer.compare(a.getValue().segment, b.getValue().segment);
+                return bySegment != 0 ? bySegment : Long.compare(a.getValue().offset, b.getValue().offset);
+            }
+        });
+        segmentLock.readLock().lock();
+        try {
+            for (final Map.Entry<String, Location> entry : live) {
+                final Location location = entry.getValue();
+                final Segment segment = segments.get(location.segment);
+                if (segment == null) {
+                    // compacted away since the snapshot was taken
+                    final byte[] current = get(entry.getKey());
+                    if (current != null) {
+                        visitor.visit(entry.getKey(), new ByteArrayInputStream(current), current.length);
+                    }
+                    continue;
+                }
+                try (InputStream value = Channels.newInputStream(
+                        new SegmentChannel(segment.channel, location.valuePosition(), location.valueLength))) {
+                    visitor.visit(entry.getKey(), value, location.valueLength);
+                }
+            }
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrite all sealed segments, keeping only live records.
+     *
+     * @throws IOException if compaction failed
+     */
+    public void compact() throws IOException {
+        synchronized (compactor) {
+            final List<Segment> victims = new ArrayList<>();
+            synchronized (appendLock) {
+                for (final Segment segment : segments.values()) {
+                    if (segment != active) {
+                        victims.add(segment);
+                    }
+                }
+            }
+            if (victims.isEmpty()) {
+                return;
+            }
+            final Map<Integer, Segment> victimIds = new HashMap<>();
+            for (final Segment segment : victims) {
+                victimIds.put(segment.id, segment);
+            }
+            LOGGER.debug("Compacting {} segments in {}", victims.size(), directory);
+            Segment output = null;
+            for (final Map.Entry<String, Location> entry : index.entrySet()) {
+                final Location old = entry.getValue();
+                final Segment source = victimIds.get(old.segment);
+                if (source == null) {
+                    continue;
+                }
+                if (output == null) {
+                    synchronized (appendLock) {
+                        output = createSegment();
+                    }
+                }
+                final Location copied = copy(source, old, output);
+                if (index.replace(entry.getKey(), old, copied)) {
+                    output.live.addAndGet(copied.size());
+                }
+                if (output.size >= segmentSize) {
+                    output.channel.force(false);
+                    output = null;
+                }
+            }
+            if (output != null) {
+                output.channel.force(false);
+            }
+            segmentLock.writeLock().lock();
+            try {
+                for (final Segment segment : victims) {
+                    segments.remove(segment.id);
+                    segment.channel.close();
+                    Files.deleteIfExists(segment.path);
+                }
+            } finally {
+                segmentLock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Force all appended records to disk.
+     *
+     * @throws IOException if the active segment could not be forced
+     */
+    public void flush() throws IOException {
+        synchronized (appendLock) {
+            active.channel.force(false);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(1, MINUTES);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (compactor) {
+            flush();
+            for (final Segment segment : segments.values()) {
+                segment.channel.close();
+            }
+        }
+    }
+
+    private Path append(final String key, final ReadableByteChannel value, final long length) throws IOException {
+        final byte[] keyBytes = key.getBytes(UTF_8);
+        if (keyBytes.length == 0 || keyBytes.length > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Record keys must be between 1 and " + MAX_KEY_LENGTH + " bytes!");
+        }
+        final Path written;
+        boolean sealed = false;
+        segmentLock.readLock().lock();
+        try {
+            synchronized (appendLock) {
+                final Segment segment = active;
+                final long offset = segment.size;
+                final ByteBuffer header = header(keyBytes, nextSequence++, length);
+                try {
+                    writeFully(segment.channel, header, offset);
+                    if (value != null) {
+                        transferFully(segment.channel, value, offset + header.capacity(), length);
+                    }
+                } catch (final IOException e) {
+                    segment.channel.truncate(offset);
+                    throw e;
+                }
+                final Location location = new Location(segment.id, offset, keyBytes.length, length);
+                segment.size += location.size();
+                final Location previous = value == null ? index.remove(key) : index.put(key, location);
+                if (value != null) {
+                    segment.live.addAndGet(location.size());
+                }
+                if (previous != null) {
+                    final Segment old = segments.get(previous.segment);
+                    if (old != null) {
+                        old.live.addAndGet(-previous.size());
+                    }
+                }
+                written = segment.path;
+                if (segment.size >= segmentSize) {
+                    segment.channel.force(false);
+                    active = createSegment();
+                    sealed = true;
+                }
+            }
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+        if (sealed) {
+            scheduleCompactionIfNeeded();
+        }
+        return written;
+    }
+
+    private void scheduleCompactionIfNeeded() {
+        long total = 0;
+        long live = 0;
+        for (final Segment segment : segments.values()) {
+            if (segment != active) {
+                total += segment.size;
+                live += segment.live.get();
+            }
+        }
+        if (total > 0 && 1.0 - (double) live / total >= compactionThreshold
+                && compactionPending.compareAndSet(false, true)) {
+            compactor.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    compactionPending.set(false);
+                    try {
+                        compact();
+                    } catch (final IOException e) {
+                        LOGGER.error("Compaction of {} failed: {}", directory, e);
+                    }
+                }
+            });
+        }
+    }
+
+    private Location copy(final Segment source, final Location old, final Segment output) throws IOException {
+        final long offset = output.size;
+        final long length = old.size();
+        long position = 0;
+        while (position < length) {
+            final long transferred = source.channel.transferTo(old.offset + position, length - position,
+                    new SegmentWriter(output.channel, offset + position));
+            if (transferred <= 0) {
+                throw new EOFException("Unexpected end of segment " + source.path);
+            }
+            position += transferred;
+        }
+        output.size += length;
+        return new Location(output.id, offset, old.keyLength, old.valueLength);
+    }
+
+    private Segment createSegment() throws IOException {
+        final int id = nextSegmentId++;
+        final Path path = directory.resolve(String.format("%010d%s", id, SEGMENT_SUFFIX));
+        final Segment segment = new Segment(id, path, FileChannel.open(path, CREATE_NEW, READ, WRITE));
+        segments.put(id, segment);
+        return segment;
+    }
+
+    /**
+     * Rebuild the index from the segment files.
+     */
+    private void recover() throws IOException {
+        final Map<String, Location> latest = new HashMap<>();
+        final Map<String, Long> sequences = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (final Path path : files) {
+                final String name = path.getFileName().toString();
+                final int id = Integer.parseInt(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                final Segment segment = new Segment(id, path, FileChannel.open(path, READ, WRITE));
+                segments.put(id, segment);
+                nextSegmentId = Math.max(nextSegmentId, id + 1);
+                scan(segment, latest, sequences);
+            }
+        }
+        for (final Map.Entry<String, Location> entry : latest.entrySet()) {
+            final Location location = entry.getValue();
+            if (location.valueLength != TOMBSTONE) {
+                index.put(entry.getKey(), location);
+                segments.get(location.segment).live.addAndGet(location.size());
+            }
+        }
+        LOGGER.info("Opened archive {} with {} segments and {} records", directory, segments.size(), index.size());
+    }
+
+    private void scan(final Segment segment, final Map<String, Location> latest, final Map<String, Long> sequences)
+            throws IOException {
+        final long fileSize = segment.channel.size();
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        long offset = 0;
+        while (offset < fileSize) {
+            header.clear();
+            if (fileSize - offset < HEADER_SIZE) {
+                break;
+            }
+            readFully(segment.channel, header, offset);
+            header.flip();
+            final int magic = header.getInt();
+            final int keyLength = header.getInt();
+            final long sequence = header.getLong();
+            final long valueLength = header.getLong();
+            final long end = offset + HEADER_SIZE + keyLength + Math.max(valueLength, 0);
+            if (magic != MAGIC || keyLength < 1 || keyLength > MAX_KEY_LENGTH || valueLength < TOMBSTONE
+                    || end > fileSize) {
+                break;
+            }
+            final ByteBuffer key = ByteBuffer.allocate(keyLength);
+            readFully(segment.channel, key, offset + HEADER_SIZE);
+            final String k = new String(key.array(), UTF_8);
+            final Long seen = sequences.get(k);
+            if (seen == null || seen < sequence) {
+                sequences.put(k, sequence);
+                latest.put(k, new Location(segment.id, offset, keyLength, valueLength));
+            }
+            nextSequence = Math.max(nextSequence, sequence + 1);
+            offset = end;
+        }
+        if (offset < fileSize) {
+            LOGGER.warn("Discarding {} bytes of incomplete records at the end of {}", fileSize - offset, segment.path);
+            segment.channel.truncate(offset);
+        }
+        segment.size = offset;
+    }
+
+    private static ByteBuffer header(final byte[] key, final long sequence, final long valueLength) {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + key.length);
+        header.putInt(MAGIC).putInt(key.length).putLong(sequence).putLong(valueLength).put(key);
+        header.flip();
+        return header;
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer dst, final long position)
+            throws IOException {
+        long p = position;
+        while (dst.hasRemaining()) {
+            final int n = channel.read(dst, p);
+            if (n < 0) {
+                throw new EOFException();
+            }
+            p += n;
+        }
+    }
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer src, final long position)
+            throws IOException {
+        long p = position;
+        while (src.hasRemaining()) {
+            p += channel.write(src, p);
+        }
+    }
+
+    private static void transferFully(final FileChannel channel, final ReadableByteChannel src, final long position,
+            final long length) throws IOException {
+        long transferred = 0;
+        while (transferred < length) {
+            final long n = channel.transferFrom(src, position + transferred, length - transferred);
+            if (n <= 0) {
+                throw new EOFException("Expected " + length + " bytes of content but found " + transferred);
+            }
+            transferred += n;
+        }
+    }
+
+    /**
+     * Receives the live records of an archive.
+     */
+    public static interface RecordVisitor {
+
+        /**
+         * @param key the record's key
+         * @param value the record's content, valid only during this call
+         * @param length the length of the content in bytes
+         * @throws IOException if the record could not be handled
+         */
+        void visit(String key, InputStream value, long length) throws IOException;
+    }
+
+    /**
+     * Where the latest record for a key is.
+     */
+    private static class Location {
+
+        private final int segment;
+
+        private final long offset;
+
+        private final int keyLength;
+
+        private final long valueLength;
+
+        Location(final int segment, final long offset, final int keyLength, final long valueLength) {
+            this.segment = segment;
+            this.offset = offset;
+            this.keyLength = keyLength;
+            this.valueLength = valueLength;
+        }
+
+        long valuePosition() {
+            return offset + HEADER_SIZE + keyLength;
+        }
+
+        long size() {
+            return HEADER_SIZE + keyLength + Math.max(valueLength, 0);
+        }
+    }
+
+    /**
+     * A segment file and its accounting.
+     */
+    private static class Segment {
+
+        private final int id;
+
+        private final Path path;
+
+        private final FileChannel channel;
+
+        /**
+         * Bytes written; only changed under the append lock or by compaction.
+         */
+        private volatile long size;
+
+        /**
+         * Bytes belonging to records that are still current.
+         */
+        private final AtomicLong live = new AtomicLong();
+
+        Segment(final int id, final Path path, final FileChannel channel) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * A read-only view of part of a segment.
+     */
+    private static class SegmentChannel implements ReadableByteChannel {
+
+        private final FileChannel channel;
+
+        private long position;
+
+        private final long end;
+
+        SegmentChannel(final FileChannel channel, final long position, final long length) {
+            this.channel = channel;
+            this.position = position;
+            this.end = position + length;
+        }
+
+        @Override
+        public int read(final ByteBuffer dst) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            final int limit = dst.limit();
+            if (end - position < dst.remaining()) {
+                dst.limit(dst.position() + (int) (end - position));
+            }
+            try {
+                final int n = channel.read(dst, position);
+                if (n > 0) {
+                    position += n;
+                }
+                return n;
+            } finally {
+                dst.limit(limit);
+            }
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() {
+            // the segment channel is shared
+        }
+    }
+
+    /**
+     * Writes to a segment at a fixed position, advancing as it goes.
+     */
+    private static class SegmentWriter implements WritableByteChannel {
+
+        private final FileChannel channel;
+
+        private long position;
+
+        SegmentWriter(final FileChannel channel, final long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+
+        @Override
+        public int write(final ByteBuffer src) throws IOException {
+            final int n = channel.write(src, position);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() {
+            // the segment channel is shared
+        }
+    }
+}
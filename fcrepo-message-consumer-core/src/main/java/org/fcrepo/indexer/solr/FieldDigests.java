@@ -0,0 +1,110 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.solr;
+
+import static com.google.common.hash.Hashing.murmur3_128;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Collection;
+import java.util.Map;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+
+/**
+ * Remembers a digest of each field of the document last sent to Solr for each
+ * resource, so that {@link SolrIndexer} can send only the fields that changed.
+ * The least recently used documents are forgotten once a limit is reached; a
+ * document that has been forgotten is simply sent in full.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class FieldDigests {
+
+    private static final HashFunction HASH = murmur3_128();
+
+    private final Cache<String, Map<String, Long>> cache;
+
+    /**
+     * Default constructor: remembers up to 100000 documents.
+     */
+    public FieldDigests() {
+        this(100000);
+    }
+
+    /**
+     * @param maxDocuments the most documents to remember
+     */
+    public FieldDigests(final long maxDocuments) {
+        cache = CacheBuilder.newBuilder().maximumSize(maxDocuments).build();
+    }
+
+    /**
+     * Compute the digest of each field of a document.
+     *
+     * @param fields the fields of the document
+     * @return the digest of each field
+     */
+    public static Map<String, Long> digest(final Map<String, Collection<String>> fields) {
+        final ImmutableMap.Builder<String, Long> digests = ImmutableMap.builder();
+        for (final Map.Entry<String, Collection<String>> field : fields.entrySet()) {
+            final Hasher hasher = HASH.newHasher();
+            for (final String value : field.getValue()) {
+                hasher.putString(value, UTF_8).putByte((byte) 0);
+            }
+            digests.put(field.getKey(), hasher.hash().asLong());
+        }
+        return digests.build();
+    }
+
+    /**
+     * @param id the document
+     * @return the digests of the fields last sent for the document, or null if they are not known
+     */
+    public Map<String, Long> get(final String id) {
+        return cache.getIfPresent(id);
+    }
+
+    /**
+     * Record the fields sent for a document.
+     *
+     * @param id the document
+     * @param digests the digest of each field
+     */
+    public void put(final String id, final Map<String, Long> digests) {
+        cache.put(id, digests);
+    }
+
+    /**
+     * Forget the fields sent for a document.
+     *
+     * @param id the document
+     */
+    public void invalidate(final String id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * @return the number of documents remembered
+     */
+    public long size() {
+        return cache.size();
+    }
+}
@@ -0,0 +1,266 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.solr;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.fcrepo.indexer.IndexerMetrics.timer;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.solr.client.solrj.SolrServer;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.response.UpdateResponse;
+import org.apache.solr.common.SolrInputDocument;
+import org.slf4j.Logger;
+
+import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Decides when the changes {@link SolrIndexer} sends to Solr are committed,
+ * applying the same rules to added and deleted documents:
+ * <ul>
+ * <li>{@code commitWithin}: Solr is asked to commit each change within this
+ * many milliseconds;</li>
+ * <li>{@code softCommitInterval}: pending changes are soft committed (made
+ * visible to searches) this often;</li>
+ * <li>{@code hardCommitInterval}: pending changes are hard committed (made
+ * durable and visible) this often;</li>
+ * <li>{@code maxPendingDocs}: pending changes are hard committed at once when
+ * there are this many.</li>
+ * </ul>
+ * Each is disabled when zero or less, which is the default; with every rule
+ * disabled, changes are committed only by Solr's own configuration.
+ * <p>
+ * Commits are made one at a time, as each waits for a new searcher. A
+ * scheduled commit, or one due to {@code maxPendingDocs}, is skipped while
+ * another commit is running; the changes it would have committed remain
+ * pending.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class SolrCommitPolicy implements Closeable {
+
+    private static final Logger LOGGER = getLogger(SolrCommitPolicy.class);
+
+    private static final Timer SOFT_COMMITS = timer(SolrCommitPolicy.class, "soft-commit");
+
+    private static final Timer HARD_COMMITS = timer(SolrCommitPolicy.class, "hard-commit");
+
+    private final SolrServer server;
+
+    private int commitWithin;
+
+    private long softCommitInterval;
+
+    private long hardCommitInterval;
+
+    private long maxPendingDocs;
+
+    private final AtomicLong softPending = new AtomicLong();
+
+    private final AtomicLong hardPending = new AtomicLong();
+
+    private final Lock committing = new ReentrantLock();
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param server the Solr server to which changes are sent
+     */
+    public SolrCommitPolicy(final SolrServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Add a document.
+     *
+     * @param doc the document
+     * @return the response from Solr
+     * @throws SolrServerException if Solr could not be reached
+     * @throws IOException if the request could not be sent
+     */
+    public UpdateResponse add(final SolrInputDocument doc) throws SolrServerException, IOException {
+        final UpdateResponse resp = commitWithin > 0 ? server.add(doc, commitWithin) : server.add(doc);
+        changed(resp);
+        return resp;
+    }
+
+    /**
+     * Delete a document.
+     *
+     * @param id the document
+     * @return the response from Solr
+     * @throws SolrServerException if Solr could not be reached
+     * @throws IOException if the request could not be sent
+     */
+    public UpdateResponse deleteById(final String id) throws SolrServerException, IOException {
+        final UpdateResponse resp = commitWithin > 0 ? server.deleteById(id, commitWithin) : server.deleteById(id);
+        changed(resp);
+        return resp;
+    }
+
+    private void changed(final UpdateResponse resp) throws SolrServerException, IOException {
+        if (resp.getStatus() != 0) {
+            return;
+        }
+        start();
+        softPending.incrementAndGet();
+        if (hardPending.incrementAndGet() >= maxPendingDocs && maxPendingDocs > 0) {
+            commitUnlessRunning(false);
+        }
+    }
+
+    /**
+     * Commit any pending changes, once any commit already running has finished.
+     *
+     * @param soft whether to make changes visible only, rather than durable
+     * @throws SolrServerException if Solr could not be reached
+     * @throws IOException if the request could not be sent
+     */
+    public void commit(final boolean soft) throws SolrServerException, IOException {
+        committing.lock();
+        try {
+            commitPending(soft);
+        } finally {
+            committing.unlock();
+        }
+    }
+
+    private void commitUnlessRunning(final boolean soft) throws SolrServerException, IOException {
+        if (!committing.tryLock()) {
+            LOGGER.debug("Skipping {} commit while another is running", soft ? "soft" : "hard");
+            return;
+        }
+        try {
+            commitPending(soft);
+        } finally {
+            committing.unlock();
+        }
+    }
+
+    private void commitPending(final boolean soft) throws SolrServerException, IOException {
+        final AtomicLong pending = soft ? softPending : hardPending;
+        final long count = pending.getAndSet(0);
+        if (count == 0) {
+            return;
+        }
+        // a hard commit also makes changes visible, but not those sent while it runs
+        final long visible = soft ? 0 : softPending.get();
+        final long start = nanoTime();
+        try {
+            server.commit(true, true, soft);
+        } catch (final SolrServerException | IOException | RuntimeException e) {
+            pending.addAndGet(count);
+            throw e;
+        }
+        final long elapsed = nanoTime() - start;
+        softPending.addAndGet(-visible);
+        (soft ? SOFT_COMMITS : HARD_COMMITS).update(elapsed, NANOSECONDS);
+        LOGGER.debug("{} commit of {} changes took {}ms", soft ? "Soft" : "Hard", count,
+                NANOSECONDS.toMillis(elapsed));
+    }
+
+    private synchronized void start() {
+        if (scheduler != null || (softCommitInterval <= 0 && hardCommitInterval <= 0)) {
+            return;
+        }
+        scheduler = newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("solr-commit-%d").setDaemon(true).build());
+        if (softCommitInterval > 0) {
+            scheduler.scheduleWithFixedDelay(committer(true), softCommitInterval, softCommitInterval, MILLISECONDS);
+        }
+        if (hardCommitInterval > 0) {
+            scheduler.scheduleWithFixedDelay(committer(false), hardCommitInterval, hardCommitInterval, MILLISECONDS);
+        }
+    }
+
+    private Runnable committer(final boolean soft) {
+        return new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    commitUnlessRunning(soft);
+                } catch (final SolrServerException | IOException | RuntimeException e) {
+                    // thrown exceptions would cancel the schedule
+                    LOGGER.error("Scheduled commit failed!", e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Stop scheduled commits, and hard commit any pending changes.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        try {
+            commit(false);
+        } catch (final SolrServerException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * @param millis the time within which Solr is asked to commit each change
+     */
+    public void setCommitWithin(final int millis) {
+        this.commitWithin = millis;
+    }
+
+    /**
+     * @param millis the interval between soft commits of pending changes
+     */
+    public void setSoftCommitInterval(final long millis) {
+        this.softCommitInterval = millis;
+    }
+
+    /**
+     * @param millis the interval between hard commits of pending changes
+     */
+    public void setHardCommitInterval(final long millis) {
+        this.hardCommitInterval = millis;
+    }
+
+    /**
+     * @param count the number of pending changes at which they are hard committed at once
+     */
+    public void setMaxPendingDocs(final long count) {
+        this.maxPendingDocs = count;
+    }
+
+    /**
+     * @return the number of changes not yet hard committed by this policy
+     */
+    public long getPendingDocs() {
+        return hardPending.get();
+    }
+}
@@ -19,12 +19,15 @@ import static com.google.common.base.Throwables.propagate;
 import static com.google.common.collect.Maps.transformEntries;
 import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
 import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.apache.solr.common.SolrException.ErrorCode.CONFLICT;
 import static org.fcrepo.indexer.Indexer.IndexerType.NAMEDFIELDS;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.Callable;
@@ -32,10 +35,13 @@ import java.util.concurrent.Callable;
 import org.apache.solr.client.solrj.SolrServer;
 import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.client.solrj.response.UpdateResponse;
+import org.apache.solr.common.SolrException;
 import org.apache.solr.common.SolrInputDocument;
 import org.apache.solr.common.SolrInputField;
+import org.apache.solr.common.util.NamedList;
 import org.fcrepo.indexer.AsynchIndexer;
 import org.fcrepo.indexer.NamedFields;
+import org.fcrepo.indexer.ResourceOrdering;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -60,6 +66,20 @@ public class SolrIndexer extends AsynchIndexer<NamedFields, UpdateResponse> {
 
     private final SolrServer server;
 
+    private FieldDigests fieldDigests;
+
+    private SolrCommitPolicy commitPolicy;
+
+    private final ResourceOrdering ordering = new ResourceOrdering();
+
+    /**
+     * The field holding a document's version, which an update can set to
+     * {@link #MUST_EXIST} to require that the document exists.
+     */
+    private static final String VERSION_FIELD = "_version_";
+
+    private static final Long MUST_EXIST = 1L;
+
     /**
      * Number of threads to use for operating against the index.
      */
@@ -83,37 +103,114 @@ public class SolrIndexer extends AsynchIndexer<NamedFields, UpdateResponse> {
     @Override
     public Callable<UpdateResponse> updateSynch(final URI id, final NamedFields fields) {
         LOGGER.debug("Received request for update to: {}", id);
-        return new Callable<UpdateResponse>() {
+        final Callable<UpdateResponse> update = new Callable<UpdateResponse>() {
 
             @Override
             public UpdateResponse call() {
                 try {
-                    LOGGER.debug(
-                            "Executing request to Solr index for identifier: {} with fields: {}",
-                            id, fields);
-                    // add the identifier of the resource as a unique index-key
-                    fields.put("id", asList(id.toString()));
-                    // pack the fields into a Solr input doc
-                    final SolrInputDocument inputDoc = fromMap(fields);
-                    LOGGER.debug("Created SolrInputDocument: {}", inputDoc);
-
-                    final UpdateResponse resp = server.add(inputDoc);
-                    if (resp.getStatus() == 0) {
-                        LOGGER.debug("Update request was successful for: {}",
-                                id);
-                    } else {
-                        LOGGER.error(
-                                "Update request returned error code: {} for identifier: {}",
-                                resp.getStatus(), id);
-                    }
-                    LOGGER.debug("Received result from Solr request.");
-                    return resp;
-                } catch (final SolrServerException | IOException e) {
+                    return add(id, fields);
+                } catch (final SolrServerException | IOException | RuntimeException e) {
                     LOGGER.error("Update exception: {}!", e);
+                    forget(id);
                     throw propagate(e);
                 }
             }
         };
+        // with digests, an update must be compared with the last one sent, not the last one planned
+        return fieldDigests == null ? update : ordering.ordered(id.toString(), update, unchanged());
+    }
+
+    private UpdateResponse add(final URI id, final NamedFields fields) throws SolrServerException, IOException {
+        LOGGER.debug("Executing request to Solr index for identifier: {} with fields: {}", id, fields);
+        // add the identifier of the resource as a unique index-key (the
+        // retrieved fields are shared with other indexers, so derive a copy)
+        // and pack the fields into a Solr input doc
+        final NamedFields document = fields.withField("id", asList(id.toString()));
+        if (fieldDigests == null) {
+            return send(id, fromMap(document));
+        }
+        final Map<String, Long> digests = FieldDigests.digest(document);
+        final Map<String, Long> previous = fieldDigests.get(id.toString());
+        UpdateResponse resp;
+        if (previous == null) {
+            resp = send(id, fromMap(document));
+        } else if (previous.equals(digests)) {
+            LOGGER.debug("No fields changed for: {}", id);
+            return unchanged();
+        } else {
+            try {
+                resp = send(id, changedFields(document, digests, previous));
+            } catch (final SolrException e) {
+                if (e.code() != CONFLICT.code) {
+                    throw e;
+                }
+                LOGGER.info("Document for: {} is missing from the index, sending all of its fields", id);
+                resp = send(id, fromMap(document));
+            }
+        }
+        if (resp.getStatus() == 0) {
+            fieldDigests.put(id.toString(), digests);
+        }
+        return resp;
+    }
+
+    private UpdateResponse send(final URI id, final SolrInputDocument inputDoc)
+            throws SolrServerException, IOException {
+        LOGGER.debug("Created SolrInputDocument: {}", inputDoc);
+        final UpdateResponse resp = commitPolicy == null ? server.add(inputDoc) : commitPolicy.add(inputDoc);
+        if (resp.getStatus() == 0) {
+            LOGGER.debug("Update request was successful for: {}", id);
+        } else {
+            LOGGER.error("Update request returned error code: {} for identifier: {}", resp.getStatus(), id);
+            forget(id);
+        }
+        LOGGER.debug("Received result from Solr request.");
+        return resp;
+    }
+
+    /**
+     * Build an atomic update setting the fields whose values changed, and
+     * clearing the fields no longer present. The update requires the document
+     * to exist, so that Solr reports a conflict rather than creating a partial
+     * document if it does not.
+     */
+    private static SolrInputDocument changedFields(final Map<String, Collection<String>> fields,
+            final Map<String, Long> digests, final Map<String, Long> previous) {
+        final SolrInputDocument inputDoc = new SolrInputDocument();
+        for (final Map.Entry<String, Collection<String>> field : fields.entrySet()) {
+            final String name = field.getKey();
+            if (name.equals("id")) {
+                inputDoc.addField(name, field.getValue().iterator().next());
+                inputDoc.addField(VERSION_FIELD, MUST_EXIST);
+            } else if (!digests.get(name).equals(previous.get(name))) {
+                inputDoc.addField(name, singletonMap("set", new ArrayList<>(field.getValue())));
+            }
+        }
+        for (final String name : previous.keySet()) {
+            if (!digests.containsKey(name)) {
+                inputDoc.addField(name, singletonMap("set", null));
+            }
+        }
+        return inputDoc;
+    }
+
+    /**
+     * @return a successful response for a document that did not need to be sent
+     */
+    private static UpdateResponse unchanged() {
+        final NamedList<Object> header = new NamedList<>();
+        header.add("status", 0);
+        final NamedList<Object> response = new NamedList<>();
+        response.add("responseHeader", header);
+        final UpdateResponse resp = new UpdateResponse();
+        resp.setResponse(response);
+        return resp;
+    }
+
+    private void forget(final URI id) {
+        if (fieldDigests != null) {
+            fieldDigests.invalidate(id.toString());
+        }
     }
 
     protected SolrInputDocument fromMap(final Map<String, Collection<String>> fields) {
@@ -140,16 +237,20 @@ public class SolrIndexer extends AsynchIndexer<NamedFields, UpdateResponse> {
     @Override
     public Callable<UpdateResponse> removeSynch(final URI uri) {
         LOGGER.debug("Received request for removal of: {}", uri);
-        return new Callable<UpdateResponse>() {
+        final Callable<UpdateResponse> removal = new Callable<UpdateResponse>() {
 
             @Override
             public UpdateResponse call() {
+                forget(uri);
                 try {
-                    final UpdateResponse resp = server.deleteById(uri.toString());
+                    final UpdateResponse resp = commitPolicy == null ? server.deleteById(uri.toString())
+                            : commitPolicy.deleteById(uri.toString());
                     if (resp.getStatus() == 0) {
                         LOGGER.debug("Remove request was successful for: {}",
                                 uri);
-                        server.commit();
+                        if (commitPolicy == null) {
+                            server.commit();
+                        }
 
                     } else {
                         LOGGER.error(
@@ -163,6 +264,37 @@ public class SolrIndexer extends AsynchIndexer<NamedFields, UpdateResponse> {
                 }
             }
         };
+        return fieldDigests == null ? removal : ordering.ordered(uri.toString(), removal, unchanged());
+    }
+
+    /**
+     * Send only the fields that changed since a document was last sent, as a
+     * Solr atomic update, and skip documents that did not change at all. This
+     * requires the Solr schema to store every field and to enable the update log.
+     * Updates and removals of a document are then run one at a time, in the
+     * order they were received, skipping any followed by another before it
+     * ran. If a document is missing from the index, e.g. because the index was
+     * emptied, Solr rejects its atomic update as a version conflict, and the
+     * whole document is sent instead; a document that is still in the index
+     * but stale is only corrected once its fields change or its digests are
+     * dropped. Not for use with a {@link StreamingSolrServer}, which answers
+     * each update before sending it, so never shows the version conflict.
+     * @param digests remembers the fields last sent for each document
+     */
+    public void setFieldDigests(final FieldDigests digests) {
+        if (digests != null && server instanceof StreamingSolrServer) {
+            throw new IllegalStateException("Field digests may not be used with a StreamingSolrServer!");
+        }
+        this.fieldDigests = digests;
+    }
+
+    /**
+     * Commit added and removed documents according to a policy, instead of
+     * committing after each removal only.
+     * @param policy the commit policy, which must send changes to this indexer's server
+     */
+    public void setCommitPolicy(final SolrCommitPolicy policy) {
+        this.commitPolicy = policy;
     }
 
     @Override
@@ -175,5 +307,14 @@ public class SolrIndexer extends AsynchIndexer<NamedFields, UpdateResponse> {
         return executorService;
     }
 
+    @Override
+    protected void submit(final URI identifier, final Runnable task) {
+        if (fieldDigests == null) {
+            super.submit(identifier, task);
+        } else {
+            ordering.execute(identifier.toString(), task, executorService);
+        }
+    }
+
 
 }
@@ -0,0 +1,78 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.solr;
+
+import static org.fcrepo.indexer.IndexerMetrics.meter;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.apache.solr.client.solrj.impl.BinaryRequestWriter;
+import org.apache.solr.client.solrj.impl.BinaryResponseParser;
+import org.apache.solr.client.solrj.impl.ConcurrentUpdateSolrServer;
+import org.slf4j.Logger;
+
+import com.codahale.metrics.Meter;
+
+/**
+ * A Solr client for {@link SolrIndexer} that streams updates to Solr in the
+ * javabin format. Updates are queued and written by several runner threads,
+ * each of which keeps its request open for as long as the queue has updates
+ * for it, so documents are not sent one request at a time.
+ * <p>
+ * Since updates are sent after {@link #add} returns, the response to an add
+ * (status 0) does not reflect its outcome; failures are logged and counted in
+ * the {@code errors} meter instead. Commits and queries wait for queued
+ * updates to be sent.
+ * <p>
+ * So this client must not be used with {@link SolrIndexer#setFieldDigests
+ * field digests}, which would record a document as sent even if sending it
+ * failed, nor with {@link org.fcrepo.indexer.BatchMessageConsumer}, which
+ * would acknowledge messages whose updates may yet be lost.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class StreamingSolrServer extends ConcurrentUpdateSolrServer {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOGGER = getLogger(StreamingSolrServer.class);
+
+    private final Meter errors = meter(StreamingSolrServer.class, "errors");
+
+    /**
+     * @param solrServerUrl the URL of the Solr core
+     * @param queueSize the number of updates queued before callers block
+     * @param threadCount the number of runner threads sending updates
+     */
+    public StreamingSolrServer(final String solrServerUrl, final int queueSize, final int threadCount) {
+        super(solrServerUrl, queueSize, threadCount);
+        setRequestWriter(new BinaryRequestWriter());
+        setParser(new BinaryResponseParser());
+    }
+
+    @Override
+    public void handleError(final Throwable ex) {
+        errors.mark();
+        LOGGER.error("Error streaming updates to Solr!", ex);
+    }
+
+    /**
+     * @return the number of failures sending updates, by any instance
+     */
+    public long errors() {
+        return errors.getCount();
+    }
+}
@@ -15,6 +15,7 @@
  */
 package org.fcrepo.indexer.sparql;
 
+import static com.google.common.collect.Sets.difference;
 import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
 import static com.hp.hpl.jena.sparql.util.Context.emptyContext;
 import static com.hp.hpl.jena.update.UpdateExecutionFactory.createRemoteForm;
@@ -36,17 +37,20 @@ import com.google.common.util.concurrent.ListenableFutureTask;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.hp.hpl.jena.rdf.model.Model;
 import com.hp.hpl.jena.rdf.model.StmtIterator;
+import com.hp.hpl.jena.graph.Node;
 import com.hp.hpl.jena.graph.Node_URI;
 import com.hp.hpl.jena.graph.Triple;
 import com.hp.hpl.jena.sparql.engine.http.QueryEngineHTTP;
 import com.hp.hpl.jena.sparql.modify.UpdateProcessRemote;
 import com.hp.hpl.jena.sparql.modify.request.QuadDataAcc;
+import com.hp.hpl.jena.sparql.modify.request.UpdateDataDelete;
 import com.hp.hpl.jena.sparql.modify.request.UpdateDataInsert;
 import com.hp.hpl.jena.update.UpdateProcessor;
 import com.hp.hpl.jena.update.UpdateRequest;
 
 import org.apache.jena.atlas.io.IndentedWriter;
 import org.fcrepo.indexer.AsynchIndexer;
+import org.fcrepo.indexer.ResourceOrdering;
 import org.slf4j.Logger;
 
 
@@ -62,6 +66,9 @@ public class SparqlIndexer extends AsynchIndexer<Model, Void> {
     private String queryBase;
     private String updateBase;
     private boolean formUpdates = false;
+    private TripleCache tripleCache;
+
+    private final ResourceOrdering ordering = new ResourceOrdering();
 
     private static final Logger LOGGER = getLogger(SparqlIndexer.class);
 
@@ -81,6 +88,17 @@ public class SparqlIndexer extends AsynchIndexer<Model, Void> {
     @Override
     public Callable<Void> updateSynch(final URI pid, final Model model) {
         LOGGER.debug("Received update for: {}", pid);
+        if (tripleCache != null) {
+            final Set<Triple> current = model.getGraph().find(Node.ANY, Node.ANY, Node.ANY).toSet();
+            return ordering.ordered(pid.toString(), new Callable<Void>() {
+
+                @Override
+                public Void call() {
+                    write(pid, current);
+                    return null;
+                }
+            }, null);
+        }
         removeSynch(pid, false, true);
         // build a list of triples
         final StmtIterator triples = model.listStatements();
@@ -94,12 +112,83 @@ public class SparqlIndexer extends AsynchIndexer<Model, Void> {
         return exec(new UpdateRequest(new UpdateDataInsert(add)));
     }
 
+    /**
+     * Write a resource's triples, sending only the triples removed and added
+     * since it was last written if they are known. The difference is taken
+     * when the write runs, not when it is planned, so the cache always holds
+     * what the triplestore was last sent; if the write fails, the triplestore's
+     * content is unknown and the cached triples are forgotten.
+     */
+    private void write(final URI pid, final Set<Triple> current) {
+        final String key = pid.toString();
+        final boolean cacheable = !hasBlankNodes(current);
+        final Set<Triple> previous = cacheable ? tripleCache.get(key) : null;
+        try {
+            if (previous == null) {
+                removeSynch(pid, false, true);
+                LOGGER.debug("Sending update request for pid: {}", pid);
+                execute(new UpdateRequest(new UpdateDataInsert(quads(current))));
+            } else {
+                final Set<Triple> removed = difference(previous, current);
+                final Set<Triple> added = difference(current, previous);
+                if (removed.isEmpty() && added.isEmpty()) {
+                    LOGGER.debug("No triples changed for pid: {}", pid);
+                    return;
+                }
+                final UpdateRequest update = new UpdateRequest();
+                if (!removed.isEmpty()) {
+                    update.add(new UpdateDataDelete(quads(removed)));
+                }
+                if (!added.isEmpty()) {
+                    update.add(new UpdateDataInsert(quads(added)));
+                }
+                LOGGER.debug("Sending difference for pid: {}, removing {} and adding {} triples",
+                        pid, removed.size(), added.size());
+                execute(update);
+            }
+        } catch (final RuntimeException e) {
+            tripleCache.invalidate(key);
+            throw e;
+        }
+        if (cacheable) {
+            tripleCache.put(key, current);
+        }
+    }
+
+    private static QuadDataAcc quads(final Set<Triple> triples) {
+        final QuadDataAcc quads = new QuadDataAcc();
+        for (final Triple triple : triples) {
+            quads.addTriple(triple);
+        }
+        return quads;
+    }
+
+    private static boolean hasBlankNodes(final Set<Triple> triples) {
+        for (final Triple triple : triples) {
+            if (triple.getSubject().isBlank() || triple.getObject().isBlank()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Perform a DESCRIBE query for triples about the Fedora object and remove
      * all triples with subjects starting with the same subject.
     **/
     @Override
     public Callable<Void> removeSynch(final URI subject) {
+        if (tripleCache != null) {
+            // ordered with the writes of the resource, which the cache depends on
+            return ordering.ordered(subject.toString(), new Callable<Void>() {
+
+                @Override
+                public Void call() {
+                    removeSynch(subject, true, true);
+                    return null;
+                }
+            }, null);
+        }
         return removeSynch(subject, true, false);
     }
 
@@ -137,6 +226,13 @@ public class SparqlIndexer extends AsynchIndexer<Model, Void> {
         }
         qexec.close();
 
+        if (tripleCache != null) {
+            tripleCache.invalidate(subject.toString());
+            for (final String uri : uris) {
+                tripleCache.invalidate(uri);
+            }
+        }
+
         // build update commands
         final UpdateRequest del = buildUpdateRequest();
         for (final String uri : uris) {
@@ -185,17 +281,10 @@ public class SparqlIndexer extends AsynchIndexer<Model, Void> {
             public Void call() {
 
                 if (formUpdates) {
-                    // form updates
-                    final UpdateProcessor proc =
-                        createRemoteForm(update, updateBase);
-                    proc.execute();
+                    execute(update);
                 } else {
-                    // normal SPARQL updates
-                    final UpdateProcessRemote proc =
-                        new UpdateProcessRemote(update, updateBase,
-                                emptyContext);
                     try {
-                        proc.execute();
+                        execute(update);
                     } catch (final Exception e) {
                         LOGGER.error(
                                 "Error executing Sparql update/remove!", e);
@@ -242,6 +331,22 @@ public class SparqlIndexer extends AsynchIndexer<Model, Void> {
         return callable;
     }
 
+    /**
+     * Note: Protected for Unit Tests to overwrite.
+     * @param update the update to send to the triplestore
+     */
+    protected void execute(final UpdateRequest update) {
+        if (formUpdates) {
+            // form updates
+            final UpdateProcessor proc = createRemoteForm(update, updateBase);
+            proc.execute();
+        } else {
+            // normal SPARQL updates
+            final UpdateProcessRemote proc = new UpdateProcessRemote(update, updateBase, emptyContext);
+            proc.execute();
+        }
+    }
+
     @Override
     public IndexerType getIndexerType() {
         return RDF;
@@ -271,11 +376,32 @@ public class SparqlIndexer extends AsynchIndexer<Model, Void> {
         this.updateBase = url;
     }
 
+    /**
+     * Send only the difference from the triples last written when a resource
+     * changes, instead of deleting and reinserting all of its triples.
+     * Resources whose triples include blank nodes are always rewritten in full.
+     * Updates and removals of a resource are then run one at a time, in the
+     * order they were received, skipping any followed by another before it ran.
+     * @param cache remembers the triples last written for each resource
+    **/
+    public void setTripleCache( final TripleCache cache ) {
+        this.tripleCache = cache;
+    }
+
     @Override
     public ListeningExecutorService executorService() {
         return executorService;
     }
 
+    @Override
+    protected void submit(final URI identifier, final Runnable task) {
+        if (tripleCache == null) {
+            super.submit(identifier, task);
+        } else {
+            ordering.execute(identifier.toString(), task, executorService);
+        }
+    }
+
     /**
      * Note: Protected for Unit Tests to overwrite.
      * @param describeQuery the describe query
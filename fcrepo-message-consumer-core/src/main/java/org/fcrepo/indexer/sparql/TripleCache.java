@@ -0,0 +1,124 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.sparql;
+
+import static com.google.common.base.Throwables.propagate;
+import static com.hp.hpl.jena.graph.Factory.createDefaultGraph;
+import static org.apache.jena.riot.Lang.NTRIPLES;
+import static org.apache.jena.riot.RDFDataMgr.read;
+import static org.apache.jena.riot.RDFDataMgr.writeTriples;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.hp.hpl.jena.graph.Graph;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+
+/**
+ * Remembers the triples last written to the triplestore for each resource, so
+ * that {@link SparqlIndexer} can send only the difference when a resource
+ * changes. Each set is held as deflated N-Triples, and the least recently used
+ * sets are dropped once their total size passes a limit; a resource whose set
+ * has been dropped is simply rewritten in full.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class TripleCache {
+
+    private final Cache<String, byte[]> cache;
+
+    /**
+     * Default constructor: holds up to 64MB of compressed triples.
+     */
+    public TripleCache() {
+        this(64 * 1024 * 1024);
+    }
+
+    /**
+     * @param maxBytes the most compressed bytes to hold
+     */
+    public TripleCache(final long maxBytes) {
+        cache = CacheBuilder.newBuilder().maximumWeight(maxBytes).weigher(new Weigher<String, byte[]>() {
+
+            @Override
+            public int weigh(final String uri, final byte[] triples) {
+                return uri.length() + triples.length;
+            }
+        }).build();
+    }
+
+    /**
+     * @param uri the resource
+     * @return the triples last written for the resource, or null if they are not known
+     */
+    public Set<Triple> get(final String uri) {
+        final byte[] compressed = cache.getIfPresent(uri);
+        if (compressed == null) {
+            return null;
+        }
+        final Graph graph = createDefaultGraph();
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+            read(graph, in, NTRIPLES);
+        } catch (final IOException e) {
+            throw propagate(e);
+        }
+        return graph.find(Node.ANY, Node.ANY, Node.ANY).toSet();
+    }
+
+    /**
+     * Record the triples written for a resource.
+     *
+     * @param uri the resource
+     * @param triples the triples, which must not include blank nodes
+     */
+    public void put(final String uri, final Collection<Triple> triples) {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (OutputStream out = new DeflaterOutputStream(buffer)) {
+            writeTriples(out, triples.iterator());
+        } catch (final IOException e) {
+            throw propagate(e);
+        }
+        cache.put(uri, buffer.toByteArray());
+    }
+
+    /**
+     * Forget the triples written for a resource.
+     *
+     * @param uri the resource
+     */
+    public void invalidate(final String uri) {
+        cache.invalidate(uri);
+    }
+
+    /**
+     * @return the number of resources whose triples are held
+     */
+    public long size() {
+        return cache.size();
+    }
+}
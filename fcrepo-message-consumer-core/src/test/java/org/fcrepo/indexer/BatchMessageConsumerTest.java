@@ -0,0 +1,157 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.Session;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class BatchMessageConsumerTest {
+
+    @Mock
+    private ConnectionFactory connectionFactory;
+
+    @Mock
+    private Destination destination;
+
+    @Mock
+    private IndexerGroup indexerGroup;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private MessageConsumer consumer;
+
+    @Mock
+    private Message first;
+
+    @Mock
+    private Message second;
+
+    @Mock
+    private Message third;
+
+    private BatchMessageConsumer batchConsumer;
+
+    private final ListenableFuture<List<Object>> indexed = immediateFuture(Collections.<Object>emptyList());
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        batchConsumer = new BatchMessageConsumer(connectionFactory, destination, indexerGroup);
+        batchConsumer.setBatchSize(2);
+        batchConsumer.setIndexTimeout(100);
+    }
+
+    @Test
+    public void testBatchCommitted() throws Exception {
+        when(consumer.receive(anyLong())).thenReturn(first);
+        when(consumer.receiveNoWait()).thenReturn(second, third);
+        when(indexerGroup.handle(first)).thenReturn(indexed);
+        when(indexerGroup.handle(second)).thenReturn(indexed);
+
+        assertEquals(2, batchConsumer.consumeBatch(session, consumer));
+        verify(session).commit();
+        verify(session, never()).rollback();
+        // the third message is left for the next batch
+        verify(indexerGroup, never()).handle(third);
+    }
+
+    @Test
+    public void testCommitWaitsForIndexers() throws Exception {
+        final SettableFuture<List<Object>> pending = SettableFuture.create();
+        when(consumer.receive(anyLong())).thenReturn(first);
+        when(indexerGroup.handle(first)).thenReturn(pending);
+
+        // indexing does not finish within the timeout
+        assertEquals(1, batchConsumer.consumeBatch(session, consumer));
+        verify(session, never()).commit();
+        verify(session).rollback();
+    }
+
+    @Test
+    public void testFailedBatchRolledBack() throws Exception {
+        final ListenableFuture<List<Object>> failed = immediateFailedFuture(new IOException("Indexer failed"));
+        when(consumer.receive(anyLong())).thenReturn(first);
+        when(consumer.receiveNoWait()).thenReturn(second);
+        when(indexerGroup.handle(first)).thenReturn(indexed);
+        when(indexerGroup.handle(second)).thenReturn(failed);
+
+        assertEquals(2, batchConsumer.consumeBatch(session, consumer));
+        verify(session, never()).commit();
+        verify(session).rollback();
+    }
+
+    @Test
+    public void testRedeliveredMessagesConsumedAlone() throws Exception {
+        final ListenableFuture<List<Object>> failed = immediateFailedFuture(new IOException("Indexer failed"));
+        when(first.getJMSRedelivered()).thenReturn(true);
+        when(second.getJMSRedelivered()).thenReturn(true);
+        when(consumer.receive(anyLong())).thenReturn(first, second);
+        when(indexerGroup.handle(first)).thenReturn(failed);
+        when(indexerGroup.handle(second)).thenReturn(indexed);
+
+        // only the failing message is rolled back again
+        assertEquals(1, batchConsumer.consumeBatch(session, consumer));
+        verify(session).rollback();
+        assertEquals(1, batchConsumer.consumeBatch(session, consumer));
+        verify(session).commit();
+        verify(consumer, never()).receiveNoWait();
+    }
+
+    @Test
+    public void testUnreadableMessageRolledBack() throws Exception {
+        when(consumer.receive(anyLong())).thenReturn(first);
+        when(indexerGroup.handle(first)).thenThrow(new IllegalStateException("Repository unavailable"));
+
+        assertEquals(1, batchConsumer.consumeBatch(session, consumer));
+        verify(session).rollback();
+    }
+
+    @Test
+    public void testNothingReceived() throws Exception {
+        assertEquals(0, batchConsumer.consumeBatch(session, consumer));
+        verify(session, never()).commit();
+        verify(session, never()).rollback();
+    }
+}
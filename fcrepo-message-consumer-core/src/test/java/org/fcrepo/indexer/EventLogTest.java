@@ -0,0 +1,105 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static java.util.Arrays.copyOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class EventLogTest {
+
+    private static final String BASE = "http://localhost:8080/rest";
+
+    private static final String ADDED = "http://fedora.info/definitions/v4/repository#NODE_ADDED";
+
+    private static final String CHANGED = "http://fedora.info/definitions/v4/repository#PROPERTY_CHANGED";
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final List<IndexingEvent> events = new ArrayList<>();
+        events.add(new IndexingEvent("/a", BASE, ADDED, null, 1445000000000L));
+        events.add(new IndexingEvent("/a/b", BASE, ADDED, "dc:title", 1445000000250L));
+        events.add(new IndexingEvent("/a", BASE, CHANGED, "dc:title,dc:subject", 1445000000100L));
+        events.add(new IndexingEvent("/caf\u00e9", null, CHANGED, "dc:title", 0));
+        events.add(new IndexingEvent(null, BASE, null, null, 1445000000300L));
+
+        final byte[] log = write(events);
+        assertEquals(events, read(log));
+    }
+
+    @Test
+    public void testRepeatedStringsShared() throws IOException {
+        final List<IndexingEvent> events = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            events.add(new IndexingEvent("/r/" + i, BASE, CHANGED, "dc:title", 1445000000000L + i));
+        }
+        final byte[] log = write(events);
+        assertEquals(events, read(log));
+        // the identifier, a timestamp difference and three references to shared strings
+        assertTrue("Records are too large: " + log.length, log.length < 1000 * 12);
+    }
+
+    @Test
+    public void testIncompleteRecordIgnored() throws IOException {
+        final List<IndexingEvent> events = new ArrayList<>();
+        events.add(new IndexingEvent("/a", BASE, ADDED, null, 1445000000000L));
+        events.add(new IndexingEvent("/a/b", BASE, CHANGED, "dc:title", 1445000000250L));
+        final byte[] log = write(events);
+
+        final List<IndexingEvent> read = read(copyOf(log, log.length - 3));
+        assertEquals(1, read.size());
+        assertEquals(events.get(0), read.get(0));
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotALog() throws IOException {
+        read("not an event log".getBytes("UTF-8"));
+    }
+
+    private static byte[] write(final List<IndexingEvent> events) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final EventLog.Writer writer = new EventLog.Writer(bytes)) {
+            for (final IndexingEvent event : events) {
+                writer.write(event);
+            }
+            writer.flush();
+            assertEquals(bytes.size(), writer.size());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<IndexingEvent> read(final byte[] log) throws IOException {
+        final List<IndexingEvent> events = new ArrayList<>();
+        try (final EventLog.Reader reader = new EventLog.Reader(new ByteArrayInputStream(log))) {
+            for (IndexingEvent event = reader.read(); event != null; event = reader.read()) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static java.nio.file.Files.newInputStream;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class EventRecorderTest {
+
+    private static final String BASE = "http://localhost:8080/rest";
+
+    private static final String CHANGED = "http://fedora.info/definitions/v4/repository#PROPERTY_CHANGED";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRecord() throws IOException {
+        final File dir = folder.newFolder("events");
+        final List<IndexingEvent> events = events(0, 100);
+        try (final EventRecorder recorder = new EventRecorder(dir.getPath())) {
+            for (final IndexingEvent event : events) {
+                recorder.record(event);
+            }
+        }
+        assertEquals(1, logs(dir).length);
+        assertEquals(events, read(logs(dir)));
+    }
+
+    @Test
+    public void testRotate() throws IOException {
+        final File dir = folder.newFolder("events");
+        // every event starts a new file, and only the newest three are kept
+        try (final EventRecorder recorder = new EventRecorder(dir.getPath(), 1, 3, 100)) {
+            for (final IndexingEvent event : events(0, 5)) {
+                recorder.record(event);
+            }
+        }
+        final File[] logs = logs(dir);
+        assertEquals(3, logs.length);
+        assertEquals(events(2, 5), read(logs));
+    }
+
+    @Test
+    public void testResumeNumbering() throws IOException {
+        final File dir = folder.newFolder("events");
+        try (final EventRecorder recorder = new EventRecorder(dir.getPath())) {
+            recorder.record(events(0, 1).get(0));
+        }
+        try (final EventRecorder recorder = new EventRecorder(dir.getPath())) {
+            recorder.record(events(1, 2).get(0));
+        }
+        final File[] logs = logs(dir);
+        assertEquals(2, logs.length);
+        assertEquals(events(0, 2), read(logs));
+    }
+
+    @Test
+    public void testDroppedAfterClose() throws IOException {
+        final File dir = folder.newFolder("events");
+        final EventRecorder recorder = new EventRecorder(dir.getPath());
+        recorder.close();
+        recorder.record(events(0, 1).get(0));
+        assertEquals(0, logs(dir).length);
+    }
+
+    private static List<IndexingEvent> events(final int from, final int to) {
+        final List<IndexingEvent> events = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            events.add(new IndexingEvent("/r/" + i, BASE, CHANGED, "dc:title", 1445000000000L + i));
+        }
+        return events;
+    }
+
+    private static File[] logs(final File dir) {
+        final File[] logs = dir.listFiles();
+        Arrays.sort(logs);
+        return logs;
+    }
+
+    private static List<IndexingEvent> read(final File[] logs) throws IOException {
+        final List<IndexingEvent> events = new ArrayList<>();
+        for (final File log : logs) {
+            try (final EventLog.Reader reader = new EventLog.Reader(newInputStream(log.toPath()))) {
+                for (IndexingEvent event = reader.read(); event != null; event = reader.read()) {
+                    events.add(event);
+                }
+            }
+        }
+        return events;
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static com.google.common.collect.ImmutableMap.of;
+import static com.hp.hpl.jena.rdf.model.ModelFactory.createDefaultModel;
+import static java.util.Arrays.asList;
+import static java.util.UUID.randomUUID;
+import static org.fcrepo.indexer.FingerprintStore.fingerprint;
+import static org.fcrepo.indexer.SpooledContent.spool;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URI;
+
+import org.junit.Test;
+
+import com.hp.hpl.jena.rdf.model.Model;
+
+/**
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class FingerprintStoreTest {
+
+    private static final String INDEXER = "org.fcrepo.indexer.solr.SolrIndexer";
+
+    @Test
+    public void testRdfFingerprintIgnoresOrder() throws IOException {
+        final Model first = ntriples("<info:a> <info:p> \"1\" .\n<info:a> <info:q> <info:b> .\n");
+        final Model second = ntriples("<info:a> <info:q> <info:b> .\n<info:a> <info:p> \"1\" .\n");
+        final Model changed = ntriples("<info:a> <info:q> <info:b> .\n<info:a> <info:p> \"2\" .\n");
+        assertEquals(fingerprint(first), fingerprint(second));
+        assertNotEquals(fingerprint(first), fingerprint(changed));
+    }
+
+    @Test
+    public void testRdfWithBlankNodes() throws IOException {
+        assertNull(fingerprint(ntriples("<info:a> <info:p> _:b1 .\n")));
+    }
+
+    @Test
+    public void testNamedFieldsAndSpooledContent() throws IOException {
+        assertEquals(fingerprint(new NamedFields(of("title", asList("a", "b")))),
+                fingerprint(new NamedFields(of("title", asList("a", "b")))));
+        assertNotEquals(fingerprint(new NamedFields(of("title", asList("a", "b")))),
+                fingerprint(new NamedFields(of("title", asList("ab")))));
+        try (final SpooledContent content = spool(new ByteArrayInputStream("<sv:node/>".getBytes()))) {
+            assertEquals(fingerprint(content), fingerprint(content));
+        }
+        assertNull(fingerprint(null));
+    }
+
+    @Test
+    public void testPersistence() throws Exception {
+        final String file = new File("./target/fingerprints-" + randomUUID()).getAbsolutePath();
+        final URI a = new URI("http://localhost:8080/rest/a");
+        final URI b = new URI("http://localhost:8080/rest/b");
+        try (final FingerprintStore store = new FingerprintStore(file)) {
+            store.put(INDEXER, a, 1L);
+            store.put(INDEXER, b, 2L);
+            store.put(INDEXER, a, 3L);
+            store.remove(INDEXER, b);
+        }
+        try (final FingerprintStore store = new FingerprintStore(file)) {
+            assertEquals(1, store.size());
+            assertTrue(store.matches(INDEXER, a, 3L));
+            assertFalse(store.matches(INDEXER, a, 1L));
+            assertFalse(store.matches(INDEXER, b, 2L));
+            assertFalse(store.matches("other", a, 3L));
+        }
+    }
+
+    @Test
+    public void testOnlyLastDispatchedRecorded() throws Exception {
+        final FingerprintStore store = new FingerprintStore();
+        final URI a = new URI("http://localhost:8080/rest/a");
+        store.complete(INDEXER, a, store.dispatch(INDEXER, a), 1L);
+        assertTrue(store.matches(INDEXER, a, 1L));
+
+        // 2 is in flight, so 1 no longer matches, and 2 completing after 1 is sent again is ignored
+        final long second = store.dispatch(INDEXER, a);
+        assertFalse(store.matches(INDEXER, a, 1L));
+        final long third = store.dispatch(INDEXER, a);
+        store.complete(INDEXER, a, second, 2L);
+        assertFalse(store.matches(INDEXER, a, 2L));
+        store.complete(INDEXER, a, third, 1L);
+        assertTrue(store.matches(INDEXER, a, 1L));
+
+        // an update completing after a later removal is ignored
+        final long update = store.dispatch(INDEXER, a);
+        final long removal = store.dispatch(INDEXER, a);
+        store.complete(INDEXER, a, removal, null);
+        store.complete(INDEXER, a, update, 3L);
+        assertFalse(store.matches(INDEXER, a, 3L));
+        assertEquals(0, store.size());
+    }
+
+    private static Model ntriples(final String triples) {
+        return createDefaultModel().read(new StringReader(triples), null, "N-TRIPLE");
+    }
+}
@@ -29,24 +29,38 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
 import javax.jms.JMSException;
 import javax.jms.Message;
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.net.URI;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static javax.jcr.observation.Event.NODE_ADDED;
 import static javax.jcr.observation.Event.PROPERTY_CHANGED;
 import static org.fcrepo.kernel.api.RdfLexicon.REPOSITORY_NAMESPACE;
 import static org.junit.Assert.fail;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
@@ -141,6 +155,232 @@ public class IndexerGroupTest {
         verify(indexer,atLeastOnce()).update(eq(new URI(repoUrl)), any());
     }
 
+    @Test
+    public void testUnchangedContentSkipped() throws Exception {
+        when(indexer.getIndexerType()).thenReturn(Indexer.IndexerType.RDF);
+        doReturn(immediateFuture(null)).when(indexer).update(any(URI.class), any());
+        indexerGroup.setFingerprintStore(new FingerprintStore());
+        final String id = "/test4";
+        final String eventType = REPOSITORY_NAMESPACE + EventType.valueOf(PROPERTY_CHANGED).toString();
+        indexerGroup.onMessage(createIndexablePropertyMessage(eventType, id));
+        indexerGroup.onMessage(createIndexablePropertyMessage(eventType, id));
+        verify(indexer, times(1)).update(any(URI.class), any());
+
+        // a removal forgets the fingerprint, so the next update is sent
+        indexerGroup.onMessage(createIndexablePropertyMessage(IndexerGroup.REMOVAL_EVENT_TYPE, id));
+        indexerGroup.onMessage(createIndexablePropertyMessage(eventType, id));
+        verify(indexer, times(2)).update(any(URI.class), any());
+    }
+
+    @Test
+    public void testInterleavedUpdatesNotSkipped() throws Exception {
+        when(indexer.getIndexerType()).thenReturn(Indexer.IndexerType.RDF);
+        final SettableFuture<Object> first = SettableFuture.create();
+        final SettableFuture<Object> second = SettableFuture.create();
+        final SettableFuture<Object> third = SettableFuture.create();
+        doReturn(first).doReturn(second).doReturn(third).when(indexer).update(any(URI.class), any());
+        indexerGroup.setFingerprintStore(new FingerprintStore());
+        final String id = "/test9";
+        final String eventType = REPOSITORY_NAMESPACE + EventType.valueOf(PROPERTY_CHANGED).toString();
+        indexerGroup.onMessage(createMockMessage(false, eventType, id, true, "a", true));
+        first.set(null);
+
+        // a, then b and a again while b is in flight: the second a must not be skipped
+        indexerGroup.onMessage(createMockMessage(false, eventType, id, true, "b", true));
+        indexerGroup.onMessage(createMockMessage(false, eventType, id, true, "a", true));
+        verify(indexer, times(3)).update(any(URI.class), any());
+
+        // b completing last does not make a look unchanged, a completing last does
+        third.set(null);
+        second.set(null);
+        indexerGroup.onMessage(createMockMessage(false, eventType, id, true, "a", true));
+        verify(indexer, times(3)).update(any(URI.class), any());
+    }
+
+    @Test
+    public void testRemovalNotUndoneByEarlierUpdate() throws Exception {
+        when(indexer.getIndexerType()).thenReturn(Indexer.IndexerType.RDF);
+        final SettableFuture<Object> update = SettableFuture.create();
+        doReturn(update).when(indexer).update(any(URI.class), any());
+        indexerGroup.setFingerprintStore(new FingerprintStore());
+        final String id = "/test10";
+        final String eventType = REPOSITORY_NAMESPACE + EventType.valueOf(PROPERTY_CHANGED).toString();
+        indexerGroup.onMessage(createIndexablePropertyMessage(eventType, id));
+        indexerGroup.onMessage(createIndexablePropertyMessage(IndexerGroup.REMOVAL_EVENT_TYPE, id));
+        update.set(null);
+
+        // the resource is re-created with the same content after its removal
+        indexerGroup.onMessage(createIndexablePropertyMessage(eventType, id));
+        verify(indexer, times(2)).update(any(URI.class), any());
+    }
+
+    @Test
+    public void testReindexSendsUnchangedContent() throws Exception {
+        when(indexer.getIndexerType()).thenReturn(Indexer.IndexerType.RDF);
+        doReturn(immediateFuture(null)).when(indexer).update(any(URI.class), any());
+        indexerGroup.setFingerprintStore(new FingerprintStore());
+        final String id = "/test11";
+        final String eventType = REPOSITORY_NAMESPACE + EventType.valueOf(PROPERTY_CHANGED).toString();
+        indexerGroup.onMessage(createIndexablePropertyMessage(eventType, id));
+
+        // the index was wiped, so the unchanged content is sent again
+        mockContent(id, true, "default");
+        indexerGroup.reindex(new URI(repoUrl + id), false);
+        verify(indexer, times(2)).update(any(URI.class), any());
+
+        // reindexing recorded the fingerprint again, so the next unchanged update is skipped
+        indexerGroup.onMessage(createIndexablePropertyMessage(eventType, id));
+        verify(indexer, times(2)).update(any(URI.class), any());
+    }
+
+    @Test
+    public void testIndexersKnownByBeanName() throws Exception {
+        indexers = new HashSet<>();
+        indexers.add(namedIndexer("first"));
+        indexers.add(namedIndexer("second"));
+        indexerGroup = new IndexerGroup(indexers, httpClient);
+        indexerGroup.setFingerprintStore(new FingerprintStore());
+        final SlowEventLog log = new SlowEventLog(10);
+        indexerGroup.setSlowEventLog(log);
+        final String eventType = REPOSITORY_NAMESPACE + EventType.valueOf(PROPERTY_CHANGED).toString();
+        indexerGroup.onMessage(createIndexablePropertyMessage(eventType, "/test12"));
+
+        final Set<String> names = log.slowest().get(0).getIndexers().keySet();
+        assertEquals(new HashSet<>(asList("first", "second")), names);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnnamedIndexersOfSameClassNotFingerprinted() {
+        indexers = new HashSet<>();
+        indexers.add(unnamedIndexer());
+        indexers.add(unnamedIndexer());
+        indexerGroup = new IndexerGroup(indexers, httpClient);
+        indexerGroup.setFingerprintStore(new FingerprintStore());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Indexer<Object> namedIndexer(final String name) throws IOException {
+        final AsynchIndexer<Object, Object> named = mock(AsynchIndexer.class);
+        when(named.getBeanName()).thenReturn(name);
+        when(named.getIndexerType()).thenReturn(Indexer.IndexerType.RDF);
+        doReturn(immediateFuture(null)).when(named).update(any(URI.class), any());
+        return named;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Indexer<Object> unnamedIndexer() {
+        return (Indexer<Object>) (Indexer<?>) new TestIndexer();
+    }
+
+    @Test
+    public void testEventTraced() throws Exception {
+        when(indexer.getIndexerType()).thenReturn(Indexer.IndexerType.RDF);
+        final SettableFuture<Object> result = SettableFuture.create();
+        doReturn(result).when(indexer).update(any(URI.class), any());
+        final SlowEventLog log = new SlowEventLog(10);
+        indexerGroup.setSlowEventLog(log);
+        final String id = "/test5";
+        final String eventType = REPOSITORY_NAMESPACE + EventType.valueOf(PROPERTY_CHANGED).toString();
+        indexerGroup.onMessage(createIndexablePropertyMessage(eventType, id));
+
+        // the trace is complete only once the indexer has finished
+        assertTrue(log.slowest().isEmpty());
+        result.set(null);
+        final List<EventTrace> traces = log.slowest();
+        assertEquals(1, traces.size());
+        final EventTrace trace = traces.get(0);
+        assertEquals(new URI(repoUrl + id), trace.getUri());
+        assertEquals(eventType, trace.getEventType());
+        assertEquals("ok", trace.getIndexers().get(indexer.getClass().getName()).getStatus());
+        final Set<String> stages = new HashSet<>();
+        for (final EventTrace.Stage stage : trace.getStages()) {
+            stages.add(stage.getName());
+        }
+        assertTrue(stages.contains("rdf-head"));
+        assertTrue(stages.contains("rdf-get"));
+    }
+
+    @Test
+    public void testReindexTraced() throws Exception {
+        when(indexer.getIndexerType()).thenReturn(Indexer.IndexerType.RDF);
+        doReturn(immediateFuture(null)).when(indexer).update(any(URI.class), any());
+        final SlowEventLog log = new SlowEventLog(10);
+        indexerGroup.setSlowEventLog(log);
+        final String id = "/test13";
+        mockContent(id, true, "default");
+        indexerGroup.reindex(new URI(repoUrl + id), false);
+
+        final List<EventTrace> traces = log.slowest();
+        assertEquals(1, traces.size());
+        assertEquals(new URI(repoUrl + id), traces.get(0).getUri());
+        assertEquals("ok", traces.get(0).getIndexers().get(indexer.getClass().getName()).getStatus());
+    }
+
+    @Test
+    public void testEventRecorded() throws Exception {
+        when(indexer.getIndexerType()).thenReturn(Indexer.IndexerType.NO_CONTENT);
+        final EventRecorder recorder = mock(EventRecorder.class);
+        indexerGroup.setEventRecorder(recorder);
+        final String eventType = REPOSITORY_NAMESPACE + EventType.valueOf(PROPERTY_CHANGED).toString();
+        indexerGroup.onMessage(createIndexablePropertyMessage(eventType, "/test7"));
+        verify(recorder).record(new IndexingEvent("/test7", repoUrl, eventType, null, 0));
+    }
+
+    @Test
+    public void testHandleReturnsIndexerResults() throws Exception {
+        when(indexer.getIndexerType()).thenReturn(Indexer.IndexerType.RDF);
+        final SettableFuture<Object> result = SettableFuture.create();
+        doReturn(result).when(indexer).update(any(URI.class), any());
+        final String eventType = REPOSITORY_NAMESPACE + EventType.valueOf(PROPERTY_CHANGED).toString();
+        final ListenableFuture<List<Object>> handled =
+                indexerGroup.handle(createIndexablePropertyMessage(eventType, "/test6"));
+        assertFalse(handled.isDone());
+        result.setException(new IOException("Indexer failed"));
+        assertTrue(handled.isDone());
+        try {
+            handled.get();
+            fail("A failed indexer should fail the message!");
+        } catch (final ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+
+    @Test
+    public void testHandleInLiveLane() throws Exception {
+        when(indexer.getIndexerType()).thenReturn(Indexer.IndexerType.RDF);
+        final SettableFuture<Object> result = SettableFuture.create();
+        doReturn(result).when(indexer).update(any(URI.class), any());
+        final PriorityLanes lanes = new PriorityLanes(1, 1);
+        indexerGroup.setPriorityLanes(lanes);
+        try {
+            final String eventType = REPOSITORY_NAMESPACE + EventType.valueOf(PROPERTY_CHANGED).toString();
+            final ListenableFuture<List<Object>> handled =
+                    indexerGroup.handle(createIndexablePropertyMessage(eventType, "/test8"));
+            verify(indexer, timeout(5000)).update(any(URI.class), any());
+            assertFalse(handled.isDone());
+            result.set(null);
+            assertNotNull(handled.get(5, SECONDS));
+        } finally {
+            lanes.close();
+        }
+    }
+
+    @Test
+    public void testReindexInBulkLane() throws Exception {
+        mockContent("", true, null);
+        when(indexer.getIndexerType()).thenReturn(Indexer.IndexerType.RDF);
+        doReturn(immediateFuture(null)).when(indexer).update(any(URI.class), any());
+        final PriorityLanes lanes = new PriorityLanes(1, 1);
+        indexerGroup.setPriorityLanes(lanes);
+        try {
+            // returns once the resources have been indexed
+            indexerGroup.reindex(new URI(repoUrl), true);
+            verify(indexer, atLeastOnce()).update(eq(new URI(repoUrl)), any());
+        } finally {
+            lanes.close();
+        }
+    }
+
     private Message createUnindexableMessage(final String eventType, final String identifier) throws Exception {
         return createMockMessage(false, eventType, identifier, false, null, false);
     }
@@ -0,0 +1,106 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static org.fcrepo.indexer.Indexer.IndexerType.NO_CONTENT;
+import static org.fcrepo.indexer.IndexerMetrics.counter;
+import static org.fcrepo.indexer.IndexerMetrics.histogram;
+import static org.fcrepo.indexer.IndexerMetrics.meter;
+import static org.fcrepo.indexer.IndexerMetrics.timer;
+import static org.fcrepo.indexer.StageObserver.Stage.GET;
+import static org.fcrepo.indexer.StageObserver.Stage.PARSE;
+import static org.junit.Assert.assertEquals;
+
+import java.net.URI;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Test;
+
+/**
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class IndexerMetricsTest {
+
+    @Test
+    public void testIndexerOperationsMeasured() throws Exception {
+        final URI uri = new URI("info:test");
+        final CountingIndexer indexer = new CountingIndexer();
+        final long updates = timer(CountingIndexer.class, "update").getCount();
+        final long removals = timer(CountingIndexer.class, "remove").getCount();
+        final long errors = meter(CountingIndexer.class, "errors").getCount();
+
+        indexer.update(uri, "content").get();
+        indexer.update(uri, "content").get();
+        try {
+            indexer.remove(uri).get();
+        } catch (final ExecutionException e) {
+            // expected
+        }
+
+        assertEquals(updates + 2, timer(CountingIndexer.class, "update").getCount());
+        assertEquals(removals + 1, timer(CountingIndexer.class, "remove").getCount());
+        assertEquals(errors + 1, meter(CountingIndexer.class, "errors").getCount());
+        assertEquals("No operations should remain pending!", 0, counter(CountingIndexer.class, "pending").getCount());
+    }
+
+    @Test
+    public void testRetrievalStagesMeasured() {
+        final URI uri = URI.create("info:test");
+        final long gets = timer(RdfRetriever.class, "get").getCount();
+        final long parses = timer(RdfRetriever.class, "parse").getCount();
+        final long sizes = histogram(RdfRetriever.class, "bytes").getCount();
+
+        StageObservers.begin(GET, uri).bytes(100).end(false);
+        // the bytes parsed were already counted by the get
+        StageObservers.begin(PARSE, uri).bytes(100).end(true);
+
+        assertEquals(gets + 1, timer(RdfRetriever.class, "get").getCount());
+        assertEquals(parses + 1, timer(RdfRetriever.class, "parse").getCount());
+        assertEquals(sizes + 1, histogram(RdfRetriever.class, "bytes").getCount());
+    }
+
+    private static class CountingIndexer extends SynchIndexer<String, Void> {
+
+        @Override
+        public Callable<Void> updateSynch(final URI identifier, final String content) {
+            return new Callable<Void>() {
+
+                @Override
+                public Void call() {
+                    return null;
+                }
+            };
+        }
+
+        @Override
+        public Callable<Void> removeSynch(final URI identifier) {
+            return new Callable<Void>() {
+
+                @Override
+                public Void call() {
+                    throw new IllegalStateException("Expected.");
+                }
+            };
+        }
+
+        @Override
+        public IndexerType getIndexerType() {
+            return NO_CONTENT;
+        }
+    }
+}
@@ -80,7 +80,8 @@ public class JcrXmlRetrieverTest {
         when(mockEntity.getContent()).thenReturn(input);
 
         testRetriever = new JcrXmlRetriever(new URI(testId), mockClient);
-        final InputStream result = testRetriever.get();
+        final SpooledContent spooled = testRetriever.get();
+        final InputStream result = spooled.openStream();
         final ByteArrayOutputStream out = new ByteArrayOutputStream();
         int ch;
         while ((ch = result.read()) != -1) {
@@ -88,6 +89,7 @@ public class JcrXmlRetrieverTest {
         }
         out.close();
         result.close();
+        spooled.close();
         assertTrue("Didn't find our test triple!", out.toString().equals(testContent));
     }
 
@@ -0,0 +1,179 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static com.hp.hpl.jena.rdf.model.ModelFactory.createDefaultModel;
+import static com.hp.hpl.jena.rdf.model.ResourceFactory.createPlainLiteral;
+import static com.hp.hpl.jena.rdf.model.ResourceFactory.createProperty;
+import static com.hp.hpl.jena.rdf.model.ResourceFactory.createResource;
+import static com.hp.hpl.jena.vocabulary.RDF.type;
+import static org.apache.http.HttpStatus.SC_INTERNAL_SERVER_ERROR;
+import static org.apache.http.HttpStatus.SC_NOT_FOUND;
+import static org.apache.http.HttpStatus.SC_OK;
+import static java.util.Arrays.asList;
+import static org.fcrepo.kernel.api.RdfLexicon.REPOSITORY_NAMESPACE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.StatusLine;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+
+import com.google.common.io.CharStreams;
+import com.hp.hpl.jena.rdf.model.Model;
+
+/**
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class LocalLdpathTransformTest {
+
+    private static final String PROGRAM_BASE =
+            "http://localhost:8080/rest/fedora:system/fedora:transform/fedora:ldpath";
+
+    private static final String TEST_URI = "http://localhost:8080/rest/testLocalTransform";
+
+    @Mock
+    private HttpClient mockClient;
+
+    @Mock
+    private HttpResponse mockResponse;
+
+    @Mock
+    private HttpEntity mockEntity;
+
+    @Mock
+    private StatusLine mockStatusLine;
+
+    private Model rdf;
+
+    @Before
+    public void setUp() throws IOException {
+        initMocks(this);
+        when(mockClient.execute(any(HttpUriRequest.class))).thenReturn(mockResponse);
+        when(mockResponse.getEntity()).thenReturn(mockEntity);
+        when(mockResponse.getStatusLine()).thenReturn(mockStatusLine);
+        try (InputStream in = getClass().getResourceAsStream("/rdf/dublin_core.n3")) {
+            final String n3 = CharStreams.toString(new InputStreamReader(in, "UTF-8"))
+                    .replace("<>", "<" + TEST_URI + ">");
+            rdf = createDefaultModel().read(new StringReader(n3), "", "N3");
+        }
+        rdf.add(createResource(TEST_URI), type, createResource(REPOSITORY_NAMESPACE + "Container"));
+    }
+
+    @Test
+    public void testLocalTransform() throws Exception {
+        when(mockStatusLine.getStatusCode()).thenReturn(SC_OK);
+        when(mockEntity.getContent()).thenReturn(getClass().getResourceAsStream("/ldpath/dublin_core.ldpath"));
+
+        final LocalLdpathTransform transform = new LocalLdpathTransform(PROGRAM_BASE);
+        final NamedFields fields = transform.transform(rdf, new URI(TEST_URI), "dc", mockClient);
+        assertEquals("Easy Microwave Meals For Ghouls", fields.get("title").iterator().next());
+        assertEquals("Yubulac Xorhorisa", fields.get("author").iterator().next());
+
+        // the parsed program is reused
+        transform.transform(rdf, new URI(TEST_URI), "dc", mockClient);
+        verify(mockClient, times(1)).execute(any(HttpUriRequest.class));
+    }
+
+    @Test
+    public void testProgramTypeOrder() throws Exception {
+        rdf.add(createResource(TEST_URI), type, createResource(REPOSITORY_NAMESPACE + "Resource"));
+        rdf.add(createResource(TEST_URI), type, createResource(REPOSITORY_NAMESPACE + "Binary"));
+        rdf.add(createResource(TEST_URI), createProperty(REPOSITORY_NAMESPACE + "primaryType"),
+                createPlainLiteral("nt:folder"));
+        when(mockStatusLine.getStatusCode()).thenReturn(SC_NOT_FOUND);
+
+        assertNull(new LocalLdpathTransform(PROGRAM_BASE).transform(rdf, new URI(TEST_URI), "dc", mockClient));
+        final ArgumentCaptor<HttpUriRequest> requests = ArgumentCaptor.forClass(HttpUriRequest.class);
+        verify(mockClient, times(4)).execute(requests.capture());
+        final List<String> tried = new ArrayList<>();
+        for (final HttpUriRequest request : requests.getAllValues()) {
+            tried.add(request.getURI().toString().substring(PROGRAM_BASE.length() + 1));
+        }
+        // the primary type first, then the other types by name, then the type they all extend
+        assertEquals(asList("dc/nt:folder", "dc/fedora:Binary", "dc/fedora:Container", "dc/fedora:Resource"),
+                tried);
+    }
+
+    @Test
+    public void testProgramFetchedAgainAfterTtl() throws Exception {
+        when(mockStatusLine.getStatusCode()).thenReturn(SC_OK);
+        when(mockEntity.getContent()).thenReturn(getClass().getResourceAsStream("/ldpath/dublin_core.ldpath"),
+                getClass().getResourceAsStream("/ldpath/dublin_core.ldpath"));
+
+        final LocalLdpathTransform transform = new LocalLdpathTransform(PROGRAM_BASE, 0);
+        transform.transform(rdf, new URI(TEST_URI), "dc", mockClient);
+        final NamedFields fields = transform.transform(rdf, new URI(TEST_URI), "dc", mockClient);
+        assertEquals("Easy Microwave Meals For Ghouls", fields.get("title").iterator().next());
+        verify(mockClient, times(2)).execute(any(HttpUriRequest.class));
+    }
+
+    @Test
+    public void testNoProgram() throws Exception {
+        when(mockStatusLine.getStatusCode()).thenReturn(SC_NOT_FOUND);
+        final LocalLdpathTransform transform = new LocalLdpathTransform(PROGRAM_BASE);
+        assertNull(transform.transform(rdf, new URI(TEST_URI), "dc", mockClient));
+    }
+
+    @Test
+    public void testProgramUnavailable() throws Exception {
+        when(mockStatusLine.getStatusCode()).thenReturn(SC_INTERNAL_SERVER_ERROR, SC_OK);
+        when(mockEntity.getContent()).thenReturn(getClass().getResourceAsStream("/ldpath/dublin_core.ldpath"));
+
+        // left for the repository to transform
+        final LocalLdpathTransform transform = new LocalLdpathTransform(PROGRAM_BASE);
+        assertNull(transform.transform(rdf, new URI(TEST_URI), "dc", mockClient));
+
+        // the failure is not remembered
+        final NamedFields fields = transform.transform(rdf, new URI(TEST_URI), "dc", mockClient);
+        assertEquals("Easy Microwave Meals For Ghouls", fields.get("title").iterator().next());
+    }
+
+    @Test
+    public void testProgramTimeout() throws Exception {
+        when(mockClient.execute(any(HttpUriRequest.class))).thenThrow(new SocketTimeoutException("Read timed out"));
+        assertNull(new LocalLdpathTransform(PROGRAM_BASE).transform(rdf, new URI(TEST_URI), "dc", mockClient));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testBadProgram() throws Exception {
+        when(mockStatusLine.getStatusCode()).thenReturn(SC_OK);
+        when(mockEntity.getContent()).thenReturn(new ByteArrayInputStream("title = ".getBytes("UTF-8")));
+        new LocalLdpathTransform(PROGRAM_BASE).transform(rdf, new URI(TEST_URI), "dc", mockClient);
+    }
+}
@@ -0,0 +1,182 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static javax.jms.Session.AUTO_ACKNOWLEDGE;
+import static org.fcrepo.indexer.IndexerGroup.IDENTIFIER_HEADER_NAME;
+import static org.fcrepo.indexer.MessageGroupPlugin.groupOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageListener;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerPlugin;
+import org.apache.activemq.broker.BrokerService;
+import org.apache.activemq.broker.region.DestinationInterceptor;
+import org.apache.activemq.broker.region.policy.PolicyEntry;
+import org.apache.activemq.broker.region.policy.PolicyMap;
+import org.apache.activemq.broker.region.virtual.VirtualDestination;
+import org.apache.activemq.broker.region.virtual.VirtualDestinationInterceptor;
+import org.apache.activemq.broker.region.virtual.VirtualTopic;
+import org.apache.activemq.command.ActiveMQQueue;
+import org.apache.activemq.command.ActiveMQTopic;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class MessageGroupPluginTest {
+
+    private static final int RESOURCES = 20;
+
+    private static final int EVENTS = 10;
+
+    private BrokerService broker;
+
+    private final List<Connection> connections = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        final VirtualTopic virtualTopic = new VirtualTopic();
+        virtualTopic.setName("fedora");
+        virtualTopic.setPrefix("Consumer.*.");
+        final VirtualDestinationInterceptor interceptor = new VirtualDestinationInterceptor();
+        interceptor.setVirtualDestinations(new VirtualDestination[] { virtualTopic });
+
+        // wait for both consumers, so that groups are shared between them
+        final PolicyEntry policy = new PolicyEntry();
+        policy.setQueue(">");
+        policy.setConsumersBeforeDispatchStarts(2);
+        policy.setTimeBeforeDispatchStarts(5000);
+        final PolicyMap policies = new PolicyMap();
+        policies.setDefaultEntry(policy);
+
+        broker = new BrokerService();
+        broker.setBrokerName("groups");
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.setDestinationInterceptors(new DestinationInterceptor[] { interceptor });
+        broker.setDestinationPolicy(policies);
+        broker.setPlugins(new BrokerPlugin[] { new MessageGroupPlugin() });
+        broker.start();
+        broker.waitUntilStarted();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (final Connection connection : connections) {
+            connection.close();
+        }
+        broker.stop();
+        broker.waitUntilStopped();
+    }
+
+    @Test
+    public void testGroupOf() {
+        assertEquals("/a/b/c", groupOf("/a/b/c", 0));
+        assertEquals("/a/b/c", groupOf("/a/b/c/", 0));
+        assertEquals("/a/b/c", groupOf("/a/b/c#hash", 0));
+        assertEquals("/a/b/c", groupOf("/a/b/c/fcr:metadata", 0));
+        assertEquals("/a", groupOf("/a/b/c", 1));
+        assertEquals("/a/b", groupOf("/a/b/c", 2));
+        assertEquals("/a/b/c", groupOf("/a/b/c", 5));
+        assertEquals("/", groupOf("/", 1));
+    }
+
+    @Test
+    public void testResourceOrderedOnOneConsumer() throws Exception {
+        final CountDownLatch received = new CountDownLatch(RESOURCES * EVENTS);
+        final Map<String, List<Integer>> first = new HashMap<>();
+        final Map<String, List<Integer>> second = new HashMap<>();
+        consume(first, received);
+        consume(second, received);
+
+        final Connection connection = connect();
+        final Session session = connection.createSession(false, AUTO_ACKNOWLEDGE);
+        final MessageProducer producer = session.createProducer(new ActiveMQTopic("fedora"));
+        for (int event = 0; event < EVENTS; event++) {
+            for (int resource = 0; resource < RESOURCES; resource++) {
+                final Message message = session.createMessage();
+                message.setStringProperty(IDENTIFIER_HEADER_NAME, "/resource" + resource);
+                message.setIntProperty("event", event);
+                producer.send(message);
+            }
+        }
+        assertTrue("Not every event was received!", received.await(30, SECONDS));
+
+        assertFalse("Every resource was sent to the same consumer!", first.isEmpty() || second.isEmpty());
+        for (int resource = 0; resource < RESOURCES; resource++) {
+            final String id = "/resource" + resource;
+            assertTrue(id + " was sent to both consumers!", first.containsKey(id) ^ second.containsKey(id));
+            final List<Integer> events = first.containsKey(id) ? first.get(id) : second.get(id);
+            assertEquals(EVENTS, events.size());
+            for (int event = 0; event < EVENTS; event++) {
+                assertEquals("Events of " + id + " out of order!", Integer.valueOf(event), events.get(event));
+            }
+        }
+    }
+
+    private void consume(final Map<String, List<Integer>> events, final CountDownLatch received)
+            throws JMSException {
+        final Session session = connect().createSession(false, AUTO_ACKNOWLEDGE);
+        session.createConsumer(new ActiveMQQueue("Consumer.indexer.fedora")).setMessageListener(
+                new MessageListener() {
+
+                    @Override
+                    public void onMessage(final Message message) {
+                        try {
+                            // keyed by group, which should be the resource
+                            final String group = message.getStringProperty("JMSXGroupID");
+                            synchronized (events) {
+                                if (!events.containsKey(group)) {
+                                    events.put(group, new ArrayList<Integer>());
+                                }
+                                events.get(group).add(message.getIntProperty("event"));
+                            }
+                            received.countDown();
+                        } catch (final JMSException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                });
+    }
+
+    private Connection connect() throws JMSException {
+        final ActiveMQConnectionFactory factory = new ActiveMQConnectionFactory("vm://groups?create=false");
+        factory.getPrefetchPolicy().setQueuePrefetch(1);
+        final Connection connection = factory.createConnection();
+        connections.add(connection);
+        connection.start();
+        return connection;
+    }
+}
@@ -15,12 +15,15 @@
  */
 package org.fcrepo.indexer;
 
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.util.ArrayList;
 
 import org.junit.Test;
 import org.slf4j.Logger;
@@ -68,4 +71,28 @@ public class NamedFieldsDeserializerTest {
         }
     }
 
+    @Test
+    public void testReadMultipleFieldsAndValues() throws IOException {
+        final String fakeJson = "[{\"id\" : [\"testUri\"], \"title\" : [\"a\", \"b\"], "
+                + "\"size\" : [42, 1.5], \"flag\" : [true], \"empty\" : [null]},"
+                + "{\"ignored\" : [\"x\"]}]";
+        try (JsonReader jr = new JsonReader(new StringReader(fakeJson))) {
+            final NamedFields results = new NamedFieldsDeserializer().read(jr);
+            LOGGER.debug("Received results: {}", results);
+            assertEquals(5, results.size());
+            assertEquals(asList("a", "b"), new ArrayList<>(results.get("title")));
+            assertEquals(asList("42", "1.5"), new ArrayList<>(results.get("size")));
+            assertEquals(asList("true"), new ArrayList<>(results.get("flag")));
+            assertTrue(results.get("empty").isEmpty());
+            assertTrue(!results.containsKey("ignored"));
+        }
+    }
+
+    @Test
+    public void testReadEmptyResults() throws IOException {
+        try (JsonReader jr = new JsonReader(new StringReader("[]"))) {
+            assertTrue(new NamedFieldsDeserializer().read(jr).isEmpty());
+        }
+    }
+
 }
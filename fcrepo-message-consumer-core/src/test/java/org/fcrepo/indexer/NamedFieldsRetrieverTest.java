@@ -21,8 +21,13 @@ import static com.hp.hpl.jena.rdf.model.ModelFactory.createDefaultModel;
 import static org.apache.http.HttpStatus.SC_NOT_FOUND;
 import static org.apache.http.HttpStatus.SC_OK;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -46,12 +51,15 @@ import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.StatusLine;
 import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpHead;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.slf4j.Logger;
 
+import com.google.common.base.Suppliers;
 import com.google.common.io.CharStreams;
 import com.hp.hpl.jena.graph.Triple;
 import com.hp.hpl.jena.rdf.model.Model;
@@ -157,6 +165,93 @@ public class NamedFieldsRetrieverTest {
         assertEquals(testUri, results.get("id").iterator().next());
     }
 
+    @Test
+    public void testCachedTransform() throws Exception {
+        final String testUri = "indexing:testCachedTransform";
+        final String testRdf = dc_rdf.replace("<>", "<" + testUri + ">");
+        try (Reader r = new StringReader(testRdf)) {
+            final Model mockRdf = createDefaultModel().read(r, "", "N3");
+            when(mockRetriever.get()).thenReturn(mockRdf);
+        }
+        when(mockStatusLine.getStatusCode()).thenReturn(SC_OK);
+        final Header etag = mock(Header.class);
+        when(etag.getValue()).thenReturn("\"v1\"");
+        when(mockResponse.getFirstHeader("ETag")).thenReturn(etag);
+        final String fakeJson = "[{\"id\" : [\"" + testUri + "\"]}]";
+        when(mockEntity.getContent()).thenReturn(new ByteArrayInputStream(fakeJson.getBytes()));
+
+        final TransformCache cache = new TransformCache();
+        final NamedFields first =
+            new NamedFieldsRetriever(new URI(testUri), mockClient, mockRetriever, cache).get();
+        final NamedFields second =
+            new NamedFieldsRetriever(new URI(testUri), mockClient, mockRetriever, cache).get();
+        assertSame("Transform result wasn't reused!", first, second);
+        assertEquals(1, transformRequests());
+
+        // a new ETag means the resource changed and must be transformed again
+        when(etag.getValue()).thenReturn("\"v2\"");
+        when(mockEntity.getContent()).thenReturn(new ByteArrayInputStream(fakeJson.getBytes()));
+        new NamedFieldsRetriever(new URI(testUri), mockClient, mockRetriever, cache).get();
+        assertEquals(2, transformRequests());
+    }
+
+    @Test
+    public void testCachedTransformWithRetrievedEtag() throws Exception {
+        final String testUri = "indexing:testCachedTransformWithRetrievedEtag";
+        final String testRdf = dc_rdf.replace("<>", "<" + testUri + ">");
+        try (Reader r = new StringReader(testRdf)) {
+            final Model mockRdf = createDefaultModel().read(r, "", "N3");
+            when(mockRetriever.get()).thenReturn(mockRdf);
+        }
+        when(mockStatusLine.getStatusCode()).thenReturn(SC_OK);
+        final String fakeJson = "[{\"id\" : [\"" + testUri + "\"]}]";
+        when(mockEntity.getContent()).thenReturn(new ByteArrayInputStream(fakeJson.getBytes()));
+
+        final TransformCache cache = new TransformCache();
+        final NamedFields first = new NamedFieldsRetriever(new URI(testUri), mockClient, mockRetriever,
+                Suppliers.ofInstance("\"v1\""), cache, null).get();
+        final NamedFields second = new NamedFieldsRetriever(new URI(testUri), mockClient, mockRetriever,
+                Suppliers.ofInstance("\"v1\""), cache, null).get();
+        assertSame("Transform result wasn't reused!", first, second);
+        assertEquals(1, transformRequests());
+        // the ETag of the retrieved RDF is used, so the resource is not asked for its own
+        verify(mockClient, never()).execute(isA(HttpHead.class));
+    }
+
+    @Test
+    public void testCachedTransformExpires() throws Exception {
+        final String testUri = "indexing:testCachedTransformExpires";
+        final String testRdf = dc_rdf.replace("<>", "<" + testUri + ">");
+        try (Reader r = new StringReader(testRdf)) {
+            final Model mockRdf = createDefaultModel().read(r, "", "N3");
+            when(mockRetriever.get()).thenReturn(mockRdf);
+        }
+        when(mockStatusLine.getStatusCode()).thenReturn(SC_OK);
+        final String fakeJson = "[{\"id\" : [\"" + testUri + "\"]}]";
+        when(mockEntity.getContent()).thenReturn(new ByteArrayInputStream(fakeJson.getBytes()),
+                new ByteArrayInputStream(fakeJson.getBytes()));
+
+        // e.g. the program was edited, which does not change the resource's ETag
+        final TransformCache cache = new TransformCache(TransformCache.DEFAULT_MAXIMUM_SIZE, 0);
+        new NamedFieldsRetriever(new URI(testUri), mockClient, mockRetriever,
+                Suppliers.ofInstance("\"v1\""), cache, null).get();
+        new NamedFieldsRetriever(new URI(testUri), mockClient, mockRetriever,
+                Suppliers.ofInstance("\"v1\""), cache, null).get();
+        assertEquals(2, transformRequests());
+    }
+
+    private int transformRequests() throws IOException {
+        final ArgumentCaptor<HttpUriRequest> requests = ArgumentCaptor.forClass(HttpUriRequest.class);
+        verify(mockClient, atLeastOnce()).execute(requests.capture());
+        int count = 0;
+        for (final HttpUriRequest request : requests.getAllValues()) {
+            if (request.getURI().toString().contains("/fcr:transform/")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     @Test
     public void testTransformPropertyLookup() throws Exception {
         final String testUri = "indexing:goodTransform";
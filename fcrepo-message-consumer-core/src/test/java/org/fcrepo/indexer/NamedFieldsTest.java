@@ -0,0 +1,96 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static com.google.common.collect.ImmutableMap.of;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class NamedFieldsTest {
+
+    private final NamedFields fields = new NamedFields(of(
+            "title", (Collection<String>) asList("a title"),
+            "creator", (Collection<String>) asList("one", "two")));
+
+    @Test
+    public void testBehavesAsMap() {
+        final Map<String, Collection<String>> expected = new HashMap<>();
+        expected.put("title", asList("a title"));
+        expected.put("creator", asList("one", "two"));
+        assertEquals(2, fields.size());
+        assertEquals(asList("one", "two"), new ArrayList<>(fields.get("creator")));
+        assertTrue(fields.containsKey("title"));
+        assertFalse(fields.containsKey("missing"));
+        assertNull(fields.get("missing"));
+        assertEquals(expected.keySet(), fields.keySet());
+        assertTrue(new NamedFields().isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutable() {
+        fields.put("id", asList("x"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutableValues() {
+        fields.get("title").add("another title");
+    }
+
+    @Test
+    public void testWithNewField() {
+        final NamedFields withId = fields.withField("id", asList("info:test"));
+        assertEquals(3, withId.size());
+        assertEquals("info:test", withId.get("id").iterator().next());
+        assertEquals(asList("one", "two"), new ArrayList<>(withId.get("creator")));
+        assertFalse("Original fields were modified!", fields.containsKey("id"));
+    }
+
+    @Test
+    public void testWithReplacedField() {
+        final NamedFields replaced = fields.withField("title", asList("new title"));
+        assertEquals(2, replaced.size());
+        assertEquals("new title", replaced.get("title").iterator().next());
+        assertEquals("a title", fields.get("title").iterator().next());
+    }
+
+    @Test
+    public void testFieldNamesInterned() {
+        final String name = new String(new char[] {'t', 'i', 't', 'l', 'e'});
+        final NamedFields other = new NamedFields(of(name, (Collection<String>) asList("x")));
+        String original = null;
+        for (final String key : fields.keySet()) {
+            if (key.equals("title")) {
+                original = key;
+            }
+        }
+        assertSame(original, other.keySet().iterator().next());
+    }
+}
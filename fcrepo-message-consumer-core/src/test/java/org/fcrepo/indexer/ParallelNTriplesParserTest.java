@@ -0,0 +1,87 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static com.hp.hpl.jena.rdf.model.ModelFactory.createDefaultModel;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.hp.hpl.jena.rdf.model.Model;
+
+/**
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class ParallelNTriplesParserTest {
+
+    private static final int TRIPLES = 20000;
+
+    private ParallelNTriplesParser parser;
+
+    @Before
+    public void setUp() {
+        parser = new ParallelNTriplesParser(4, 1);
+    }
+
+    @After
+    public void tearDown() {
+        parser.shutdown();
+    }
+
+    @Test
+    public void testParallelParseMatchesSerialParse() {
+        final byte[] payload = nTriples(false);
+        final Model expected = createDefaultModel().read(new ByteArrayInputStream(payload), null, "N-TRIPLE");
+        final Model result = parser.parse(payload);
+        assertEquals("Wrong number of triples!", TRIPLES, result.size());
+        assertTrue("Parallel parse differs from serial parse!", result.isIsomorphicWith(expected));
+    }
+
+    @Test
+    public void testBlankNodesParsedSerially() {
+        final byte[] payload = nTriples(true);
+        final Model result = parser.parse(payload);
+        assertEquals("Wrong number of triples!", TRIPLES, result.size());
+        assertEquals("Blank node labels were not shared across the document!", 1,
+                result.listSubjects().toList().size());
+    }
+
+    @Test
+    public void testSmallPayloadParsedSerially() {
+        final ParallelNTriplesParser serial = new ParallelNTriplesParser(4, Integer.MAX_VALUE);
+        try {
+            assertEquals("Wrong number of triples!", TRIPLES, serial.parse(nTriples(false)).size());
+        } finally {
+            serial.shutdown();
+        }
+    }
+
+    private static byte[] nTriples(final boolean blankSubject) {
+        final StringBuilder b = new StringBuilder();
+        for (int i = 0; i < TRIPLES; i++) {
+            b.append(blankSubject ? "_:b0" : "<http://localhost:8080/rest/collection/" + (i % 100) + ">")
+                .append(" <http://purl.org/dc/elements/1.1/title> \"title ")
+                .append(i).append("\" .\n");
+        }
+        return b.toString().getBytes();
+    }
+}
@@ -0,0 +1,189 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static com.google.common.util.concurrent.Futures.allAsList;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import org.fcrepo.indexer.PriorityLanes.Lane;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class PriorityLanesTest {
+
+    private PriorityLanes lanes;
+
+    private final List<String> started = Collections.synchronizedList(new ArrayList<String>());
+
+    @Before
+    public void setUp() {
+        // one job at a time, so the order jobs start in is the order they are scheduled
+        lanes = new PriorityLanes(1, 1);
+    }
+
+    @After
+    public void tearDown() {
+        lanes.close();
+    }
+
+    @Test
+    public void testWeightedRoundRobin() throws Exception {
+        lanes.setLiveWeight(2);
+        lanes.setCascadeWeight(1);
+        lanes.setBulkWeight(1);
+        final SettableFuture<String> blocker = block();
+
+        final List<ListenableFuture<String>> jobs = new ArrayList<>();
+        jobs.add(lanes.submit(Lane.BULK, "B1", job("B1")));
+        jobs.add(lanes.submit(Lane.BULK, "B2", job("B2")));
+        jobs.add(lanes.submit(Lane.BULK, "B3", job("B3")));
+        jobs.add(lanes.submit(Lane.LIVE, "L1", job("L1")));
+        jobs.add(lanes.submit(Lane.LIVE, "L2", job("L2")));
+        jobs.add(lanes.submit(Lane.LIVE, "L3", job("L3")));
+        jobs.add(lanes.submit(Lane.CASCADE, "C1", job("C1")));
+        blocker.set("blocker");
+        allAsList(jobs).get(5, SECONDS);
+
+        // the blocker used the bulk lane's turn in the first round
+        assertEquals(asList("blocker", "L1", "L2", "C1", "L3", "B1", "B2", "B3"), started);
+    }
+
+    @Test
+    public void testLateLiveJobGoesFirst() throws Exception {
+        // by weight alone, the bulk lane would start more jobs than the live lane
+        lanes.setLiveWeight(1);
+        lanes.setBulkWeight(4);
+        lanes.setLiveLatencyTarget(1);
+        final SettableFuture<String> blocker = block();
+
+        final List<ListenableFuture<String>> jobs = new ArrayList<>();
+        jobs.add(lanes.submit(Lane.BULK, "B1", job("B1")));
+        jobs.add(lanes.submit(Lane.BULK, "B2", job("B2")));
+        jobs.add(lanes.submit(Lane.LIVE, "L1", job("L1")));
+        jobs.add(lanes.submit(Lane.LIVE, "L2", job("L2")));
+        Thread.sleep(20);
+        blocker.set("blocker");
+        allAsList(jobs).get(5, SECONDS);
+
+        assertEquals(asList("blocker", "L1", "L2", "B1", "B2"), started);
+    }
+
+    @Test
+    public void testSlotHeldUntilIndexed() throws Exception {
+        final SettableFuture<String> blocker = block();
+        final ListenableFuture<String> next = lanes.submit(Lane.LIVE, "L1", job("L1"));
+        Thread.sleep(20);
+        assertEquals(asList("blocker"), started);
+        blocker.set("blocker");
+        assertEquals("L1", next.get(5, SECONDS));
+    }
+
+    @Test
+    public void testFailedJobReleasesSlot() throws Exception {
+        final ListenableFuture<String> failed = lanes.submit(Lane.LIVE, "L1", new Callable<ListenableFuture<String>>() {
+
+            @Override
+            public ListenableFuture<String> call() throws IOException {
+                throw new IOException("Unable to retrieve resource");
+            }
+        });
+        try {
+            failed.get(5, SECONDS);
+            fail("The job should have failed!");
+        } catch (final ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        assertEquals("B1", lanes.submit(Lane.BULK, "B1", job("B1")).get(5, SECONDS));
+    }
+
+    @Test
+    public void testJobsForResourceRunInOrder() throws Exception {
+        lanes.close();
+        lanes = new PriorityLanes(2, 2);
+        final SettableFuture<String> update = SettableFuture.create();
+        final CountDownLatch running = new CountDownLatch(1);
+        lanes.submit(Lane.BULK, "/a", new Callable<ListenableFuture<String>>() {
+
+            @Override
+            public ListenableFuture<String> call() {
+                started.add("update /a");
+                running.countDown();
+                return update;
+            }
+        });
+        assertTrue(running.await(5, SECONDS));
+
+        // the removal waits for the update of the same resource, despite its lane and the free slot
+        final ListenableFuture<String> removal = lanes.submit(Lane.LIVE, "/a", job("remove /a"));
+        assertEquals("update /b", lanes.submit(Lane.LIVE, "/b", job("update /b")).get(5, SECONDS));
+        assertEquals(asList("update /a", "update /b"), started);
+
+        update.set("update /a");
+        assertEquals("remove /a", removal.get(5, SECONDS));
+        assertEquals(asList("update /a", "update /b", "remove /a"), started);
+    }
+
+    /**
+     * Start a job that holds the only slot until the returned future is set.
+     */
+    private SettableFuture<String> block() throws InterruptedException {
+        final SettableFuture<String> blocker = SettableFuture.create();
+        final CountDownLatch running = new CountDownLatch(1);
+        lanes.submit(Lane.BULK, "blocker", new Callable<ListenableFuture<String>>() {
+
+            @Override
+            public ListenableFuture<String> call() {
+                started.add("blocker");
+                running.countDown();
+                return blocker;
+            }
+        });
+        assertTrue(running.await(5, SECONDS));
+        return blocker;
+    }
+
+    private Callable<ListenableFuture<String>> job(final String name) {
+        return new Callable<ListenableFuture<String>>() {
+
+            @Override
+            public ListenableFuture<String> call() {
+                started.add(name);
+                return immediateFuture(name);
+            }
+        };
+    }
+}
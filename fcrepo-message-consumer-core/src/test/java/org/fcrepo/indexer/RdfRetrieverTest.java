@@ -21,7 +21,10 @@ import static com.hp.hpl.jena.rdf.model.ModelFactory.createDefaultModel;
 import static org.apache.http.HttpStatus.SC_FORBIDDEN;
 import static org.apache.http.HttpStatus.SC_NOT_FOUND;
 import static org.apache.http.HttpStatus.SC_OK;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.any;
@@ -33,6 +36,7 @@ import java.io.InputStream;
 import java.io.StringWriter;
 import java.net.URI;
 import java.net.URISyntaxException;
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.StatusLine;
@@ -97,6 +101,42 @@ public class RdfRetrieverTest {
                 .asStatement(testTriple)));
     }
 
+    @Test
+    public void testEtagRetrieved() throws Exception {
+        when(mockStatusLine.getStatusCode()).thenReturn(SC_OK);
+        when(mockEntity.getContent()).thenReturn(new ByteArrayInputStream(new byte[0]));
+        when(mockEntity.getContentLength()).thenReturn(0L);
+        final Header etag = mock(Header.class);
+        when(etag.getValue()).thenReturn("W/\"v1\"");
+        when(mockResponse.getFirstHeader("ETag")).thenReturn(etag);
+
+        testRetriever = new RdfRetriever(new URI("testEtagRetrieved"), mockClient);
+        assertNull(testRetriever.etag().get());
+        testRetriever.get();
+        assertEquals("W/\"v1\"", testRetriever.etag().get());
+    }
+
+    @Test
+    public void testParallelParserRetrieval() throws Exception {
+        final String testId = "testParallelParserRetrieval";
+        final Model input = createDefaultModel();
+        input.add(input.asStatement(testTriple));
+        when(mockStatusLine.getStatusCode()).thenReturn(SC_OK);
+        try (StringWriter w = new StringWriter()) {
+            input.write(w, "N-TRIPLE");
+            when(mockEntity.getContent()).thenReturn(new ByteArrayInputStream(w.toString().getBytes()));
+        }
+        when(mockEntity.getContentLength()).thenReturn(-1L);
+
+        final ParallelNTriplesParser parser = new ParallelNTriplesParser(2, 1);
+        try {
+            final Model result = new RdfRetriever(new URI(testId), mockClient, parser).get();
+            assertTrue("Didn't find our test triple!", result.contains(result.asStatement(testTriple)));
+        } finally {
+            parser.shutdown();
+        }
+    }
+
     @Test(expected = RuntimeException.class)
     public void testFailedRetrieval() throws URISyntaxException {
         final String testId = "testFailedRetrieval";
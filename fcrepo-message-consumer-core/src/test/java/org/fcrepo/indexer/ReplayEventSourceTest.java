@@ -0,0 +1,129 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static java.lang.System.currentTimeMillis;
+import static java.nio.file.Files.newOutputStream;
+import static org.fcrepo.indexer.IndexerMetrics.meter;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class ReplayEventSourceTest {
+
+    private static final String BASE = "http://localhost:8080/rest";
+
+    private static final String CHANGED = "http://fedora.info/definitions/v4/repository#PROPERTY_CHANGED";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private IndexerGroup indexerGroup;
+
+    private final ListenableFuture<List<Object>> indexed = immediateFuture(Collections.<Object>emptyList());
+
+    @Before
+    public void setUp() throws Exception {
+        initMocks(this);
+        when(indexerGroup.handle(any(IndexingEvent.class))).thenReturn(indexed);
+    }
+
+    @Test
+    public void testReplayInOrder() throws Exception {
+        final File logs = folder.newFolder("logs");
+        write(new File(logs, "events-2.log"), event("/c", 1445000000300L));
+        write(new File(logs, "events-1.log"), event("/a", 1445000000000L), event("/b", 1445000000100L));
+
+        assertEquals(3, new ReplayEventSource(logs.toPath()).feed(indexerGroup));
+
+        final InOrder order = inOrder(indexerGroup);
+        // replayed without their recorded timestamps
+        order.verify(indexerGroup).handle(new IndexingEvent("/a", BASE, CHANGED, null, 0));
+        order.verify(indexerGroup).handle(new IndexingEvent("/b", BASE, CHANGED, null, 0));
+        order.verify(indexerGroup).handle(new IndexingEvent("/c", BASE, CHANGED, null, 0));
+    }
+
+    @Test
+    public void testReplayAtRecordedCadence() throws Exception {
+        final File log = folder.newFile("events.log");
+        write(log, event("/a", 1445000000000L), event("/b", 1445000000200L), event("/c", 1445000000400L));
+
+        final ReplayEventSource source = new ReplayEventSource(log.toPath());
+        source.setSpeed(2);
+        final long start = currentTimeMillis();
+        assertEquals(3, source.feed(indexerGroup));
+        final long elapsed = currentTimeMillis() - start;
+        assertTrue("Replayed too fast: " + elapsed + "ms", elapsed >= 190);
+    }
+
+    @Test
+    public void testFailedEventSkipped() throws Exception {
+        final File log = folder.newFile("events.log");
+        write(log, event("/a", 1445000000000L), event("/b", 1445000000100L), event("/c", 1445000000200L));
+        when(indexerGroup.handle(new IndexingEvent("/b", BASE, CHANGED, null, 0))).thenThrow(
+                new RuntimeException("Retrieval returned 404"));
+        final long failed = meter(ReplayEventSource.class, "failed").getCount();
+
+        assertEquals(2, new ReplayEventSource(log.toPath()).feed(indexerGroup));
+
+        final InOrder order = inOrder(indexerGroup);
+        order.verify(indexerGroup).handle(new IndexingEvent("/a", BASE, CHANGED, null, 0));
+        order.verify(indexerGroup).handle(new IndexingEvent("/b", BASE, CHANGED, null, 0));
+        order.verify(indexerGroup).handle(new IndexingEvent("/c", BASE, CHANGED, null, 0));
+        assertEquals(failed + 1, meter(ReplayEventSource.class, "failed").getCount());
+    }
+
+    @Test
+    public void testEmptyLogSkipped() throws Exception {
+        final File log = folder.newFile("empty.log");
+        assertEquals(0, new ReplayEventSource(log.toPath()).feed(indexerGroup));
+    }
+
+    private static IndexingEvent event(final String identifier, final long timestamp) {
+        return new IndexingEvent(identifier, BASE, CHANGED, null, timestamp);
+    }
+
+    private static void write(final File file, final IndexingEvent... events) throws IOException {
+        try (final EventLog.Writer writer = new EventLog.Writer(newOutputStream(file.toPath()))) {
+            for (final IndexingEvent event : events) {
+                writer.write(event);
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+import org.junit.Test;
+
+/**
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class ResourceOrderingTest {
+
+    private final ResourceOrdering ordering = new ResourceOrdering();
+
+    private final List<String> ran = new ArrayList<>();
+
+    /**
+     * Holds the tasks given to it, to be run by the test.
+     */
+    private final List<Runnable> given = new ArrayList<>();
+
+    private final Executor executor = new Executor() {
+
+        @Override
+        public void execute(final Runnable task) {
+            given.add(task);
+        }
+    };
+
+    @Test
+    public void testEarlierOperationSkipped() throws Exception {
+        final Callable<String> older = ordering.ordered("/a", operation("older"), "skipped");
+        final Callable<String> newer = ordering.ordered("/a", operation("newer"), "skipped");
+        final Callable<String> other = ordering.ordered("/b", operation("other"), "skipped");
+        assertEquals("skipped", older.call());
+        assertEquals("newer", newer.call());
+        assertEquals("other", other.call());
+
+        // once every planned operation has run, the next is not skipped
+        assertEquals("latest", ordering.ordered("/a", operation("latest"), "skipped").call());
+        assertEquals(asList("newer", "other", "latest"), ran);
+    }
+
+    @Test
+    public void testEarlierOperationSkippedWhenRunLast() throws Exception {
+        final Callable<String> older = ordering.ordered("/a", operation("older"), "skipped");
+        final Callable<String> newer = ordering.ordered("/a", operation("newer"), "skipped");
+        assertEquals("newer", newer.call());
+        assertEquals("skipped", older.call());
+        assertEquals(asList("newer"), ran);
+    }
+
+    @Test
+    public void testTasksOnResourceRunOneAtATime() {
+        ordering.execute("/a", task("a1"), executor);
+        ordering.execute("/a", task("a2"), executor);
+        ordering.execute("/b", task("b1"), executor);
+
+        // the second task on /a waits without being given to the executor
+        assertEquals(2, given.size());
+        given.get(1).run();
+        assertEquals(asList("b1"), ran);
+
+        // and is given to it once the first has finished
+        given.get(0).run();
+        assertEquals(3, given.size());
+        given.get(2).run();
+        assertEquals(asList("b1", "a1", "a2"), ran);
+
+        // with nothing running on /a, a new task is given to the executor at once
+        ordering.execute("/a", task("a3"), executor);
+        assertEquals(4, given.size());
+    }
+
+    @Test
+    public void testFailedTaskHandsOnNext() {
+        ordering.execute("/a", new Runnable() {
+
+            @Override
+            public void run() {
+                throw new IllegalStateException("Unable to index");
+            }
+        }, executor);
+        ordering.execute("/a", task("a2"), executor);
+        try {
+            given.get(0).run();
+            fail("The task should have failed!");
+        } catch (final IllegalStateException e) {
+            assertEquals(2, given.size());
+        }
+        given.get(1).run();
+        assertEquals(asList("a2"), ran);
+    }
+
+    private Callable<String> operation(final String name) {
+        return new Callable<String>() {
+
+            @Override
+            public String call() {
+                ran.add(name);
+                return name;
+            }
+        };
+    }
+
+    private Runnable task(final String name) {
+        return new Runnable() {
+
+            @Override
+            public void run() {
+                ran.add(name);
+            }
+        };
+    }
+}
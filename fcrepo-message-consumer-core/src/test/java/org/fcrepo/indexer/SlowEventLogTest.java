@@ -0,0 +1,79 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static java.lang.Thread.sleep;
+import static org.fcrepo.indexer.StageObserver.Stage.GET;
+import static org.fcrepo.indexer.StageObserver.Stage.HEAD;
+import static org.fcrepo.indexer.StageObserver.Stage.PARSE;
+import static org.fcrepo.indexer.StageObserver.Stage.UPDATE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class SlowEventLogTest {
+
+    private final SlowEventLog log = new SlowEventLog(2);
+
+    @Test
+    public void testKeepsSlowest() throws InterruptedException {
+        trace("/medium", 20);
+        trace("/fast", 0);
+        trace("/slow", 40);
+
+        final List<EventTrace> slowest = log.slowest();
+        assertEquals(2, slowest.size());
+        assertEquals(URI.create("/slow"), slowest.get(0).getUri());
+        assertEquals(URI.create("/medium"), slowest.get(1).getUri());
+        assertTrue(slowest.get(0).getMillis() >= 40);
+
+        log.clear();
+        assertTrue(log.slowest().isEmpty());
+    }
+
+    @Test
+    public void testStagesOnlyRecordedWhileTracing() {
+        final URI uri = URI.create("/traced");
+        StageObservers.begin(HEAD, uri).end(false);
+        final EventTrace trace = EventTrace.begin(uri, "update", log);
+        StageObservers.begin(GET, uri).bytes(10).end(false);
+        // the bytes parsed were already counted by the get
+        StageObservers.begin(PARSE, uri).bytes(10).triples(3).end(true);
+        StageObservers.begin(UPDATE, uri, "indexer").end(false);
+        trace.end();
+        StageObservers.begin(HEAD, uri).end(false);
+
+        assertEquals(2, trace.getStages().size());
+        assertEquals("rdf-get", trace.getStages().get(0).getName());
+        assertEquals("rdf-parse", trace.getStages().get(1).getName());
+        assertEquals(10, trace.getBytes());
+        assertEquals(3, trace.getTriples());
+    }
+
+    private void trace(final String uri, final long millis) throws InterruptedException {
+        final EventTrace trace = EventTrace.begin(URI.create(uri), "update", log);
+        sleep(millis);
+        trace.end();
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static com.google.common.io.ByteStreams.toByteArray;
+import static org.fcrepo.indexer.SpooledContent.DEFAULT_THRESHOLD;
+import static org.fcrepo.indexer.SpooledContent.spool;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class SpooledContentTest {
+
+    @Test
+    public void testInMemory() throws IOException {
+        final byte[] data = "<sv:node/>".getBytes("UTF-8");
+        try (final SpooledContent content = spool(new ByteArrayInputStream(data))) {
+            assertTrue(content.inMemory());
+            assertEquals(data.length, content.size());
+            assertIndependentViews(content, data);
+        }
+    }
+
+    @Test
+    public void testSpilledToFile() throws IOException {
+        final byte[] data = new byte[DEFAULT_THRESHOLD * 2 + 17];
+        new Random(42).nextBytes(data);
+        try (final SpooledContent content = spool(new ByteArrayInputStream(data))) {
+            assertFalse(content.inMemory());
+            assertEquals(data.length, content.size());
+            assertIndependentViews(content, data);
+        }
+    }
+
+    @Test
+    public void testThresholdHeldInMemory() throws IOException {
+        final byte[] data = new byte[DEFAULT_THRESHOLD];
+        new Random(42).nextBytes(data);
+        try (final SpooledContent content = spool(new ByteArrayInputStream(data))) {
+            assertTrue(content.inMemory());
+            assertEquals(data.length, content.size());
+            assertIndependentViews(content, data);
+        }
+    }
+
+    @Test
+    public void testConfiguredThreshold() throws IOException {
+        final byte[] data = new byte[101];
+        new Random(42).nextBytes(data);
+        try (final SpooledContent content = spool(new ByteArrayInputStream(data), 100)) {
+            assertFalse(content.inMemory());
+            assertEquals(data.length, content.size());
+            assertIndependentViews(content, data);
+        }
+        try (final SpooledContent content = spool(new ByteArrayInputStream(data), 101)) {
+            assertTrue(content.inMemory());
+            assertIndependentViews(content, data);
+        }
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        try (final SpooledContent content = SpooledContent.empty()) {
+            assertEquals(0, content.size());
+            assertEquals(-1, content.openStream().read());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReadAfterClose() throws IOException {
+        final SpooledContent content = spool(new ByteArrayInputStream(new byte[] { 1, 2, 3 }));
+        content.close();
+        content.openStream();
+    }
+
+    private static void assertIndependentViews(final SpooledContent content, final byte[] data)
+            throws IOException {
+        try (final InputStream first = content.openStream(); final InputStream second = content.openStream()) {
+            // partially consuming one view must not affect the other
+            assertEquals(data[0] & 0xff, first.read());
+            assertArrayEquals(data, toByteArray(second));
+        }
+        try (final InputStream third = content.openStream()) {
+            assertArrayEquals(data, toByteArray(third));
+        }
+    }
+}
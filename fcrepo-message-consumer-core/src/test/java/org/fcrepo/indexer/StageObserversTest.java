@@ -0,0 +1,127 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer;
+
+import static org.fcrepo.indexer.StageObserver.Stage.REMOVE;
+import static org.fcrepo.indexer.StageObserver.Stage.UPDATE;
+import static org.junit.Assert.assertEquals;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.fcrepo.indexer.StageObserver.Span;
+import org.fcrepo.indexer.StageObserver.Stage;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class StageObserversTest {
+
+    private static final URI ID = URI.create("http://example.org/rest/a");
+
+    private final List<String> observed = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        StageObservers.set();
+    }
+
+    @Test
+    public void testIndexerStagesObserved() throws Exception {
+        StageObservers.set(new RecordingObserver("first"), new RecordingObserver("second"));
+        final FailingRemovalIndexer indexer = new FailingRemovalIndexer();
+        indexer.update(ID, "content");
+        indexer.remove(ID);
+
+        final String source = FailingRemovalIndexer.class.getName();
+        assertEquals(4, observed.size());
+        assertEquals("first " + UPDATE + " " + ID + " " + source + " ok", observed.get(0));
+        assertEquals("second " + UPDATE + " " + ID + " " + source + " ok", observed.get(1));
+        assertEquals("first " + REMOVE + " " + ID + " " + source + " failed", observed.get(2));
+        assertEquals("second " + REMOVE + " " + ID + " " + source + " failed", observed.get(3));
+    }
+
+    @Test
+    public void testNothingObserved() {
+        StageObservers.begin(UPDATE, ID).bytes(1).triples(1).end(false);
+        assertEquals(0, observed.size());
+    }
+
+    private class RecordingObserver implements StageObserver {
+
+        private final String name;
+
+        RecordingObserver(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Span begin(final Stage stage, final URI uri, final String source) {
+            return new Span() {
+
+                @Override
+                public Span bytes(final long count) {
+                    return this;
+                }
+
+                @Override
+                public Span triples(final long count) {
+                    return this;
+                }
+
+                @Override
+                public void end(final boolean failed) {
+                    observed.add(name + " " + stage + " " + uri + " " + source + (failed ? " failed" : " ok"));
+                }
+            };
+        }
+    }
+
+    private static class FailingRemovalIndexer extends SynchIndexer<String, Void> {
+
+        @Override
+        public Callable<Void> updateSynch(final URI identifier, final String content) {
+            return new Callable<Void>() {
+
+                @Override
+                public Void call() {
+                    return null;
+                }
+            };
+        }
+
+        @Override
+        public Callable<Void> removeSynch(final URI identifier) {
+            return new Callable<Void>() {
+
+                @Override
+                public Void call() {
+                    throw new IllegalStateException("Removal failed");
+                }
+            };
+        }
+
+        @Override
+        public IndexerType getIndexerType() {
+            return IndexerType.NO_CONTENT;
+        }
+    }
+}
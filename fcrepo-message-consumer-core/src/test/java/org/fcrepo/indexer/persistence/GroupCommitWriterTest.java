@@ -0,0 +1,121 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.persistence;
+
+import static com.google.common.util.concurrent.Futures.allAsList;
+import static java.nio.file.Files.readAllBytes;
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class GroupCommitWriterTest {
+
+    private GroupCommitWriter writer;
+
+    private Path dir;
+
+    @Before
+    public void setup() throws IOException {
+        writer = new GroupCommitWriter(2, 4, 5, 8);
+        dir = Files.createDirectories(new File("./target/writer-" + randomUUID()).toPath());
+    }
+
+    @After
+    public void teardown() throws IOException {
+        writer.close();
+    }
+
+    @Test
+    public void testLastWriteWins() throws Exception {
+        final List<ListenableFuture<File>> results = new ArrayList<>();
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 10; i++) {
+                results.add(writer.write(dir.resolve("file" + i), content("round " + round)));
+            }
+        }
+        allAsList(results).get();
+        for (int i = 0; i < 10; i++) {
+            assertEquals("round 19", new String(readAllBytes(dir.resolve("file" + i))));
+        }
+        assertNoTemporaryFiles();
+    }
+
+    @Test
+    public void testFailedWrite() throws Exception {
+        final Path target = dir.resolve("failed");
+        try {
+            writer.write(target, new GroupCommitWriter.FileContent() {
+
+                @Override
+                public void writeTo(final Path file) throws IOException {
+                    throw new IOException("expected");
+                }
+            }).get();
+            fail("Write should have failed!");
+        } catch (final ExecutionException e) {
+            assertEquals("expected", e.getCause().getMessage());
+        }
+        assertFalse(Files.exists(target));
+        assertNoTemporaryFiles();
+    }
+
+    @Test
+    public void testStaleTemporaryFilesSwept() throws Exception {
+        final Path stale = Files.createFile(dir.resolve(".tmp-" + randomUUID() + ".part"));
+        final Path unrelated = Files.createFile(dir.resolve("unrelated.part"));
+        writer.write(dir.resolve("file"), content("fresh")).get();
+        assertFalse("Stale temporary file not deleted!", Files.exists(stale));
+        assertEquals("fresh", new String(readAllBytes(dir.resolve("file"))));
+        assertTrue(Files.exists(unrelated));
+        assertNoTemporaryFiles();
+    }
+
+    private void assertNoTemporaryFiles() throws IOException {
+        for (final File f : dir.toFile().listFiles()) {
+            assertFalse("Temporary file left behind: " + f, f.getName().startsWith(".tmp-"));
+        }
+    }
+
+    private static GroupCommitWriter.FileContent content(final String s) {
+        return new GroupCommitWriter.FileContent() {
+
+            @Override
+            public void writeTo(final Path file) throws IOException {
+                Files.write(file, s.getBytes());
+            }
+        };
+    }
+}
@@ -15,20 +15,29 @@
  */
 package org.fcrepo.indexer.persistence;
 
+import static com.google.common.io.ByteStreams.toByteArray;
 import static java.nio.file.Files.readAllBytes;
 import static java.util.UUID.randomUUID;
 import static org.fcrepo.indexer.Indexer.IndexerType.JCRXML_PERSISTENCE;
+import static org.fcrepo.indexer.IndexerMetrics.counter;
+import static org.fcrepo.indexer.IndexerMetrics.timer;
+import static org.fcrepo.indexer.SpooledContent.spool;
+import static org.fcrepo.indexer.persistence.BasePersistenceIndexer.Compression.GZIP;
+import static org.fcrepo.indexer.persistence.BasePersistenceIndexer.Layout.SHARDED;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URLEncoder;
+import java.util.zip.GZIPInputStream;
 
+import org.fcrepo.indexer.SpooledContent;
 import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.Logger;
@@ -67,9 +76,10 @@ public class JcrXmlPersistenceIndexerTest {
     @Test
     public void updateTest() throws Exception {
         final String testId = "updateTest" + randomUUID();
-        final InputStream input = new ByteArrayInputStream (testContent.getBytes());
+        final SpooledContent input = spool(new ByteArrayInputStream (testContent.getBytes()));
 
         final File f = indexer.update(new URI("http://localhost:8080/" + testId), input).get();
+        input.close();
 
         // file should exist
         LOGGER.debug("Got filename: {}", f.getName());
@@ -85,7 +95,7 @@ public class JcrXmlPersistenceIndexerTest {
         final String path1 = "updateHier" +  randomUUID();
         final String path2 = "" + randomUUID();
         final String testId = "http://localhost:8080/" + path1 + "/" + path2;
-        final InputStream input = new ByteArrayInputStream (testContent.getBytes());
+        final SpooledContent input = spool(new ByteArrayInputStream (testContent.getBytes()));
 
         final File f = indexer.update(new URI(testId), input).get();
 
@@ -107,7 +117,7 @@ public class JcrXmlPersistenceIndexerTest {
     public void updateWithSpecialCharacterPathTest() throws Exception {
         final String path = URLEncoder.encode("updateHier : \\'\" < >") +  randomUUID();
         final String testId = "http://localhost:8080/" + path;
-        final InputStream input = new ByteArrayInputStream (testContent.getBytes());
+        final SpooledContent input = spool(new ByteArrayInputStream (testContent.getBytes()));
 
         final File f = indexer.update(new URI(testId), input).get();
 
@@ -124,6 +134,74 @@ public class JcrXmlPersistenceIndexerTest {
         assertTrue("Content doesn't contain our property!", content.equals(testContent));
     }
 
+    @Test
+    public void sharedContentTest() throws Exception {
+        final String testId = "http://localhost:8080/sharedTest" + randomUUID();
+        final JcrXmlPersistenceIndexer other =
+                new JcrXmlPersistenceIndexer(new File("./target/persistence-other").getAbsolutePath());
+        try (final SpooledContent input = spool(new ByteArrayInputStream(testContent.getBytes()))) {
+            final File f1 = indexer.update(new URI(testId), input).get();
+            final File f2 = other.update(new URI(testId), input).get();
+            assertEquals(testContent, new String(readAllBytes(f1.toPath())));
+            assertEquals(testContent, new String(readAllBytes(f2.toPath())));
+        }
+    }
+
+    @Test
+    public void shardedLayoutTest() throws Exception {
+        final File shardedPath = new File("./target/persistence-sharded");
+        final JcrXmlPersistenceIndexer sharded = new JcrXmlPersistenceIndexer(shardedPath.getAbsolutePath());
+        sharded.setLayout(SHARDED);
+        final String testId = "http://localhost:8080/parent/sharded" + randomUUID();
+        try (final SpooledContent input = spool(new ByteArrayInputStream(testContent.getBytes()))) {
+            final File f = sharded.update(new URI(testId), input).get();
+            assertEquals("Filename doesn't match", URLEncoder.encode(testId, "UTF-8") + ".jcr.xml", f.getName());
+            assertEquals("Unexpected shard directory", 2, f.getParentFile().getName().length());
+            assertEquals("Unexpected shard depth", shardedPath.getCanonicalFile(),
+                    f.getParentFile().getParentFile().getParentFile().getCanonicalFile());
+            assertEquals(testContent, new String(readAllBytes(f.toPath())));
+
+            // the same URI always lands in the same place
+            assertEquals(f, sharded.update(new URI(testId), input).get());
+        }
+    }
+
+    @Test
+    public void compressionTest() throws Exception {
+        final String testId = "http://localhost:8080/compressionTest" + randomUUID();
+        final JcrXmlPersistenceIndexer compressing = new JcrXmlPersistenceIndexer(path.getAbsolutePath());
+        compressing.setCompression(GZIP);
+        try (final SpooledContent input = spool(new ByteArrayInputStream(testContent.getBytes()))) {
+            final File f = compressing.update(new URI(testId), input).get();
+            assertTrue("Compression extension not added", f.getName().endsWith(".jcr.xml.gz"));
+            try (final InputStream in = new GZIPInputStream(new FileInputStream(f))) {
+                assertEquals(testContent, new String(toByteArray(in)));
+            }
+        }
+    }
+
+    @Test
+    public void writerTest() throws Exception {
+        final String testId = "http://localhost:8080/writerTest" + randomUUID();
+        final JcrXmlPersistenceIndexer writing = new JcrXmlPersistenceIndexer(path.getAbsolutePath());
+        final long updates = timer(JcrXmlPersistenceIndexer.class, "update").getCount();
+        final long removals = timer(JcrXmlPersistenceIndexer.class, "remove").getCount();
+        final long pending = counter(JcrXmlPersistenceIndexer.class, "pending").getCount();
+        try (final GroupCommitWriter writer = new GroupCommitWriter()) {
+            writing.setWriter(writer);
+            try (final SpooledContent input = spool(new ByteArrayInputStream(testContent.getBytes()))) {
+                final File f = writing.update(new URI(testId), input).get();
+                assertEquals(testContent, new String(readAllBytes(f.toPath())));
+            }
+            final File removed = writing.remove(new URI(testId)).get();
+            assertTrue("Content doesn't match", new String(readAllBytes(removed.toPath())).isEmpty());
+        }
+        // writes issued to the writer are measured like the indexer's own operations
+        assertEquals(updates + 1, timer(JcrXmlPersistenceIndexer.class, "update").getCount());
+        assertEquals(removals + 1, timer(JcrXmlPersistenceIndexer.class, "remove").getCount());
+        assertEquals(pending, counter(JcrXmlPersistenceIndexer.class, "pending").getCount());
+    }
+
     @Test
     public void removeTest() throws Exception {
         final String path1 = "removeTest" +  randomUUID();
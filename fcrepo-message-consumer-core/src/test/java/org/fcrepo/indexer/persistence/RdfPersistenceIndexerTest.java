@@ -15,21 +15,28 @@
  */
 package org.fcrepo.indexer.persistence;
 
+import static com.google.common.io.ByteStreams.toByteArray;
 import static com.hp.hpl.jena.rdf.model.ModelFactory.createDefaultModel;
 import static java.nio.file.Files.readAllBytes;
 import static java.util.UUID.randomUUID;
 import static org.fcrepo.indexer.Indexer.IndexerType.RDF;
+import static org.fcrepo.indexer.persistence.BasePersistenceIndexer.Compression.LZ4;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 
 import com.hp.hpl.jena.rdf.model.Model;
 
+import net.jpountz.lz4.LZ4BlockInputStream;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.Logger;
@@ -119,6 +126,41 @@ public class RdfPersistenceIndexerTest {
         assertTrue("Content doesn't match", content.isEmpty());
     }
 
+    @Test
+    public void compressionTest() throws Exception {
+        final String testId = "compressionTest" + randomUUID();
+        final RdfPersistenceIndexer compressing =
+                new RdfPersistenceIndexer(path.getAbsolutePath(), "N_TRIPLES", ".nt");
+        compressing.setCompression(LZ4);
+
+        final File f = compressing.update(new URI(serverAddress + testId), testModel(testId)).get();
+        assertTrue("Compression extension not added", f.getName().endsWith(".nt.lz4"));
+        try (final InputStream in = new LZ4BlockInputStream(new FileInputStream(f))) {
+            assertEquals("Content doesn't contain our property!",
+                    new String(toByteArray(in)).trim(), testContent(testId));
+        }
+    }
+
+    @Test
+    public void archiveTest() throws Exception {
+        final String testId = "archiveTest" + randomUUID();
+        final URI uri = new URI(serverAddress + testId);
+        try (final SegmentedArchive archive =
+                new SegmentedArchive(new File("./target/archive-" + randomUUID()).getAbsolutePath())) {
+            indexer.setArchive(archive);
+
+            final File f = indexer.update(uri, testModel(testId)).get();
+            assertTrue("Record should be appended to a segment file", f.getName().endsWith(".seg"));
+            assertEquals("Content doesn't contain our property!",
+                    new String(archive.get(uri.toString())).trim(), testContent(testId));
+
+            indexer.remove(uri).get();
+            assertFalse("Removed record should not be in the archive", archive.contains(uri.toString()));
+        } finally {
+            indexer.setArchive(null);
+        }
+    }
+
     @Test
     public void testGetIndexerType() {
         assertEquals("Got wrong indexer type!", RDF, indexer.getIndexerType());
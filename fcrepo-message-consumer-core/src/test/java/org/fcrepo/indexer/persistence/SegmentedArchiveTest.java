@@ -0,0 +1,156 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.persistence;
+
+import static com.google.common.io.ByteStreams.toByteArray;
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class SegmentedArchiveTest {
+
+    private static final long SEGMENT_SIZE = 4096;
+
+    private String path;
+
+    @Before
+    public void setup() {
+        path = new File("./target/archive-" + randomUUID()).getAbsolutePath();
+    }
+
+    @Test
+    public void testPutGetRemove() throws IOException {
+        try (final SegmentedArchive archive = new SegmentedArchive(path)) {
+            archive.put("a", bytes("first"));
+            archive.put("b", bytes("second"));
+            archive.put("a", bytes("third"));
+            archive.remove("b");
+
+            assertEquals("third", new String(archive.get("a")));
+            assertNull(archive.get("b"));
+            assertFalse(archive.contains("b"));
+            assertEquals(1, archive.size());
+        }
+    }
+
+    @Test
+    public void testReopen() throws IOException {
+        try (final SegmentedArchive archive = new SegmentedArchive(path, SEGMENT_SIZE, 1.0)) {
+            writeRounds(archive, 10);
+            archive.remove("key3");
+        }
+        try (final SegmentedArchive archive = new SegmentedArchive(path, SEGMENT_SIZE, 1.0)) {
+            assertEquals(49, archive.size());
+            assertNull(archive.get("key3"));
+            assertEquals(value(7, 9), new String(archive.get("key7")));
+        }
+    }
+
+    @Test
+    public void testTruncatedTailIsDiscarded() throws IOException {
+        try (final SegmentedArchive archive = new SegmentedArchive(path)) {
+            archive.put("a", bytes("content"));
+        }
+        final File[] segments = new File(path).listFiles();
+        Arrays.sort(segments);
+        try (final RandomAccessFile segment = new RandomAccessFile(segments[segments.length - 1], "rw")) {
+            segment.seek(segment.length());
+            segment.write(new byte[] { (byte) 0xFC, 0x4E, 0x00 });
+        }
+        try (final SegmentedArchive archive = new SegmentedArchive(path)) {
+            assertEquals("content", new String(archive.get("a")));
+            archive.put("b", bytes("more"));
+            assertEquals("more", new String(archive.get("b")));
+        }
+    }
+
+    @Test
+    public void testCompaction() throws IOException {
+        try (final SegmentedArchive archive = new SegmentedArchive(path, SEGMENT_SIZE, 1.0)) {
+            writeRounds(archive, 20);
+            archive.remove("key3");
+            final int before = archive.segmentCount();
+            archive.compact();
+            assertTrue("Compaction should reduce the number of segments", archive.segmentCount() < before);
+            assertEquals(49, archive.size());
+            for (int i = 0; i < 50; i++) {
+                if (i != 3) {
+                    assertEquals(value(i, 19), new String(archive.get("key" + i)));
+                }
+            }
+        }
+        // removed entries stay removed once their older records are compacted away
+        try (final SegmentedArchive archive = new SegmentedArchive(path, SEGMENT_SIZE, 1.0)) {
+            assertNull(archive.get("key3"));
+            assertEquals(49, archive.size());
+        }
+    }
+
+    @Test
+    public void testExport() throws IOException {
+        try (final SegmentedArchive archive = new SegmentedArchive(path, SEGMENT_SIZE, 1.0)) {
+            writeRounds(archive, 3);
+            final Map<String, byte[]> exported = new HashMap<>();
+            archive.export(new SegmentedArchive.RecordVisitor() {
+
+                @Override
+                public void visit(final String key, final InputStream value, final long length)
+                        throws IOException {
+                    final byte[] content = toByteArray(value);
+                    assertEquals(length, content.length);
+                    exported.put(key, content);
+                }
+            });
+            assertEquals(50, exported.size());
+            assertArrayEquals(value(12, 2).getBytes(), exported.get("key12"));
+        }
+    }
+
+    private static void writeRounds(final SegmentedArchive archive, final int rounds) throws IOException {
+        for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < 50; i++) {
+                archive.put("key" + i, bytes(value(i, round)));
+            }
+        }
+    }
+
+    private static String value(final int i, final int round) {
+        return "<info:test/" + i + "> <info:test/round> \"" + round + "\" .";
+    }
+
+    private static ByteBuffer bytes(final String s) {
+        return ByteBuffer.wrap(s.getBytes());
+    }
+}
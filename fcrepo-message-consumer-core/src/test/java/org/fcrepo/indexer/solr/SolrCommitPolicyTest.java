@@ -0,0 +1,176 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.solr;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.fcrepo.indexer.IndexerMetrics.timer;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.solr.client.solrj.SolrServer;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.response.UpdateResponse;
+import org.apache.solr.common.SolrInputDocument;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.codahale.metrics.Timer;
+
+/**
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class SolrCommitPolicyTest {
+
+    @Mock
+    private SolrServer mockServer;
+
+    @Mock
+    private UpdateResponse mockUpdateResponse;
+
+    private SolrCommitPolicy policy;
+
+    @Before
+    public void setUp() throws Exception {
+        initMocks(this);
+        when(mockUpdateResponse.getStatus()).thenReturn(0);
+        when(mockServer.add(any(SolrInputDocument.class))).thenReturn(mockUpdateResponse);
+        when(mockServer.add(any(SolrInputDocument.class), anyInt())).thenReturn(mockUpdateResponse);
+        when(mockServer.deleteById(anyString())).thenReturn(mockUpdateResponse);
+        policy = new SolrCommitPolicy(mockServer);
+    }
+
+    @Test
+    public void testMaxPendingDocs() throws Exception {
+        final Timer hardCommits = timer(SolrCommitPolicy.class, "hard-commit");
+        final long commits = hardCommits.getCount();
+        policy.setMaxPendingDocs(2);
+        policy.add(new SolrInputDocument());
+        verify(mockServer, never()).commit(anyBoolean(), anyBoolean(), anyBoolean());
+        policy.deleteById("a");
+        verify(mockServer).commit(true, true, false);
+        assertEquals(0, policy.getPendingDocs());
+        assertEquals(commits + 1, hardCommits.getCount());
+    }
+
+    @Test
+    public void testCommitsDoNotOverlap() throws Exception {
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch finish = new CountDownLatch(1);
+        doAnswer(new Answer<UpdateResponse>() {
+
+            @Override
+            public UpdateResponse answer(final InvocationOnMock invocation) throws InterruptedException {
+                running.countDown();
+                finish.await();
+                return mockUpdateResponse;
+            }
+        }).when(mockServer).commit(true, true, true);
+        policy.setSoftCommitInterval(10);
+        policy.setMaxPendingDocs(2);
+        policy.add(new SolrInputDocument());
+        assertTrue(running.await(5, SECONDS));
+
+        // with the scheduled commit still running, reaching maxPendingDocs does not start another
+        policy.add(new SolrInputDocument());
+        verify(mockServer, never()).commit(true, true, false);
+        assertEquals(2, policy.getPendingDocs());
+
+        finish.countDown();
+        policy.close();
+        verify(mockServer, times(1)).commit(true, true, false);
+        assertEquals(0, policy.getPendingDocs());
+    }
+
+    @Test
+    public void testChangeDuringHardCommitSoftCommitted() throws Exception {
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch finish = new CountDownLatch(1);
+        doAnswer(new Answer<UpdateResponse>() {
+
+            @Override
+            public UpdateResponse answer(final InvocationOnMock invocation) throws InterruptedException {
+                running.countDown();
+                finish.await();
+                return mockUpdateResponse;
+            }
+        }).when(mockServer).commit(true, true, false);
+        policy.add(new SolrInputDocument());
+        final Thread hardCommit = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    policy.commit(false);
+                } catch (final SolrServerException | IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        hardCommit.start();
+        assertTrue(running.await(5, SECONDS));
+
+        // added while the hard commit is running, so not made visible by it
+        policy.add(new SolrInputDocument());
+        finish.countDown();
+        hardCommit.join();
+        assertEquals(1, policy.getPendingDocs());
+
+        policy.commit(true);
+        verify(mockServer).commit(true, true, true);
+    }
+
+    @Test
+    public void testCommitWithin() throws Exception {
+        policy.setCommitWithin(500);
+        final SolrInputDocument doc = new SolrInputDocument();
+        policy.add(doc);
+        verify(mockServer).add(doc, 500);
+        verify(mockServer, never()).add(doc);
+    }
+
+    @Test
+    public void testSoftCommitInterval() throws Exception {
+        policy.setSoftCommitInterval(50);
+        policy.add(new SolrInputDocument());
+        verify(mockServer, timeout(5000)).commit(true, true, true);
+        policy.close();
+        verify(mockServer, times(1)).commit(true, true, false);
+    }
+
+    @Test
+    public void testNothingPending() throws Exception {
+        policy.close();
+        verify(mockServer, never()).commit(anyBoolean(), anyBoolean(), anyBoolean());
+    }
+}
@@ -19,11 +19,18 @@ import static com.google.common.collect.ImmutableMap.of;
 import static java.lang.System.currentTimeMillis;
 import static java.lang.Thread.sleep;
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
 import static java.util.UUID.randomUUID;
+import static org.apache.solr.common.SolrException.ErrorCode.CONFLICT;
 import static org.apache.solr.core.CoreContainer.createAndLoad;
 import static org.fcrepo.indexer.Indexer.IndexerType.NAMEDFIELDS;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentCaptor.forClass;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import static org.mockito.Mockito.any;
@@ -35,6 +42,7 @@ import java.io.IOException;
 import java.net.URI;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 
 import org.apache.solr.client.solrj.SolrQuery;
@@ -43,12 +51,14 @@ import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.client.solrj.embedded.EmbeddedSolrServer;
 import org.apache.solr.client.solrj.response.UpdateResponse;
 import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrException;
 import org.apache.solr.common.SolrInputDocument;
 import org.apache.solr.common.params.SolrParams;
 import org.apache.solr.core.CoreContainer;
 import org.fcrepo.indexer.NamedFields;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.slf4j.Logger;
 
@@ -147,6 +157,80 @@ public class SolrIndexerTest {
         testIndexer = hold;
     }
 
+    @Test
+    public void testChangedFieldsOnly() throws Exception {
+        final String id = "testChangedFields:" + randomUUID();
+        when(mockServer.add(any(SolrInputDocument.class))).thenReturn(mockUpdateResponse);
+        when(mockUpdateResponse.getStatus()).thenReturn(0);
+        final SolrIndexer indexer = new SolrIndexer(mockServer);
+        indexer.setFieldDigests(new FieldDigests());
+
+        final Collection<String> kept = asList("a", "b");
+        indexer.update(new URI(id), new NamedFields(of("kept", kept, "changed", asList("c"),
+                "dropped", asList("d")))).get();
+        indexer.update(new URI(id), new NamedFields(of("kept", kept, "changed", asList("e")))).get();
+        final ArgumentCaptor<SolrInputDocument> docs = forClass(SolrInputDocument.class);
+        verify(mockServer, times(2)).add(docs.capture());
+        assertEquals("First update should send every field!", 4, docs.getAllValues().get(0).size());
+
+        final SolrInputDocument partial = docs.getAllValues().get(1);
+        assertEquals(id, partial.getFieldValue("id"));
+        assertFalse("Unchanged field should not be sent!", partial.containsKey("kept"));
+        assertEquals(singletonMap("set", asList("e")), partial.getFieldValue("changed"));
+        assertEquals(singletonMap("set", null), partial.getFieldValue("dropped"));
+
+        final UpdateResponse result =
+                indexer.update(new URI(id), new NamedFields(of("kept", kept, "changed", asList("e")))).get();
+        assertEquals("Got wrong update response code!", 0, result.getStatus());
+        verify(mockServer, times(2)).add(any(SolrInputDocument.class));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNoFieldDigestsWhenStreaming() {
+        new SolrIndexer(mock(StreamingSolrServer.class)).setFieldDigests(new FieldDigests());
+    }
+
+    @Test
+    public void testUpdatesRunOutOfOrder() throws Exception {
+        final String id = "testOutOfOrder:" + randomUUID();
+        when(mockServer.add(any(SolrInputDocument.class))).thenReturn(mockUpdateResponse);
+        when(mockUpdateResponse.getStatus()).thenReturn(0);
+        final SolrIndexer indexer = new SolrIndexer(mockServer);
+        indexer.setFieldDigests(new FieldDigests());
+
+        final Callable<UpdateResponse> older = indexer.updateSynch(new URI(id), new NamedFields(of("f", asList("a"))));
+        final Callable<UpdateResponse> newer = indexer.updateSynch(new URI(id), new NamedFields(of("f", asList("b"))));
+        newer.call();
+        assertEquals("Got wrong update response code!", 0, older.call().getStatus());
+        final ArgumentCaptor<SolrInputDocument> docs = forClass(SolrInputDocument.class);
+        verify(mockServer).add(docs.capture());
+        assertEquals(asList("b"), docs.getValue().getFieldValues("f"));
+
+        // the digests are those of the document Solr holds, so an unchanged document is still skipped
+        indexer.update(new URI(id), new NamedFields(of("f", asList("b")))).get();
+        verify(mockServer).add(any(SolrInputDocument.class));
+    }
+
+    @Test
+    public void testMissingDocumentSentInFull() throws Exception {
+        final String id = "testMissing:" + randomUUID();
+        when(mockServer.add(any(SolrInputDocument.class))).thenReturn(mockUpdateResponse)
+                .thenThrow(new SolrException(CONFLICT, "Document not found for update."))
+                .thenReturn(mockUpdateResponse);
+        when(mockUpdateResponse.getStatus()).thenReturn(0);
+        final SolrIndexer indexer = new SolrIndexer(mockServer);
+        indexer.setFieldDigests(new FieldDigests());
+
+        indexer.update(new URI(id), new NamedFields(of("kept", asList("a"), "changed", asList("b")))).get();
+        indexer.update(new URI(id), new NamedFields(of("kept", asList("a"), "changed", asList("c")))).get();
+        final ArgumentCaptor<SolrInputDocument> docs = forClass(SolrInputDocument.class);
+        verify(mockServer, times(3)).add(docs.capture());
+        assertEquals(1L, docs.getAllValues().get(1).getFieldValue("_version_"));
+        final SolrInputDocument full = docs.getAllValues().get(2);
+        assertEquals(asList("a"), full.getFieldValues("kept"));
+        assertEquals(asList("c"), full.getFieldValues("changed"));
+    }
+
     @Test
     public void testUpdate() throws Exception {
         doUpdate("456");
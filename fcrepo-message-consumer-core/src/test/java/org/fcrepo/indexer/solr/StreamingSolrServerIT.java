@@ -0,0 +1,155 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.solr;
+
+import static com.google.common.collect.ImmutableMap.of;
+import static java.util.Arrays.asList;
+import static java.util.UUID.randomUUID;
+import static org.apache.solr.core.CoreContainer.createAndLoad;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.GenericServlet;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.response.UpdateResponse;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.core.CoreContainer;
+import org.apache.solr.servlet.SolrDispatchFilter;
+import org.fcrepo.indexer.NamedFields;
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.glassfish.grizzly.servlet.WebappContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class StreamingSolrServerIT {
+
+    private static final String SOLR_HOME = "target/test-classes/solr";
+
+    private HttpServer httpServer;
+
+    private String base;
+
+    private StreamingSolrServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        base = "http://localhost:" + port + "/solr";
+        httpServer = HttpServer.createSimpleServer(null, "localhost", port);
+        final WebappContext solr = new WebappContext("solr", "/solr");
+        solr.addFilter("dispatch", EmbeddedDispatchFilter.class).addMappingForUrlPatterns(null, "/*");
+        // requests the filter does not handle fall through to this servlet
+        solr.addServlet("notFound", NotFound.class).addMapping("/*");
+        solr.deploy(httpServer);
+        httpServer.start();
+        server = new StreamingSolrServer(base + "/testCore", 10, 2);
+    }
+
+    @After
+    public void tearDown() {
+        server.shutdownNow();
+        httpServer.shutdownNow();
+    }
+
+    @Test
+    public void testDocumentsSent() throws Exception {
+        final long errors = server.errors();
+        final SolrIndexer indexer = new SolrIndexer(server);
+        final String prefix = "testStreamed:" + randomUUID() + ":";
+        final List<ListenableFuture<UpdateResponse>> updates = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final String id = prefix + i;
+            updates.add(indexer.update(new URI(id),
+                    new NamedFields(of("id", asList(id), "title", asList("streamed " + i)))));
+        }
+        for (final ListenableFuture<UpdateResponse> update : updates) {
+            assertEquals("Update should be answered before it is sent!", 0, update.get().getStatus());
+        }
+        server.blockUntilFinished();
+        server.commit();
+
+        final SolrQuery query = new SolrQuery("id:" + prefix.replace(":", "\\:") + "*");
+        assertEquals("Streamed documents should be indexed!", 3, server.query(query).getResults().getNumFound());
+        assertEquals("No failures should be counted!", errors, server.errors());
+    }
+
+    @Test
+    public void testFailuresCounted() throws Exception {
+        final StreamingSolrServer missingCore = new StreamingSolrServer(base + "/missingCore", 10, 1);
+        try {
+            final long errors = missingCore.errors();
+            final SolrInputDocument document = new SolrInputDocument();
+            document.addField("id", "testMissingCore:" + randomUUID());
+            assertEquals("Update should be answered before it is sent!", 0, missingCore.add(document).getStatus());
+            missingCore.blockUntilFinished();
+            assertEquals("The failure to send should be counted!", errors + 1, missingCore.errors());
+        } finally {
+            missingCore.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testErrorsCounted() {
+        final long errors = server.errors();
+        server.handleError(new IOException("Expected."));
+        server.handleError(new IOException("Expected."));
+        assertEquals("Failures should be counted!", errors + 2, server.errors());
+    }
+
+    /**
+     * Serves the test core from the same Solr home as {@link SolrIndexerTest}.
+     */
+    public static class EmbeddedDispatchFilter extends SolrDispatchFilter {
+
+        @Override
+        protected CoreContainer createCoreContainer() {
+            return createAndLoad(SOLR_HOME, new File(SOLR_HOME, "solr.xml"));
+        }
+    }
+
+    /**
+     * Answers requests for paths Solr does not handle.
+     */
+    public static class NotFound extends GenericServlet {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void service(final ServletRequest request, final ServletResponse response) throws IOException {
+            ((HttpServletResponse) response).sendError(HttpServletResponse.SC_NOT_FOUND);
+        }
+    }
+}
@@ -25,6 +25,9 @@ import com.hp.hpl.jena.graph.Triple;
 import com.hp.hpl.jena.rdf.model.Model;
 import com.hp.hpl.jena.rdf.model.ModelFactory;
 import com.hp.hpl.jena.sparql.engine.http.QueryEngineHTTP;
+import com.hp.hpl.jena.sparql.modify.request.UpdateDataDelete;
+import com.hp.hpl.jena.sparql.modify.request.UpdateDataInsert;
+import com.hp.hpl.jena.update.Update;
 import com.hp.hpl.jena.update.UpdateRequest;
 import org.junit.Before;
 import org.junit.Test;
@@ -35,8 +38,11 @@ import org.slf4j.Logger;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 
 /**
@@ -86,6 +92,66 @@ public class SparqlIndexerTest {
         testIndexer.updateSynch( new URI(""), model);
     }
 
+    @Test
+    public void testUpdateSynchDifference() throws Exception {
+        testIndexer.setTripleCache(new TripleCache());
+        final URI pid = new URI("info://obj-0");
+        final Triple title = new Triple(createURI("info://obj-0"), createURI("info://title"), createLiteral("a"));
+        final Triple kept = new Triple(createURI("info://obj-0"), createURI("info://creator"), createLiteral("b"));
+        final Triple changed = new Triple(createURI("info://obj-0"), createURI("info://title"), createLiteral("c"));
+
+        final Model first = ModelFactory.createDefaultModel();
+        first.getGraph().add(title);
+        first.getGraph().add(kept);
+        testIndexer.updateSynch(pid, first).call();
+        assertEquals(1, executed.size());
+        assertEquals(2, ((UpdateDataInsert) executed.get(0).getOperations().get(0)).getQuads().size());
+
+        final Model second = ModelFactory.createDefaultModel();
+        second.getGraph().add(changed);
+        second.getGraph().add(kept);
+        testIndexer.updateSynch(pid, second).call();
+        assertEquals(2, executed.size());
+        final List<Update> operations = executed.get(1).getOperations();
+        assertEquals(2, operations.size());
+        assertEquals(title.getObject(), ((UpdateDataDelete) operations.get(0)).getQuads().get(0).getObject());
+        assertEquals(1, ((UpdateDataDelete) operations.get(0)).getQuads().size());
+        assertEquals(changed.getObject(), ((UpdateDataInsert) operations.get(1)).getQuads().get(0).getObject());
+        assertEquals(1, ((UpdateDataInsert) operations.get(1)).getQuads().size());
+
+        testIndexer.updateSynch(pid, second).call();
+        assertEquals("Unchanged resource should not be written!", 2, executed.size());
+    }
+
+    @Test
+    public void testUpdatesRunOutOfOrder() throws Exception {
+        testIndexer.setTripleCache(new TripleCache());
+        final URI pid = new URI("info://obj-0");
+        final Triple title = new Triple(createURI("info://obj-0"), createURI("info://title"), createLiteral("a"));
+        final Triple changed = new Triple(createURI("info://obj-0"), createURI("info://title"), createLiteral("c"));
+        final Model first = ModelFactory.createDefaultModel();
+        first.getGraph().add(title);
+        final Model second = ModelFactory.createDefaultModel();
+        second.getGraph().add(changed);
+
+        final Callable<Void> older = testIndexer.updateSynch(pid, first);
+        final Callable<Void> newer = testIndexer.updateSynch(pid, second);
+        newer.call();
+        older.call();
+        assertEquals("An update run after a later one should be skipped!", 1, executed.size());
+        assertEquals(changed.getObject(),
+                ((UpdateDataInsert) executed.get(0).getOperations().get(0)).getQuads().get(0).getObject());
+
+        // the cache holds what the triplestore was sent, so a later difference is right
+        testIndexer.updateSynch(pid, first).call();
+        assertEquals(2, executed.size());
+        final List<Update> operations = executed.get(1).getOperations();
+        assertEquals(changed.getObject(), ((UpdateDataDelete) operations.get(0)).getQuads().get(0).getObject());
+        assertEquals(title.getObject(), ((UpdateDataInsert) operations.get(1)).getQuads().get(0).getObject());
+    }
+
+    private final List<UpdateRequest> executed = new ArrayList<>();
+
     @Mock
     private QueryEngineHTTP queryEngineHTTP;
 
@@ -116,6 +182,10 @@ public class SparqlIndexerTest {
         protected UpdateRequest buildUpdateRequest() {
             return updateRequest;
         }
+
+        protected void execute(final UpdateRequest update) {
+            executed.add(update);
+        }
     }
 
 }
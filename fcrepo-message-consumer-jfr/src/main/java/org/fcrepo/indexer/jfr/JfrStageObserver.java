@@ -0,0 +1,100 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.jfr;
+
+import java.net.URI;
+
+import org.fcrepo.indexer.StageObserver;
+
+/**
+ * Emits a Java Flight Recorder event for each stage of handling an event:
+ * {@code org.fcrepo.indexer.Message}, {@code org.fcrepo.indexer.Retrieval},
+ * {@code org.fcrepo.indexer.Parse} and {@code org.fcrepo.indexer.Indexer}.
+ * Stages whose events are not enabled in the running recording cost no more
+ * than a check.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class JfrStageObserver implements StageObserver {
+
+    private static final Span DISABLED = new Span() {
+
+        @Override
+        public Span bytes(final long count) {
+            return this;
+        }
+
+        @Override
+        public Span triples(final long count) {
+            return this;
+        }
+
+        @Override
+        public void end(final boolean failed) {
+            // not recorded
+        }
+    };
+
+    @Override
+    public Span begin(final Stage stage, final URI uri, final String source) {
+        final StageEvent event = event(stage, source);
+        if (!event.isEnabled()) {
+            return DISABLED;
+        }
+        event.uri = uri == null ? null : uri.toString();
+        event.begin();
+        return new Span() {
+
+            @Override
+            public Span bytes(final long count) {
+                event.bytes(count);
+                return this;
+            }
+
+            @Override
+            public Span triples(final long count) {
+                event.triples(count);
+                return this;
+            }
+
+            @Override
+            public void end(final boolean failed) {
+                event.failed = failed;
+                event.commit();
+            }
+        };
+    }
+
+    private static StageEvent event(final Stage stage, final String source) {
+        switch (stage) {
+            case RECEIVE:
+                return new MessageEvent();
+            case PARSE:
+                return new ParseEvent();
+            case UPDATE:
+            case REMOVE:
+                final IndexerEvent indexer = new IndexerEvent();
+                indexer.indexer = source;
+                indexer.operation = stage.name();
+                return indexer;
+            default:
+                final RetrievalEvent retrieval = new RetrievalEvent();
+                retrieval.request = stage.name();
+                return retrieval;
+        }
+    }
+}
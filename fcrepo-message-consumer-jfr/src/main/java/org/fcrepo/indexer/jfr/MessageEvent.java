@@ -0,0 +1,32 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Receipt of a message, up to dispatch to each indexer.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+@Name("org.fcrepo.indexer.Message")
+@Label("Message")
+@Description("Receipt of a message, including retrieval of the resource, up to dispatch to each indexer")
+class MessageEvent extends StageEvent {
+}
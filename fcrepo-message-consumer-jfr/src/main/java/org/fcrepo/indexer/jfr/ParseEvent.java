@@ -0,0 +1,50 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Parsing of retrieved RDF.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+@Name("org.fcrepo.indexer.Parse")
+@Label("RDF Parse")
+@Description("Parsing of RDF retrieved as N-Triples")
+class ParseEvent extends StageEvent {
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Triples")
+    long triples;
+
+    @Override
+    void bytes(final long count) {
+        bytes = count;
+    }
+
+    @Override
+    void triples(final long count) {
+        triples = count;
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * A stage of handling an event, recorded from its beginning to its end on the
+ * thread doing the work.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+@Category({"Fedora", "Message Consumer"})
+abstract class StageEvent extends Event {
+
+    @Label("Resource")
+    String uri;
+
+    @Label("Failed")
+    boolean failed;
+
+    /**
+     * @param count the number of bytes transferred, if this stage records them
+     */
+    void bytes(final long count) {
+        // not recorded
+    }
+
+    /**
+     * @param count the number of triples parsed, if this stage records them
+     */
+    void triples(final long count) {
+        // not recorded
+    }
+}
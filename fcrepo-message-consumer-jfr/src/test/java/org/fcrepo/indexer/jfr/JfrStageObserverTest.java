@@ -0,0 +1,92 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.jfr;
+
+import static org.fcrepo.indexer.StageObserver.Stage.GET;
+import static org.fcrepo.indexer.StageObserver.Stage.RECEIVE;
+import static org.fcrepo.indexer.StageObserver.Stage.UPDATE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Test;
+
+/**
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class JfrStageObserverTest {
+
+    private static final URI ID = URI.create("http://localhost:8080/rest/a");
+
+    private final JfrStageObserver observer = new JfrStageObserver();
+
+    @Test
+    public void testEventsRecorded() throws IOException {
+        final Path dump = Files.createTempFile("stages", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(MessageEvent.class).withoutThreshold();
+            recording.enable(RetrievalEvent.class).withoutThreshold();
+            recording.enable(IndexerEvent.class).withoutThreshold();
+            recording.start();
+            observer.begin(RECEIVE, ID, null).end(false);
+            observer.begin(GET, ID, null).bytes(2048).triples(12).end(false);
+            observer.begin(UPDATE, ID, "org.fcrepo.indexer.solr.SolrIndexer").end(true);
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        Files.delete(dump);
+        final Map<String, RecordedEvent> byName = new HashMap<>();
+        for (final RecordedEvent event : events) {
+            byName.put(event.getEventType().getName(), event);
+        }
+        assertEquals(3, byName.size());
+
+        final RecordedEvent message = byName.get("org.fcrepo.indexer.Message");
+        assertEquals(ID.toString(), message.getString("uri"));
+        assertFalse(message.getBoolean("failed"));
+
+        final RecordedEvent retrieval = byName.get("org.fcrepo.indexer.Retrieval");
+        assertEquals("GET", retrieval.getString("request"));
+        assertEquals(2048, retrieval.getLong("bytes"));
+        assertEquals(12, retrieval.getLong("triples"));
+
+        final RecordedEvent indexer = byName.get("org.fcrepo.indexer.Indexer");
+        assertEquals("org.fcrepo.indexer.solr.SolrIndexer", indexer.getString("indexer"));
+        assertEquals("UPDATE", indexer.getString("operation"));
+        assertTrue(indexer.getBoolean("failed"));
+    }
+
+    @Test
+    public void testDisabledEventsIgnored() {
+        // with no recording running, no event is enabled
+        observer.begin(GET, ID, null).bytes(1).triples(1).end(false);
+    }
+}
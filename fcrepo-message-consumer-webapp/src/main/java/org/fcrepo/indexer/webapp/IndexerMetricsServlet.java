@@ -0,0 +1,38 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.webapp;
+
+import org.fcrepo.indexer.IndexerMetrics;
+
+import com.codahale.metrics.servlets.MetricsServlet;
+
+/**
+ * Servlet to report indexing metrics as JSON.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+**/
+public class IndexerMetricsServlet extends MetricsServlet {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Report the metrics of {@link IndexerMetrics#registry()}.
+    **/
+    public IndexerMetricsServlet() {
+        super(IndexerMetrics.registry());
+    }
+}
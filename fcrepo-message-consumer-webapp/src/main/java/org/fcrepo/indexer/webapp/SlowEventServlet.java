@@ -0,0 +1,106 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.indexer.webapp;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.WebApplicationContextUtils;
+
+import org.fcrepo.indexer.EventTrace;
+import org.fcrepo.indexer.SlowEventLog;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Servlet to report the traces of the slowest events as JSON, slowest first.
+ * GET takes an optional {@code limit} parameter; DELETE forgets all traces.
+ * Both answer 404 when no slow event log is configured.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+**/
+public class SlowEventServlet extends HttpServlet {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    private SlowEventLog log;
+
+    /**
+     * Servlet initialization.
+    **/
+    @Override
+    public void init( final ServletConfig sc ) throws ServletException {
+        super.init(sc);
+        final WebApplicationContext ctx
+            = WebApplicationContextUtils.getRequiredWebApplicationContext(getServletContext());
+        final String beanName = sc.getInitParameter("beanName");
+        // the log is opt-in, so may not be configured
+        log = ctx.containsBean(beanName) ? (SlowEventLog)ctx.getBean( beanName ) : null;
+    }
+
+    /**
+     * Report the slowest events.
+    **/
+    @Override
+    public void doGet(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+        if (log == null) {
+            notTraced(response);
+            return;
+        }
+        List<EventTrace> slowest = log.slowest();
+        final String limit = request.getParameter("limit");
+        if (limit != null) {
+            try {
+                slowest = slowest.subList(0, Math.min(slowest.size(), Math.max(0, Integer.parseInt(limit))));
+            } catch (final NumberFormatException e) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Error: the limit must be a number");
+                return;
+            }
+        }
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        gson.toJson(slowest, response.getWriter());
+    }
+
+    /**
+     * Forget all traces.
+    **/
+    @Override
+    public void doDelete(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+        if (log == null) {
+            notTraced(response);
+            return;
+        }
+        log.clear();
+        response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+    }
+
+    private static void notTraced(final HttpServletResponse response) throws IOException {
+        response.sendError(HttpServletResponse.SC_NOT_FOUND,
+                "Error: events are not traced, as no slowEventLog is configured");
+    }
+}